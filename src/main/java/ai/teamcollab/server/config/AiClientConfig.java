@@ -0,0 +1,25 @@
+package ai.teamcollab.server.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+/**
+ * Configuration for the HTTP client used to talk to LLM providers. A single {@link HttpClient} is shared by every chat
+ * model so connections are pooled and kept alive between calls instead of being re-established per message.
+ */
+@Configuration
+@EnableConfigurationProperties({AiClientProperties.class, ChatStreamingProperties.class})
+public class AiClientConfig {
+
+    @Bean
+    public HttpClient llmHttpClient(AiClientProperties properties) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+}
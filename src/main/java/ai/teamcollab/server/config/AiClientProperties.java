@@ -0,0 +1,26 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the HTTP client shared by every LLM chat model.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.ai.http")
+public class AiClientProperties {
+
+    /**
+     * Maximum time to wait when opening a connection to the LLM provider.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum time to wait for a response from the LLM provider.
+     */
+    private Duration readTimeout = Duration.ofSeconds(120);
+}
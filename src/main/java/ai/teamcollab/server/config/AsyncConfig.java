@@ -0,0 +1,96 @@
+package ai.teamcollab.server.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+
+/**
+ * Configuration for the executors used by asynchronous work.
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncConfig {
+
+    /**
+     * The executor for {@code @Async} methods and for the futures that wait on LLM calls. Uses a new virtual thread per
+     * task when {@code teamcollab.async.virtual-threads} is set, otherwise the thread pool configured through
+     * {@code spring.task.execution.*}. Declared here because defining any other executor bean turns off the one Spring
+     * Boot would otherwise create.
+     *
+     * @param properties        the async settings
+     * @param simpleBuilder     the builder for virtual-thread executors configured by Spring Boot
+     * @param threadPoolBuilder the builder for thread pools configured by Spring Boot
+     * @return the application task executor
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(AsyncProperties properties,
+                                                     SimpleAsyncTaskExecutorBuilder simpleBuilder,
+                                                     ThreadPoolTaskExecutorBuilder threadPoolBuilder) {
+        if (properties.isVirtualThreads()) {
+            return simpleBuilder
+                    .virtualThreads(true)
+                    .threadNamePrefix("async-")
+                    .build();
+        }
+        return threadPoolBuilder.build();
+    }
+
+    /**
+     * Bounded executor for the LLM calls of a point-in-time summary. On virtual threads the bound is a concurrency
+     * limit that makes extra calls wait; on a thread pool the caller runs the call itself once the pool and its queue
+     * are full. Either way summary generation slows down instead of failing.
+     *
+     * @param properties the async settings
+     * @return the summary executor
+     */
+    @Bean
+    public AsyncTaskExecutor summaryExecutor(AsyncProperties properties) {
+        final var pool = properties.getSummary();
+        if (properties.isVirtualThreads()) {
+            final var executor = new SimpleAsyncTaskExecutor("summary-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(pool.getMaxPoolSize());
+            return executor;
+        }
+
+        final var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix("summary-");
+        executor.setRejectedExecutionHandler(new CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Bounded executor that saves and renders the chat messages taken in on the WebSocket inbound channel. Unlike the
+     * summary executor it never makes the caller wait or run the task, since the caller is the inbound channel; a full
+     * queue rejects the task instead. On virtual threads the pool threads are virtual, so a task waiting on the
+     * database does not hold a platform thread.
+     *
+     * @param properties the async settings
+     * @return the chat ingest executor
+     */
+    @Bean
+    public AsyncTaskExecutor chatIngestExecutor(AsyncProperties properties) {
+        final var pool = properties.getChatIngest();
+        final var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix("chat-ingest-");
+        if (properties.isVirtualThreads()) {
+            executor.setThreadFactory(Thread.ofVirtual().name("chat-ingest-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
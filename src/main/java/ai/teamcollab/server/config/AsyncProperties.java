@@ -0,0 +1,64 @@
+package ai.teamcollab.server.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the executors that run asynchronous work.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.async")
+public class AsyncProperties {
+
+    /**
+     * Whether {@code @Async} methods and LLM calls run on virtual threads. Blocking HTTP and JDBC calls then park a
+     * virtual thread instead of holding a platform thread.
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * Maximum number of LLM calls a single company may have in flight, so one busy company cannot starve the others.
+     */
+    private int maxConcurrentLlmCallsPerCompany = 20;
+
+    /**
+     * Maximum time an LLM call waits for one of its company's permits before it is rejected.
+     */
+    private Duration companyPermitTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Maximum number of assistant replies generated at the same time for a single conversation.
+     */
+    private int maxConcurrentRepliesPerConversation = 3;
+
+    /**
+     * Pool used to run the summary prompts of a point-in-time summary concurrently.
+     */
+    private Pool summary = new Pool(3, 12, 100);
+
+    /**
+     * Pool that saves and renders the chat messages sent over the WebSocket, after they have been acknowledged. Once
+     * the pool and its queue are full, new messages are turned away.
+     */
+    private Pool chatIngest = new Pool(8, 32, 1000);
+
+    /**
+     * Size limits of a bounded thread pool. With virtual threads only the maximum pool size is used, as the limit on
+     * concurrent tasks.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int corePoolSize;
+        private int maxPoolSize;
+        private int queueCapacity;
+    }
+}
@@ -0,0 +1,82 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the buffer and the background writer of audit events, and for the monthly partitions they are written
+ * to.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.audit")
+public class AuditProperties {
+
+    /**
+     * Number of audit events the buffer holds before new ones are dropped.
+     */
+    private int capacity = 8192;
+
+    /**
+     * Maximum number of audit events inserted in one JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Whether callers return as soon as an event is buffered, or wait until it is written.
+     */
+    private Durability durability = Durability.FIRE_AND_FORGET;
+
+    /**
+     * Longest time a caller waits in {@link Durability#WAIT_FOR_FLUSH} mode, first for room in a full buffer and then
+     * for the write. Auditing gives up and logs after it, rather than failing the request.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Number of months ahead of the current one that always have a partition.
+     */
+    private int partitionsAhead = 3;
+
+    /**
+     * Number of past months whose partitions are kept besides the current one. 0 keeps every partition.
+     */
+    private int retentionMonths = 12;
+
+    /**
+     * What happens to the partition of a month once it is past the retention.
+     */
+    private RetentionAction retentionAction = RetentionAction.DETACH;
+
+    /**
+     * Time between two checks of the partitions.
+     */
+    private Duration partitionCheckInterval = Duration.ofHours(6);
+
+    public enum Durability {
+        /**
+         * Return once the event is buffered. Events still buffered when the process is killed are lost.
+         */
+        FIRE_AND_FORGET,
+
+        /**
+         * Return once the batch holding the event is written.
+         */
+        WAIT_FOR_FLUSH
+    }
+
+    public enum RetentionAction {
+        /**
+         * Detach the partition and keep it as a standalone table, to be archived and dropped outside the application.
+         */
+        DETACH,
+
+        /**
+         * Drop the partition and its audit events.
+         */
+        DROP
+    }
+}
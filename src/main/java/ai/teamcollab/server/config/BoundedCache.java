@@ -0,0 +1,87 @@
+package ai.teamcollab.server.config;
+
+import ai.teamcollab.server.service.domain.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A Caffeine cache with a maximum size and a time to live, recording its statistics. Besides single keys, it evicts
+ * all the keys matching a {@link CacheKeyPrefix}, so a change can drop the entries it affects without clearing the
+ * whole cache.
+ * <p>
+ * Evictions and clears are passed on to {@link CacheInvalidations}, so the other nodes drop the same entries; the
+ * {@code ...Locally} methods apply the ones received from the other nodes.
+ */
+public class BoundedCache extends CaffeineCache {
+    private final CacheInvalidations invalidations;
+
+    public BoundedCache(String name, EntityCacheProperties.Spec spec) {
+        this(name, spec, CacheInvalidations.NONE);
+    }
+
+    public BoundedCache(String name, EntityCacheProperties.Spec spec, CacheInvalidations invalidations) {
+        super(name, Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build());
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        final var evicted = evictLocally(key);
+        invalidations.evicted(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        clearLocally();
+        invalidations.cleared(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        final var notEmpty = super.invalidate();
+        invalidations.cleared(getName());
+        return notEmpty;
+    }
+
+    /**
+     * Evicts a key, or the keys matching a {@link CacheKeyPrefix}, from this node only.
+     *
+     * @param key the key to evict
+     * @return {@code true} if an entry was evicted
+     */
+    public boolean evictLocally(Object key) {
+        if (key instanceof CacheKeyPrefix prefix) {
+            return getNativeCache().asMap().keySet().removeIf(prefix::matches);
+        }
+        return super.evictIfPresent(key);
+    }
+
+    /**
+     * Clears the cache on this node only.
+     */
+    public void clearLocally() {
+        super.clear();
+    }
+
+    /**
+     * Returns the size, hit and eviction counters of the cache. Evictions count the entries removed because the cache
+     * was full or they expired, not the ones evicted on changes.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatistics getStatistics() {
+        final var stats = getNativeCache().stats();
+        return new CacheStatistics(getNativeCache().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount());
+    }
+}
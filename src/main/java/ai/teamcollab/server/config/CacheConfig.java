@@ -1,10 +1,17 @@
 package ai.teamcollab.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
 
 /**
  * Configuration for Spring Cache.
@@ -12,17 +19,10 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(EntityCacheProperties.class)
 public class CacheConfig {
 
-    /**
-     * Defines the cache manager bean.
-     * Uses a simple in-memory cache implementation based on ConcurrentHashMap.
-     * 
-     * @return the cache manager
-     */
-    @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
+    static final List<String> CACHE_NAMES = List.of(
             // AssistantTone caches
             "assistantTones", "assistantTonesByName", "assistantTonesByDisplayName",
             // Assistant caches
@@ -38,8 +38,49 @@ public class CacheConfig {
             // SystemSettings caches
             "systemSettings", "currentSystemSettings",
             // User caches
-            "users", "usersByUsername", "usersByEmail", "usersByCompany", 
+            "users", "usersByUsername", "usersByEmail", "usersByCompany",
             "enabledUserCountByCompany", "disabledUserCountByCompany"
-        );
+    );
+
+    /**
+     * Defines the cache manager bean.
+     * Each cache is a {@link BoundedCache} sized and expired according to {@link EntityCacheProperties}; caches that
+     * are not listed here cannot be created on the fly.
+     *
+     * @param properties    the cache limits
+     * @param invalidations where the evictions are passed on to
+     * @return the cache manager
+     */
+    @Bean
+    public CacheManager cacheManager(EntityCacheProperties properties, CacheInvalidations invalidations) {
+        final var cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(CACHE_NAMES.stream()
+                .map(name -> new BoundedCache(name, properties.specFor(name), invalidations))
+                .toList());
+        return cacheManager;
+    }
+
+    /**
+     * Defines how evictions reach the other nodes: through PostgreSQL {@code NOTIFY} when
+     * {@code teamcollab.cache.invalidation.enabled} is set, otherwise not at all.
+     *
+     * @param properties   the cache settings
+     * @param dataSource   the data source the listening connection is taken from
+     * @param jdbcTemplate the template the notifications are sent with
+     * @param objectMapper the mapper of the notification payloads
+     * @param cacheManager the cache manager the received evictions are applied to
+     * @return the cache invalidations
+     */
+    @Bean
+    public CacheInvalidations cacheInvalidations(EntityCacheProperties properties,
+                                                 ObjectProvider<DataSource> dataSource,
+                                                 ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                                 ObjectProvider<ObjectMapper> objectMapper,
+                                                 ObjectProvider<CacheManager> cacheManager) {
+        if (!properties.getInvalidation().isEnabled()) {
+            return CacheInvalidations.NONE;
+        }
+        return new PostgresCacheInvalidations(dataSource.getObject(), jdbcTemplate.getObject(),
+                objectMapper.getObject(), cacheManager, properties.getInvalidation());
     }
 }
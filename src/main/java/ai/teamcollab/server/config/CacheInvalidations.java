@@ -0,0 +1,35 @@
+package ai.teamcollab.server.config;
+
+/**
+ * Tells the other nodes about the evictions of a {@link BoundedCache}, so they drop the same entries.
+ */
+public interface CacheInvalidations {
+
+    /**
+     * Keeps evictions local, for a single node.
+     */
+    CacheInvalidations NONE = new CacheInvalidations() {
+        @Override
+        public void evicted(String cacheName, Object key) {
+        }
+
+        @Override
+        public void cleared(String cacheName) {
+        }
+    };
+
+    /**
+     * Called after a key, or the keys matching a {@link CacheKeyPrefix}, were evicted from a cache on this node.
+     *
+     * @param cacheName the name of the cache
+     * @param key       the evicted key
+     */
+    void evicted(String cacheName, Object key);
+
+    /**
+     * Called after a cache was cleared on this node.
+     *
+     * @param cacheName the name of the cache
+     */
+    void cleared(String cacheName);
+}
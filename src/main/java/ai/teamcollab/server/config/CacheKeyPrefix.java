@@ -0,0 +1,28 @@
+package ai.teamcollab.server.config;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evicts every entry of a {@link BoundedCache} whose key is a list starting with the given element, such as all the
+ * {@code {#companyId, #conversationId}} entries of one company:
+ * {@code @CacheEvict(value = "...", key = "T(ai.teamcollab.server.config.CacheKeyPrefix).of(#result.company.id)")}.
+ *
+ * @param first the first element of the keys to evict
+ */
+public record CacheKeyPrefix(Object first) {
+
+    public static CacheKeyPrefix of(Object first) {
+        return new CacheKeyPrefix(first);
+    }
+
+    /**
+     * Tells whether a cache key starts with this prefix.
+     *
+     * @param key the cache key
+     * @return {@code true} if the key is a non-empty list whose first element equals {@link #first()}
+     */
+    public boolean matches(Object key) {
+        return key instanceof List<?> elements && !elements.isEmpty() && Objects.equals(elements.getFirst(), first);
+    }
+}
@@ -0,0 +1,31 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for streaming assistant replies to the browser while they are generated.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.chat.streaming")
+public class ChatStreamingProperties {
+
+    /**
+     * Whether replies are streamed as chunks instead of sent once complete.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum time tokens are held before they are sent as a chunk.
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of tokens coalesced into a single chunk.
+     */
+    private int maxTokensPerChunk = 32;
+}
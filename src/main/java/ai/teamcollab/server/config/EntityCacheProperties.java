@@ -0,0 +1,91 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNullElse;
+
+/**
+ * Settings for the named caches of {@link CacheConfig}. Every cache takes the defaults, and a cache listed under
+ * {@code caches} overrides the values it sets, e.g. {@code teamcollab.cache.caches[usersByCompany].max-size=500}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.cache")
+public class EntityCacheProperties {
+
+    /**
+     * Limits of the caches that are not listed under {@code caches}.
+     */
+    private Spec defaults = new Spec(1_000L, Duration.ofMinutes(30));
+
+    /**
+     * Limits per cache name.
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    /**
+     * Settings for passing evictions on to the other nodes.
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * Returns the limits of a cache, falling back to the defaults for the values it does not set.
+     *
+     * @param name the name of the cache
+     * @return the limits of the cache
+     */
+    public Spec specFor(String name) {
+        final var spec = caches.getOrDefault(name, defaults);
+        return new Spec(requireNonNullElse(spec.getMaxSize(), defaults.getMaxSize()),
+                requireNonNullElse(spec.getTtl(), defaults.getTtl()));
+    }
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * Maximum number of entries; the entries least likely to be used again are evicted first.
+         */
+        private Long maxSize;
+
+        /**
+         * How long an entry is kept after it was written.
+         */
+        private Duration ttl;
+
+        public Spec() {
+        }
+
+        public Spec(Long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+
+        /**
+         * Whether evictions are broadcast to the other nodes through PostgreSQL {@code NOTIFY}, and theirs applied.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The {@code LISTEN}/{@code NOTIFY} channel shared by the nodes.
+         */
+        private String channel = "teamcollab_cache";
+
+        /**
+         * Time to wait before listening again after the listening connection failed.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+}
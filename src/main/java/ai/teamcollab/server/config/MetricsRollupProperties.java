@@ -0,0 +1,31 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the compactor that folds new metrics into the hourly and daily rollups.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.metrics.rollup")
+public class MetricsRollupProperties {
+
+    /**
+     * Time between two compactor runs.
+     */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of metrics rows folded in one transaction.
+     */
+    private int batchSize = 50_000;
+
+    /**
+     * Age a metrics row must reach before it is folded, so rows still being committed with a lower ID are not skipped.
+     */
+    private Duration settleDelay = Duration.ofMinutes(1);
+}
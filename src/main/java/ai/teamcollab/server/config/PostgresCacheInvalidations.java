@@ -0,0 +1,192 @@
+package ai.teamcollab.server.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcasts cache evictions to the other nodes with PostgreSQL {@code NOTIFY}, and applies theirs from a connection
+ * that {@code LISTEN}s on the same channel.
+ * <p>
+ * A notification sent inside a transaction is delivered when it commits and dropped when it rolls back, so the other
+ * nodes evict once the change is visible to them. Each node skips its own notifications. A key that cannot be encoded
+ * clears the whole cache on the other nodes instead. While the listening connection is down, notifications are
+ * missed, so every cache is cleared once it listens again.
+ * <p>
+ * The listening connection is taken from the pool and held for as long as the application runs, see
+ * {@link PostgresNotificationListener}.
+ */
+@Slf4j
+public class PostgresCacheInvalidations implements CacheInvalidations {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final String channel;
+    private final PostgresNotificationListener listener;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public PostgresCacheInvalidations(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                      ObjectProvider<CacheManager> cacheManager,
+                                      EntityCacheProperties.Invalidation properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.channel = properties.getChannel();
+        this.listener = new PostgresNotificationListener(dataSource, channel, properties.getReconnectDelay(),
+                this::clearAllLocally, this::apply);
+    }
+
+    @PostConstruct
+    void start() {
+        listener.start("cache-invalidation-listener");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        listener.stop();
+    }
+
+    /**
+     * Tells whether the evictions of the other nodes are currently received.
+     *
+     * @return {@code true} while the listening connection is up
+     */
+    public boolean isListening() {
+        return listener.isListening();
+    }
+
+    @Override
+    public void evicted(String cacheName, Object key) {
+        final var message = message(cacheName);
+        try {
+            message.set("key", encodeKey(key));
+        } catch (IllegalArgumentException e) {
+            log.debug("Clearing cache {} on the other nodes: {}", cacheName, e.getMessage());
+        }
+        publish(message);
+    }
+
+    @Override
+    public void cleared(String cacheName) {
+        publish(message(cacheName));
+    }
+
+    private ObjectNode message(String cacheName) {
+        final var message = JsonNodeFactory.instance.objectNode();
+        message.put("node", nodeId);
+        message.put("cache", cacheName);
+        return message;
+    }
+
+    private void publish(ObjectNode message) {
+        try {
+            var payload = objectMapper.writeValueAsString(message);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > PostgresNotificationListener.MAX_PAYLOAD_BYTES) {
+                message.remove("key");
+                payload = objectMapper.writeValueAsString(message);
+            }
+            PostgresNotificationListener.notify(jdbcTemplate, channel, payload);
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to broadcast the eviction {}: {}", message, e.getMessage());
+        }
+    }
+
+    void apply(String payload) {
+        try {
+            final var message = objectMapper.readTree(payload);
+            if (nodeId.equals(message.path("node").asText())) {
+                return;
+            }
+            if (!(cacheManager.getObject().getCache(message.path("cache").asText()) instanceof BoundedCache cache)) {
+                return;
+            }
+            if (message.has("key")) {
+                cache.evictLocally(decodeKey(message.get("key")));
+            } else {
+                cache.clearLocally();
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache eviction {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void clearAllLocally() {
+        final var caches = cacheManager.getObject();
+        for (final var name : caches.getCacheNames()) {
+            if (caches.getCache(name) instanceof BoundedCache cache) {
+                cache.clearLocally();
+            }
+        }
+    }
+
+    /**
+     * Encodes a cache key with the type of each value, so the other nodes evict an equal key. Covers the keys of the
+     * repositories: numbers, strings, lists of those and {@link CacheKeyPrefix}es.
+     *
+     * @param key the cache key
+     * @return the encoded key
+     * @throws IllegalArgumentException if the key holds another type
+     */
+    static JsonNode encodeKey(Object key) {
+        final var factory = JsonNodeFactory.instance;
+        return switch (key) {
+            case null -> factory.nullNode();
+            case Long value -> factory.objectNode().put("L", value);
+            case Integer value -> factory.objectNode().put("I", value);
+            case String value -> factory.objectNode().put("S", value);
+            case CacheKeyPrefix prefix -> factory.objectNode().set("P", encodeKey(prefix.first()));
+            case List<?> list -> {
+                final var elements = factory.arrayNode();
+                list.forEach(element -> elements.add(encodeKey(element)));
+                yield factory.objectNode().set("list", elements);
+            }
+            default -> throw new IllegalArgumentException("Unsupported cache key type " + key.getClass().getName());
+        };
+    }
+
+    /**
+     * Decodes a key encoded by {@link #encodeKey(Object)}.
+     *
+     * @param node the encoded key
+     * @return the cache key
+     * @throws IllegalArgumentException if the node is not an encoded key
+     */
+    static Object decodeKey(JsonNode node) {
+        if (node.isNull()) {
+            return null;
+        }
+        if (node.size() != 1 || !node.fieldNames().hasNext()) {
+            throw new IllegalArgumentException("Malformed cache key " + node);
+        }
+        final var type = node.fieldNames().next();
+        final var value = node.get(type);
+        return switch (type) {
+            case "L" -> value.asLong();
+            case "I" -> value.asInt();
+            case "S" -> value.asText();
+            case "P" -> CacheKeyPrefix.of(decodeKey(value));
+            case "list" -> {
+                final var elements = new ArrayList<>();
+                value.forEach(element -> elements.add(decodeKey(element)));
+                yield Collections.unmodifiableList(elements);
+            }
+            default -> throw new IllegalArgumentException("Unsupported cache key type " + type);
+        };
+    }
+}
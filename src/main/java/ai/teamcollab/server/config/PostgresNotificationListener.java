@@ -0,0 +1,159 @@
+package ai.teamcollab.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Receives the PostgreSQL notifications of a channel on a thread of its own. The thread takes a connection from the
+ * pool, {@code LISTEN}s on the channel and hands every payload to the callback, until stopped. When the connection
+ * fails it listens again after a delay, and calls {@code onListen} each time it starts listening, since notifications
+ * sent in between are lost.
+ */
+@Slf4j
+public class PostgresNotificationListener {
+    /**
+     * The largest payload {@code NOTIFY} accepts with the default page size, in bytes.
+     */
+    public static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private final DataSource dataSource;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final Runnable onListen;
+    private final Consumer<String> onNotification;
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    /**
+     * @param dataSource     the data source the listening connection is taken from
+     * @param channel        the channel, a lowercase SQL identifier
+     * @param reconnectDelay the time to wait before listening again after the connection failed
+     * @param onListen       called each time the listener starts listening
+     * @param onNotification called with the payload of each notification
+     * @throws IllegalArgumentException if the channel is not a lowercase SQL identifier
+     */
+    public PostgresNotificationListener(DataSource dataSource, String channel, Duration reconnectDelay,
+                                        Runnable onListen, Consumer<String> onNotification) {
+        this.dataSource = dataSource;
+        this.channel = checkChannel(channel);
+        this.reconnectDelay = reconnectDelay;
+        this.onListen = onListen;
+        this.onNotification = onNotification;
+    }
+
+    /**
+     * Checks that a channel name can be used in {@code LISTEN} without quoting.
+     *
+     * @param channel the channel
+     * @return the channel
+     * @throws IllegalArgumentException if the channel is not a lowercase SQL identifier
+     */
+    public static String checkChannel(String channel) {
+        if (channel == null || !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        return channel;
+    }
+
+    /**
+     * Sends a notification. Inside a transaction, it is delivered when the transaction commits.
+     *
+     * @param jdbcTemplate the template to send it with
+     * @param channel      the channel
+     * @param payload      the payload, at most {@link #MAX_PAYLOAD_BYTES} bytes
+     */
+    public static void notify(JdbcTemplate jdbcTemplate, String channel, String payload) {
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            return statement.execute();
+        });
+    }
+
+    /**
+     * Starts the listening thread.
+     *
+     * @param threadName the name of the thread
+     */
+    public void start(String threadName) {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name(threadName)
+                .daemon()
+                .start(this::listen);
+    }
+
+    /**
+     * Stops the listening thread and waits briefly for it to release its connection.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(POLL_TIMEOUT_MILLIS * 4L);
+        }
+    }
+
+    /**
+     * Tells whether the listener currently receives the notifications of its channel.
+     *
+     * @return {@code true} once {@code LISTEN} succeeded, until the connection fails or the listener stops
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        while (running) {
+            try (final var connection = dataSource.getConnection()) {
+                final var pgConnection = connection.unwrap(PGConnection.class);
+                try (final var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for notifications on channel {}", channel);
+                onListen.run();
+                listening = true;
+
+                while (running) {
+                    final var notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (final var notification : notifications) {
+                        try {
+                            onNotification.accept(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            log.error("Failed to handle a notification on channel {}", channel, e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Listener of channel {} failed, listening again in {}: {}", channel, reconnectDelay,
+                        e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                listening = false;
+            }
+        }
+    }
+}
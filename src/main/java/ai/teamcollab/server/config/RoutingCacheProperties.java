@@ -0,0 +1,31 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cache of assistant routing decisions.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.routing.cache")
+public class RoutingCacheProperties {
+
+    /**
+     * Whether routing decisions made by the LLM are cached.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of decisions kept; the ones least likely to be used again are evicted first.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * How long a decision is reused after it was made.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
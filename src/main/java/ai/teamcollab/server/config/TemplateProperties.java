@@ -0,0 +1,26 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for rendering the Turbo stream fragments sent over the WebSocket.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.templates")
+public class TemplateProperties {
+
+    /**
+     * Limits of the cache of rendered message rows. A max size of 0 turns the cache off.
+     */
+    private EntityCacheProperties.Spec messageFragments = new EntityCacheProperties.Spec(10_000L, Duration.ofHours(1));
+
+    /**
+     * Limits of the cache of rendered assistant statuses. A max size of 0 turns the cache off.
+     */
+    private EntityCacheProperties.Spec statusFragments = new EntityCacheProperties.Spec(1_000L, Duration.ofHours(1));
+}
@@ -1,5 +1,6 @@
 package ai.teamcollab.server.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -8,6 +9,7 @@ import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Configuration
+@EnableConfigurationProperties(TemplateProperties.class)
 public class ThymeLeftConfig {
 
     @Bean
@@ -1,29 +1,101 @@
 package ai.teamcollab.server.config;
 
+import ai.teamcollab.server.ws.OutboundQueueMonitor;
+import ai.teamcollab.server.ws.PostgresBrokerFanout;
 import ai.teamcollab.server.ws.SubscriptionInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties(WebSocketProperties.class)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Autowired
     private final SubscriptionInterceptor subscriptionInterceptor;
+    private final WebSocketProperties properties;
+    private final ObjectProvider<PostgresBrokerFanout> postgresBrokerFanout;
+    private final OutboundQueueMonitor outboundQueueMonitor;
 
-    public WebSocketConfig(SubscriptionInterceptor subscriptionInterceptor) {
+    public WebSocketConfig(SubscriptionInterceptor subscriptionInterceptor, WebSocketProperties properties,
+                           ObjectProvider<PostgresBrokerFanout> postgresBrokerFanout,
+                           OutboundQueueMonitor outboundQueueMonitor) {
         this.subscriptionInterceptor = subscriptionInterceptor;
+        this.properties = properties;
+        this.postgresBrokerFanout = postgresBrokerFanout;
+        this.outboundQueueMonitor = outboundQueueMonitor;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic/", "/queue/");  // Enables a simple memory-based message broker
+        final var broker = properties.getBroker();
+        switch (broker.getMode()) {
+            case SIMPLE -> {
+                config.enableSimpleBroker("/topic/", "/queue/");  // Enables a simple memory-based message broker
+                config.configureBrokerChannel().interceptors(outboundQueueMonitor.brokerChannelInterceptor());
+            }
+            case RELAY -> {
+                // Subscriptions live in the external broker, so every node reaches every session. Messages to a user
+                // with no session on this node are broadcast for the node that has one.
+                final var relay = broker.getRelay();
+                config.enableStompBrokerRelay("/topic/", "/queue/")
+                        .setRelayHost(relay.getHost())
+                        .setRelayPort(relay.getPort())
+                        .setClientLogin(relay.getClientLogin())
+                        .setClientPasscode(relay.getClientPasscode())
+                        .setSystemLogin(relay.getSystemLogin())
+                        .setSystemPasscode(relay.getSystemPasscode())
+                        .setVirtualHost(relay.getVirtualHost())
+                        .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                        .setUserRegistryBroadcast("/topic/simp-user-registry");
+            }
+            case POSTGRES -> {
+                // Each node keeps its own subscriptions and passes what it publishes on to the others
+                config.enableSimpleBroker("/topic/", "/queue/");
+                config.configureBrokerChannel().interceptors(postgresBrokerFanout.getObject(),
+                        outboundQueueMonitor.brokerChannelInterceptor());
+            }
+        }
         config.setApplicationDestinationPrefixes("/app");  // Prefix for @MessageMapping methods
         config.setUserDestinationPrefix("/user");
+        config.setPreservePublishOrder(true);  // Keeps the messages of a session in order across the outbound pool
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        final var pool = properties.getInbound();
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        final var pool = properties.getOutbound();
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity());
+        registration.interceptors(outboundQueueMonitor);  // Disconnects sessions that fall too far behind
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        final var transport = properties.getTransport();
+        registration.setSendTimeLimit((int) transport.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) transport.getSendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) transport.getMessageSizeLimit().toBytes())
+                .setTimeToFirstMessage((int) transport.getTimeToFirstMessage().toMillis())
+                .addDecoratorFactory(outboundQueueMonitor);
     }
 
     @Override
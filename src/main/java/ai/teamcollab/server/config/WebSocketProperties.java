@@ -0,0 +1,140 @@
+package ai.teamcollab.server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the STOMP message broker and the channels between it and the WebSocket sessions.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "teamcollab.websocket")
+public class WebSocketProperties {
+
+    /**
+     * Which broker the subscriptions are kept in.
+     */
+    private Broker broker = new Broker();
+
+    /**
+     * Pool that handles the frames received from the clients.
+     */
+    private AsyncProperties.Pool inbound = new AsyncProperties.Pool(16, 32, 1000);
+
+    /**
+     * Pool that writes the messages to the clients.
+     */
+    private AsyncProperties.Pool outbound = new AsyncProperties.Pool(16, 32, 1000);
+
+    /**
+     * Limits of the WebSocket sessions.
+     */
+    private Transport transport = new Transport();
+
+    @Getter
+    @Setter
+    public static class Broker {
+
+        /**
+         * The broker implementation.
+         */
+        private Mode mode = Mode.SIMPLE;
+
+        /**
+         * Connection to the external broker in {@link Mode#RELAY} mode.
+         */
+        private Relay relay = new Relay();
+
+        /**
+         * Fan-out between the nodes in {@link Mode#POSTGRES} mode.
+         */
+        private Postgres postgres = new Postgres();
+    }
+
+    @Getter
+    @Setter
+    public static class Transport {
+
+        /**
+         * Longest time a single send to a client may take before the session is closed.
+         */
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+        /**
+         * Most data buffered for a client while a send to it is in progress before the session is closed.
+         */
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+        /**
+         * Largest STOMP frame accepted from a client.
+         */
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+
+        /**
+         * Time a client has after connecting to send its first frame.
+         */
+        private Duration timeToFirstMessage = Duration.ofMinutes(1);
+
+        /**
+         * Most messages to a single session that may wait on the outbound channel before the session is closed.
+         */
+        private int maxQueuedMessagesPerSession = 500;
+    }
+
+    public enum Mode {
+        /**
+         * The in-memory broker. Messages only reach the sessions connected to the node that sent them.
+         */
+        SIMPLE,
+        /**
+         * An external STOMP broker such as RabbitMQ or ActiveMQ, shared by every node.
+         */
+        RELAY,
+        /**
+         * The in-memory broker on each node, with the messages passed on to the other nodes through PostgreSQL
+         * {@code NOTIFY}. Needs no other infrastructure, for a few nodes.
+         */
+        POSTGRES
+    }
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+
+        /**
+         * The virtual host sent in the {@code host} header of {@code CONNECT}, if the broker needs one.
+         */
+        private String virtualHost;
+    }
+
+    @Getter
+    @Setter
+    public static class Postgres {
+
+        /**
+         * The {@code LISTEN}/{@code NOTIFY} channel shared by the nodes.
+         */
+        private String channel = "teamcollab_broker";
+
+        /**
+         * Time to wait before listening again after the listening connection failed.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+
+        /**
+         * How long a message too large for a notification is kept in {@code broker_relay_messages} for the other
+         * nodes to read.
+         */
+        private Duration retention = Duration.ofMinutes(1);
+    }
+}
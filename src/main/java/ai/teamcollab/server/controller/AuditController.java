@@ -3,11 +3,8 @@ package ai.teamcollab.server.controller;
 import ai.teamcollab.server.controller.domain.AuditView;
 import ai.teamcollab.server.domain.Audit;
 import ai.teamcollab.server.service.AuditService;
+import ai.teamcollab.server.service.domain.PageCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -31,14 +28,16 @@ public class AuditController {
     /**
      * Display the audit dashboard with categories.
      *
-     * @param page the page number (0-based)
+     * @param before the cursor to page back from
+     * @param after the cursor to page forward from
      * @param size the page size
      * @param model the model to add attributes to
      * @return the view name
      */
     @GetMapping
     public String showAuditDashboard(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) PageCursor before,
+            @RequestParam(required = false) PageCursor after,
             @RequestParam(defaultValue = "10") int size,
             Model model) {
         // Get all audit action types
@@ -48,17 +47,17 @@ public class AuditController {
 
         model.addAttribute("auditCategories", auditCategories);
 
-        // Get recent audits for the dashboard with pagination
-        final var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        final var auditPage = auditService.findMostRecentAudits(pageable);
+        // Get recent audits for the dashboard, a page at a time from the cursor
+        final var pageSize = Math.clamp(size, 1, 100);
+        final var auditPage = auditService.findAuditPage(null, before, after, pageSize);
 
-        model.addAttribute("recentAudits", auditPage.getContent().stream()
+        model.addAttribute("recentAudits", auditPage.content().stream()
                 .map(AuditView::from)
                 .toList());
-        model.addAttribute("currentPage", auditPage.getNumber());
-        model.addAttribute("totalPages", auditPage.getTotalPages());
-        model.addAttribute("totalItems", auditPage.getTotalElements());
-        model.addAttribute("pageSize", size);
+        model.addAttribute("olderCursor", auditPage.olderCursor());
+        model.addAttribute("newerCursor", auditPage.newerCursor());
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("auditPipeline", auditService.getPipelineStatistics());
 
         return "audits/index";
     }
@@ -67,7 +66,8 @@ public class AuditController {
      * Display audits for a specific category.
      *
      * @param category the audit category to display
-     * @param page the page number (0-based)
+     * @param before the cursor to page back from
+     * @param after the cursor to page forward from
      * @param size the page size
      * @param model the model to add attributes to
      * @return the view name
@@ -75,22 +75,22 @@ public class AuditController {
     @GetMapping("/category")
     public String showAuditsByCategory(
             @RequestParam("type") String category,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) PageCursor before,
+            @RequestParam(required = false) PageCursor after,
             @RequestParam(defaultValue = "10") int size,
             Model model) {
         try {
             final var actionType = Audit.AuditActionType.valueOf(category);
-            final var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-            final var auditPage = auditService.findAuditsByActionType(actionType, pageable);
+            final var pageSize = Math.clamp(size, 1, 100);
+            final var auditPage = auditService.findAuditPage(actionType, before, after, pageSize);
 
             model.addAttribute("categoryName", category);
-            model.addAttribute("audits", auditPage.getContent().stream()
+            model.addAttribute("audits", auditPage.content().stream()
                     .map(AuditView::from)
                     .toList());
-            model.addAttribute("currentPage", auditPage.getNumber());
-            model.addAttribute("totalPages", auditPage.getTotalPages());
-            model.addAttribute("totalItems", auditPage.getTotalElements());
-            model.addAttribute("pageSize", size);
+            model.addAttribute("olderCursor", auditPage.olderCursor());
+            model.addAttribute("newerCursor", auditPage.newerCursor());
+            model.addAttribute("pageSize", pageSize);
 
             return "audits/category";
         } catch (IllegalArgumentException e) {
@@ -9,11 +9,11 @@ import ai.teamcollab.server.repository.PointInTimeSummaryRepository;
 import ai.teamcollab.server.repository.UserRepository;
 import ai.teamcollab.server.service.ConversationService;
 import ai.teamcollab.server.service.MetricsService;
+import ai.teamcollab.server.service.domain.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -46,25 +46,29 @@ public class MetricsViewController {
 
     @GetMapping
     public String index(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) PageCursor before,
+            @RequestParam(required = false) PageCursor after,
             @RequestParam(defaultValue = "10") int size,
             Model model,
             RedirectAttributes redirectAttributes) {
         try {
-            final var pageable = PageRequest.of(page, size);
-            final var metricsPage = metricsService.getMetricsPaginated(pageable);
+            final var pageSize = Math.clamp(size, 1, 100);
+            final var metricsPage = metricsService.getMetricsPage(before, after, pageSize);
             final var statistics = metricsService.getMetricsStatistics();
 
             // Add company and user counts to statistics
             statistics.put("totalCompanies", companyRepository.count());
             statistics.put("totalUsers", userRepository.count());
 
-            model.addAttribute("metrics", metricsPage.getContent());
+            model.addAttribute("metrics", metricsPage.content());
             model.addAttribute("statistics", statistics);
-            model.addAttribute("currentPage", page);
-            model.addAttribute("totalPages", metricsPage.getTotalPages());
-            model.addAttribute("totalItems", metricsPage.getTotalElements());
-            model.addAttribute("pageSize", size);
+            model.addAttribute("routing", metricsService.getRoutingStatistics());
+            model.addAttribute("routingCache", metricsService.getRoutingCacheStatistics());
+            model.addAttribute("entityCaches", metricsService.getEntityCacheStatistics());
+            model.addAttribute("webSocket", metricsService.getWebSocketStatistics());
+            model.addAttribute("olderCursor", metricsPage.olderCursor());
+            model.addAttribute("newerCursor", metricsPage.newerCursor());
+            model.addAttribute("pageSize", pageSize);
 
             return "metrics/index";
         } catch (Exception e) {
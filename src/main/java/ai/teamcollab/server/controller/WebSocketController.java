@@ -5,7 +5,11 @@ import ai.teamcollab.server.domain.LoginUserDetails;
 import ai.teamcollab.server.domain.Message;
 import ai.teamcollab.server.service.ConversationService;
 import ai.teamcollab.server.service.MessageService;
+import ai.teamcollab.server.service.domain.KeysetPage;
 import ai.teamcollab.server.service.domain.MessageRow;
+import ai.teamcollab.server.service.domain.PageCursor;
+import ai.teamcollab.server.service.impl.ChatMessageIngest;
+import ai.teamcollab.server.templates.MessageRowRenderer;
 import ai.teamcollab.server.templates.ThymeleafTemplateRender;
 import ai.teamcollab.server.ws.domain.WsMessageResponse;
 import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
@@ -15,14 +19,14 @@ import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.stereotype.Controller;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import static ai.teamcollab.server.templates.TemplatePath.ASSISTANT_STATUSES_TEMPLATE;
-import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
-import static ai.teamcollab.server.templates.TemplateVariableName.ASSISTANTS;
-import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
-import static ai.teamcollab.server.templates.TemplateVariableName.STATUS;
+import static ai.teamcollab.server.templates.TemplatePath.LOAD_OLDER_MESSAGES_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplatePath.OLDER_MESSAGES_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.CURSOR;
+import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGES;
 
 @Controller
 public class WebSocketController {
@@ -30,40 +34,33 @@ public class WebSocketController {
     public static final String DIRECT_MESSAGE_TOPIC = "/queue/messages";
     public static final String ERROR_EVENT_TOPIC = "/queue/errors";
 
+    private static final int MESSAGE_PAGE_SIZE = 10;
+
     private final ThymeleafTemplateRender thymeleafTemplateRender;
     private final ConversationService conversationService;
     private final MessageService messageService;
+    private final ChatMessageIngest chatMessageIngest;
+    private final MessageRowRenderer messageRowRenderer;
 
-    public WebSocketController(ThymeleafTemplateRender thymeleafTemplateRender, ConversationService conversationService, MessageService messageService) {
+    public WebSocketController(ThymeleafTemplateRender thymeleafTemplateRender, ConversationService conversationService, MessageService messageService, ChatMessageIngest chatMessageIngest, MessageRowRenderer messageRowRenderer) {
         this.thymeleafTemplateRender = thymeleafTemplateRender;
         this.conversationService = conversationService;
         this.messageService = messageService;
+        this.chatMessageIngest = chatMessageIngest;
+        this.messageRowRenderer = messageRowRenderer;
     }
 
+    /**
+     * Queues a message and acknowledges it with the id the client gave it. The message is saved and sent back rendered
+     * by {@link ChatMessageIngest}, off the inbound channel thread.
+     */
     @MessageMapping("/chat.send")
     @SendToUser(DIRECT_MESSAGE_TOPIC)
     public WsMessageResponse sendMessage(@Payload WsMessage message,
                                          AbstractAuthenticationToken principal) {
         final var user = (LoginUserDetails) principal.getPrincipal();
-
-        final var newMessage = Message.builder()
-                .content(message.getContent())
-                .build();
-        final var conversation = conversationService.findConversationByIdWithAssistant(message.getConversationId());
-
-        final var savedMessage = conversationService.addToConversation(conversation.getId(), newMessage, user.getId());
-        conversationService.sendMessage(savedMessage.getId(), user.getUsername());
-        final var row = MessageRow.builder()
-                .content(savedMessage.getContent())
-                .username(principal.getName())
-                .createdAt(savedMessage.getCreatedAt())
-                .bookmarked(false)
-                .build();
-
-        final var html = thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row));
-        final var assistants = conversation.getAssistants();
-        final var htmlStatus = thymeleafTemplateRender.renderToHtml(ASSISTANT_STATUSES_TEMPLATE, Map.of(ASSISTANTS, assistants, STATUS, "Thinking..."));
-        return WsMessageResponse.turbo(List.of(html, htmlStatus));
+        chatMessageIngest.submit(message, user);
+        return WsMessageResponse.ack(message.getClientId());
     }
 
     @MessageMapping("/chat.join")
@@ -71,26 +68,56 @@ public class WebSocketController {
     public WsMessageResponse joinChat(@Payload WsMessage message, AbstractAuthenticationToken principal) {
         final var user = (LoginUserDetails) principal.getPrincipal();
 
-        final var messages = conversationService.findMessagesByConversation(message.getConversationId())
-                .stream()
-                .toList();
+        final var page = conversationService.findMessagePage(message.getConversationId(), null, MESSAGE_PAGE_SIZE);
+
+        final var elements = new ArrayList<String>();
+        toRows(page.content().reversed(), user.getId()).stream()
+                .map(messageRowRenderer::render)
+                .forEach(elements::add);
+        elements.add(renderLoadOlder(page));
+
+        return WsMessageResponse.turbo(elements);
+    }
+
+    /**
+     * Loads the page of messages before the oldest one shown, and moves the "load older messages" button to the page
+     * before it.
+     */
+    @MessageMapping("/chat.history")
+    @SendToUser(DIRECT_MESSAGE_TOPIC)
+    public WsMessageResponse loadOlderMessages(@Payload WsMessage message, AbstractAuthenticationToken principal) {
+        final var user = (LoginUserDetails) principal.getPrincipal();
+        if (!conversationService.canUserAccessConversation(message.getConversationId(), user.getId())) {
+            throw new IllegalArgumentException("Access denied");
+        }
+
+        final var page = conversationService.findMessagePage(message.getConversationId(),
+                PageCursor.valueOf(message.getBefore()), MESSAGE_PAGE_SIZE);
+        final var rows = toRows(page.content().reversed(), user.getId());
+
+        return WsMessageResponse.turbo(List.of(
+                thymeleafTemplateRender.renderToHtml(OLDER_MESSAGES_TEMPLATE, Map.of(MESSAGES, rows)),
+                renderLoadOlder(page)));
+    }
 
+    private List<MessageRow> toRows(List<Message> messages, Long userId) {
         final var ids = messages.stream()
                 .map(Message::getId)
                 .toList();
 
-        final var bookMarked = messageService.getBookmarkedMessageIds(ids, user.getId());
+        final var bookMarked = messageService.getBookmarkedMessageIds(ids, userId);
 
-        final var elements = messages.stream()
+        return messages.stream()
                 .map(MessageRow::from)
                 .map(row -> row.toBuilder()
                         .bookmarked(bookMarked.contains(row.getId()))
                         .build())
-                .map(row -> thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row)))
                 .toList();
+    }
 
-
-        return WsMessageResponse.turbo(elements);
+    private String renderLoadOlder(KeysetPage<Message> page) {
+        final var cursor = page.hasOlder() ? page.olderCursor().toString() : "";
+        return thymeleafTemplateRender.renderToHtml(LOAD_OLDER_MESSAGES_TEMPLATE, Map.of(CURSOR, cursor));
     }
 
     @MessageExceptionHandler
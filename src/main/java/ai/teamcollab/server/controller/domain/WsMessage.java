@@ -20,4 +20,8 @@ public class WsMessage {
     private String sender;
     @JsonProperty("type")
     private MessageType type;
+    @JsonProperty("before")
+    private String before;
+    @JsonProperty("client_id")
+    private String clientId;
 }
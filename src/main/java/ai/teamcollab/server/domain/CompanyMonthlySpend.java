@@ -0,0 +1,53 @@
+package ai.teamcollab.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * The total LLM spend of a company for one calendar month. {@code spendMonth} is the first day of the month.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@Table(name = "company_monthly_spend")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class CompanyMonthlySpend {
+
+    @Id
+    @Column(name = "company_monthly_spend_id")
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Column(name = "spend_month", nullable = false)
+    private LocalDate spendMonth;
+
+    @Column(name = "total_cost", nullable = false, precision = 19, scale = 5)
+    private BigDecimal totalCost;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -14,6 +14,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -39,6 +40,9 @@ public class Metrics implements java.io.Serializable {
     @Column(name = "duration")
     private long duration;
 
+    @Column(name = "time_to_first_token")
+    private Long timeToFirstToken;
+
     @Column(name = "input_tokens")
     private int inputTokens;
 
@@ -60,6 +64,7 @@ public class Metrics implements java.io.Serializable {
     @JoinColumn(name = "summary_id")
     private PointInTimeSummary pointInTimeSummary;
 
+    @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,22 @@
+package ai.teamcollab.server.domain;
+
+/**
+ * The kind of LLM call a {@link Metrics} row was recorded for.
+ */
+public enum MetricsCallKind {
+
+    /**
+     * An assistant's reply to a message.
+     */
+    MESSAGE,
+
+    /**
+     * A decision on which assistants should respond.
+     */
+    ROUTING,
+
+    /**
+     * A point-in-time summary of a conversation.
+     */
+    SUMMARY
+}
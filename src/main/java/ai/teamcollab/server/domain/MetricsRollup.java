@@ -0,0 +1,76 @@
+package ai.teamcollab.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.EnumType.STRING;
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * The metrics of one company, model and call kind within an hour or a day. The company is {@code null} for routing
+ * decisions. Rows are written by the rollup compactor only.
+ */
+@Getter
+@Setter
+@Entity
+@Builder
+@Table(name = "metrics_rollups")
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class MetricsRollup {
+
+    @Id
+    @Column(name = "metrics_rollup_id")
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    @Enumerated(STRING)
+    @Column(name = "granularity", nullable = false)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @ManyToOne
+    @JoinColumn(name = "company_id")
+    private Company company;
+
+    @ManyToOne
+    @JoinColumn(name = "llm_model_id")
+    private LlmModel llmModel;
+
+    @Enumerated(STRING)
+    @Column(name = "call_kind", nullable = false)
+    private MetricsCallKind callKind;
+
+    @Column(name = "call_count", nullable = false)
+    private long callCount;
+
+    @Column(name = "total_duration", nullable = false)
+    private long totalDuration;
+
+    @Column(name = "input_tokens", nullable = false)
+    private long inputTokens;
+
+    @Column(name = "output_tokens", nullable = false)
+    private long outputTokens;
+
+    @Column(name = "total_cost", nullable = false, precision = 19, scale = 5)
+    private BigDecimal totalCost;
+}
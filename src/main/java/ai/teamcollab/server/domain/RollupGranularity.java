@@ -0,0 +1,9 @@
+package ai.teamcollab.server.domain;
+
+/**
+ * The length of the time buckets of a {@link MetricsRollup}.
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY
+}
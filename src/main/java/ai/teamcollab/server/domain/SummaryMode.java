@@ -0,0 +1,26 @@
+package ai.teamcollab.server.domain;
+
+/**
+ * How point-in-time summaries are requested from the summary model.
+ */
+public enum SummaryMode {
+
+    /**
+     * One prompt per summary field: topics, topic summaries and assistant summaries. The conversation history is sent
+     * with each of the three prompts.
+     */
+    SEPARATE_CALLS,
+
+    /**
+     * A single prompt that asks for all three summary fields as one JSON object, so the conversation history is sent
+     * once. Falls back to {@link #SEPARATE_CALLS} when the reply cannot be parsed.
+     */
+    SINGLE_CALL,
+
+    /**
+     * Updates the previous summary with only the messages added since it was generated, so the prompt size stays
+     * roughly constant as the conversation grows. Uses {@link #SINGLE_CALL} when there is no previous summary and
+     * falls back to {@link #SEPARATE_CALLS} when the reply cannot be parsed.
+     */
+    INCREMENTAL
+}
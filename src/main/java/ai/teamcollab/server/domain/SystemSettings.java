@@ -2,6 +2,8 @@ package ai.teamcollab.server.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
@@ -49,4 +51,9 @@ public class SystemSettings implements Serializable {
 
     @Column(name = "summary_batch_size")
     private int summaryBatchSize = 10;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "summary_mode", nullable = false)
+    private SummaryMode summaryMode = SummaryMode.SEPARATE_CALLS;
 }
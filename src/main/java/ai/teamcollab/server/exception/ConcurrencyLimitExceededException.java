@@ -0,0 +1,41 @@
+package ai.teamcollab.server.exception;
+
+/**
+ * Exception thrown when a company has too many LLM calls in flight and a new call could not start in time.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final Long companyId;
+    private final int limit;
+
+    /**
+     * Constructs a new ConcurrencyLimitExceededException with the specified detail message.
+     *
+     * @param message the detail message
+     * @param companyId the ID of the company that reached its limit
+     * @param limit the maximum number of concurrent LLM calls for the company
+     */
+    public ConcurrencyLimitExceededException(String message, Long companyId, int limit) {
+        super(message);
+        this.companyId = companyId;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the ID of the company that reached its limit.
+     *
+     * @return the company ID
+     */
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    /**
+     * Returns the maximum number of concurrent LLM calls for the company.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Assistant;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +12,11 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Repository for assistants. A change to an assistant of a company only evicts the cached lists by company of that
+ * company; a change to an assistant without a company, which every company sees, evicts all of them. The lists of
+ * assistants not in a conversation can hold assistants of any company, so any change evicts all of them.
+ */
 @Repository
 public interface AssistantRepository extends CrudRepository<Assistant, Long> {
 
@@ -40,7 +44,7 @@ public interface AssistantRepository extends CrudRepository<Assistant, Long> {
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "assistants")
+    @Cacheable(value = "assistants", key = "'all'")
     List<Assistant> findAll();
 
     /**
@@ -55,12 +59,12 @@ public interface AssistantRepository extends CrudRepository<Assistant, Long> {
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "assistants", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "assistants", allEntries = true),
-            @CacheEvict(value = "assistantsByCompany", allEntries = true),
+            @CacheEvict(value = "assistants", key = "#result.id"),
+            @CacheEvict(value = "assistants", key = "'all'"),
+            @CacheEvict(value = "assistantsByCompany", key = "#result.company.id",
+                    condition = "#result.company != null"),
+            @CacheEvict(value = "assistantsByCompany", allEntries = true, condition = "#result.company == null"),
             @CacheEvict(value = "assistantsNotInConversation", allEntries = true)
         }
     )
@@ -71,7 +75,8 @@ public interface AssistantRepository extends CrudRepository<Assistant, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "assistants", allEntries = true),
+        @CacheEvict(value = "assistants", key = "#id"),
+        @CacheEvict(value = "assistants", key = "'all'"),
         @CacheEvict(value = "assistantsByCompany", allEntries = true),
         @CacheEvict(value = "assistantsNotInConversation", allEntries = true)
     })
@@ -82,8 +87,10 @@ public interface AssistantRepository extends CrudRepository<Assistant, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "assistants", allEntries = true),
-        @CacheEvict(value = "assistantsByCompany", allEntries = true),
+        @CacheEvict(value = "assistants", key = "#entity.id"),
+        @CacheEvict(value = "assistants", key = "'all'"),
+        @CacheEvict(value = "assistantsByCompany", key = "#entity.company.id", condition = "#entity.company != null"),
+        @CacheEvict(value = "assistantsByCompany", allEntries = true, condition = "#entity.company == null"),
         @CacheEvict(value = "assistantsNotInConversation", allEntries = true)
     })
     void delete(Assistant entity);
@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.AssistantTone;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -39,7 +38,7 @@ public interface AssistantToneRepository extends JpaRepository<AssistantTone, Lo
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "assistantTones")
+    @Cacheable(value = "assistantTones", key = "'all'")
     List<AssistantTone> findAll();
 
     /**
@@ -54,13 +53,11 @@ public interface AssistantToneRepository extends JpaRepository<AssistantTone, Lo
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "assistantTones", key = "#result.id"),
-            @CachePut(value = "assistantTonesByName", key = "#result.name.toLowerCase()"),
-            @CachePut(value = "assistantTonesByDisplayName", key = "#result.displayName.toLowerCase()")
-        },
         evict = {
-            @CacheEvict(value = "assistantTones", allEntries = true)
+            @CacheEvict(value = "assistantTones", key = "#result.id"),
+            @CacheEvict(value = "assistantTonesByName", key = "#result.name.toLowerCase()"),
+            @CacheEvict(value = "assistantTonesByDisplayName", key = "#result.displayName.toLowerCase()"),
+            @CacheEvict(value = "assistantTones", key = "'all'")
         }
     )
     <S extends AssistantTone> S save(S entity);
@@ -70,7 +67,8 @@ public interface AssistantToneRepository extends JpaRepository<AssistantTone, Lo
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "assistantTones", allEntries = true),
+        @CacheEvict(value = "assistantTones", key = "#id"),
+        @CacheEvict(value = "assistantTones", key = "'all'"),
         @CacheEvict(value = "assistantTonesByName", allEntries = true),
         @CacheEvict(value = "assistantTonesByDisplayName", allEntries = true)
     })
@@ -81,7 +79,8 @@ public interface AssistantToneRepository extends JpaRepository<AssistantTone, Lo
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "assistantTones", allEntries = true),
+        @CacheEvict(value = "assistantTones", key = "#entity.id"),
+        @CacheEvict(value = "assistantTones", key = "'all'"),
         @CacheEvict(value = "assistantTonesByName", allEntries = true),
         @CacheEvict(value = "assistantTonesByDisplayName", allEntries = true)
     })
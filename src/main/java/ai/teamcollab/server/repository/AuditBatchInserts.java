@@ -0,0 +1,19 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.domain.Audit;
+
+import java.util.Collection;
+
+/**
+ * Batch inserts of audit events, mixed into {@link AuditRepository}.
+ */
+public interface AuditBatchInserts {
+
+    /**
+     * Inserts the audit events as one JDBC batch. The events are not updated with their generated IDs.
+     *
+     * @param audits the audit events to insert
+     * @return the number of events inserted
+     */
+    int insertAll(Collection<Audit> audits);
+}
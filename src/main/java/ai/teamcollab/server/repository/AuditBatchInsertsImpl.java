@@ -0,0 +1,44 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.domain.Audit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends the inserts as a single JDBC batch, without loading or merging entities.
+ */
+@RequiredArgsConstructor
+class AuditBatchInsertsImpl implements AuditBatchInserts {
+
+    private static final String INSERT_AUDIT = "INSERT INTO audits (action_type, user_id, username, ip_address, " +
+            "details, timestamp, entity_type, entity_id, company_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(Collection<Audit> audits) {
+        if (audits.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_AUDIT, List.copyOf(audits), audits.size(),
+                (statement, audit) -> {
+                    statement.setString(1, audit.getActionType().name());
+                    statement.setObject(2, audit.getUser() == null ? null : audit.getUser().getId(), Types.BIGINT);
+                    statement.setString(3, audit.getUsername());
+                    statement.setString(4, audit.getIpAddress());
+                    statement.setString(5, audit.getDetails());
+                    statement.setTimestamp(6, Timestamp.valueOf(audit.getTimestamp()));
+                    statement.setString(7, audit.getEntityType());
+                    statement.setObject(8, audit.getEntityId(), Types.BIGINT);
+                    statement.setObject(9, audit.getCompany() == null ? null : audit.getCompany().getId(),
+                            Types.BIGINT);
+                });
+        return audits.size();
+    }
+}
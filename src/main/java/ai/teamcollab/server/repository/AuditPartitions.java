@@ -0,0 +1,46 @@
+package ai.teamcollab.server.repository;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintenance of the monthly partitions of the {@code audits} table, mixed into {@link AuditRepository}. Each month is
+ * a partition named {@code audits_YYYY_MM} that holds the events with a timestamp in that month.
+ */
+public interface AuditPartitions {
+
+    /**
+     * Takes the transaction-scoped lock that serializes partition maintenance across nodes. Must run in a transaction.
+     *
+     * @return {@code true} if the lock was taken, {@code false} if another transaction holds it
+     */
+    boolean tryLockPartitions();
+
+    /**
+     * Finds the months that have a partition attached to {@code audits}.
+     *
+     * @return the months, oldest first
+     */
+    List<YearMonth> findPartitionMonths();
+
+    /**
+     * Creates the partition of a month, unless it exists.
+     *
+     * @param month the month
+     */
+    void createPartition(YearMonth month);
+
+    /**
+     * Detaches the partition of a month. The partition stays as a standalone table with the same name.
+     *
+     * @param month the month
+     */
+    void detachPartition(YearMonth month);
+
+    /**
+     * Drops the partition of a month with its audit events.
+     *
+     * @param month the month
+     */
+    void dropPartition(YearMonth month);
+}
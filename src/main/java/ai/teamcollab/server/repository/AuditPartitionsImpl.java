@@ -0,0 +1,63 @@
+package ai.teamcollab.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the partition DDL with plain JDBC. The table names are built from the month only, never from user input.
+ */
+@RequiredArgsConstructor
+class AuditPartitionsImpl implements AuditPartitions {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("uuuu_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("audits_(\\d{4}_\\d{2})");
+
+    private static final String LOCK_PARTITIONS = "SELECT pg_try_advisory_xact_lock(hashtext('audits_partitions'))";
+
+    private static final String FIND_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'audits'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryLockPartitions() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_PARTITIONS, Boolean.class));
+    }
+
+    @Override
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS, String.class).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.parse(matcher.group(1), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF audits " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    @Override
+    public void detachPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE audits DETACH PARTITION " + partitionName(month));
+    }
+
+    @Override
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "audits_" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -1,6 +1,7 @@
 package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Audit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,9 +14,14 @@ import java.util.List;
 
 /**
  * Repository for accessing and manipulating Audit entities.
+ * <p>
+ * The {@code audits} table is partitioned by month on {@code timestamp}. PostgreSQL only skips the partitions of a query
+ * from plain comparisons on {@code timestamp}, not from the {@code (timestamp, id)} row comparisons of the keyset
+ * queries, so those repeat the bound on {@code timestamp} alone. The newest-first reads scan the partitions in order and
+ * stop once the limit is reached.
  */
 @Repository
-public interface AuditRepository extends JpaRepository<Audit, Long> {
+public interface AuditRepository extends JpaRepository<Audit, Long>, AuditBatchInserts, AuditPartitions {
 
     /**
      * Find all audit events for a specific user.
@@ -41,15 +47,6 @@ public interface AuditRepository extends JpaRepository<Audit, Long> {
      */
     List<Audit> findByActionType(Audit.AuditActionType actionType);
 
-    /**
-     * Find all audit events of a specific action type with pagination.
-     *
-     * @param actionType the type of action
-     * @param pageable the pagination information
-     * @return a page of audit events
-     */
-    Page<Audit> findByActionType(Audit.AuditActionType actionType, Pageable pageable);
-
     /**
      * Find all audit events within a specific time range.
      *
@@ -104,11 +101,81 @@ public interface AuditRepository extends JpaRepository<Audit, Long> {
     Page<Audit> findAll(Pageable pageable);
 
     /**
-     * Find the most recent audit events with pagination.
+     * Find the most recent audit events, newest first.
      *
-     * @param pageable the pagination information
-     * @return a page of audit events
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
+     */
+    @Query("SELECT a FROM Audit a ORDER BY a.timestamp DESC, a.id DESC")
+    List<Audit> findLatest(Limit limit);
+
+    /**
+     * Find the audit events before an event, newest first.
+     *
+     * @param timestamp the timestamp of the event to page back from
+     * @param id the ID of the event to page back from (exclusive)
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
+     */
+    @Query("SELECT a FROM Audit a WHERE a.timestamp <= :timestamp AND (a.timestamp, a.id) < (:timestamp, :id) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<Audit> findOlderThan(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Find the audit events after an event, oldest first.
+     *
+     * @param timestamp the timestamp of the event to page forward from
+     * @param id the ID of the event to page forward from (exclusive)
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
+     */
+    @Query("SELECT a FROM Audit a WHERE a.timestamp >= :timestamp AND (a.timestamp, a.id) > (:timestamp, :id) " +
+            "ORDER BY a.timestamp ASC, a.id ASC")
+    List<Audit> findNewerThan(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    /**
+     * Find the most recent audit events of a specific action type, newest first.
+     *
+     * @param actionType the type of action
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
+     */
+    @Query("SELECT a FROM Audit a WHERE a.actionType = :actionType ORDER BY a.timestamp DESC, a.id DESC")
+    List<Audit> findLatestByActionType(@Param("actionType") Audit.AuditActionType actionType, Limit limit);
+
+    /**
+     * Find the audit events of a specific action type before an event, newest first.
+     *
+     * @param actionType the type of action
+     * @param timestamp the timestamp of the event to page back from
+     * @param id the ID of the event to page back from (exclusive)
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
+     */
+    @Query("SELECT a FROM Audit a WHERE a.actionType = :actionType AND a.timestamp <= :timestamp " +
+            "AND (a.timestamp, a.id) < (:timestamp, :id) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<Audit> findByActionTypeOlderThan(
+            @Param("actionType") Audit.AuditActionType actionType,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
+
+    /**
+     * Find the audit events of a specific action type after an event, oldest first.
+     *
+     * @param actionType the type of action
+     * @param timestamp the timestamp of the event to page forward from
+     * @param id the ID of the event to page forward from (exclusive)
+     * @param limit the maximum number of events to return
+     * @return a list of audit events
      */
-    @Query("SELECT a FROM Audit a ORDER BY a.timestamp DESC")
-    Page<Audit> findMostRecentAudits(Pageable pageable);
+    @Query("SELECT a FROM Audit a WHERE a.actionType = :actionType AND a.timestamp >= :timestamp " +
+            "AND (a.timestamp, a.id) > (:timestamp, :id) " +
+            "ORDER BY a.timestamp ASC, a.id ASC")
+    List<Audit> findByActionTypeNewerThan(
+            @Param("actionType") Audit.AuditActionType actionType,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Limit limit);
 }
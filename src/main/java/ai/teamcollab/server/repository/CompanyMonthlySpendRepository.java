@@ -0,0 +1,92 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.domain.CompanyMonthlySpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CompanyMonthlySpendRepository extends JpaRepository<CompanyMonthlySpend, Long> {
+
+    /**
+     * Finds the total spend of a company for a month.
+     *
+     * @param companyId  the ID of the company
+     * @param spendMonth the first day of the month
+     * @return the total spend, or empty if nothing has been spent that month
+     */
+    @Query("SELECT s.totalCost FROM CompanyMonthlySpend s WHERE s.company.id = :companyId AND s.spendMonth = :spendMonth")
+    Optional<BigDecimal> findTotalCost(
+            @Param("companyId") Long companyId,
+            @Param("spendMonth") LocalDate spendMonth);
+
+    /**
+     * Adds an amount to the total spend of a company for a month, creating the row if needed. The addition is done in
+     * the database so concurrent updates from several nodes are not lost.
+     *
+     * @param companyId  the ID of the company
+     * @param spendMonth the first day of the month
+     * @param amount     the amount to add
+     * @param updatedAt  the time of the update
+     * @return the number of rows affected
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO company_monthly_spend (company_id, spend_month, total_cost, updated_at) " +
+            "VALUES (:companyId, :spendMonth, :amount, :updatedAt) " +
+            "ON CONFLICT (company_id, spend_month) DO UPDATE SET " +
+            "total_cost = company_monthly_spend.total_cost + EXCLUDED.total_cost, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addToTotalCost(
+            @Param("companyId") Long companyId,
+            @Param("spendMonth") LocalDate spendMonth,
+            @Param("amount") BigDecimal amount,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Replaces the total spend of a company for a month, creating the row if needed.
+     *
+     * @param companyId  the ID of the company
+     * @param spendMonth the first day of the month
+     * @param totalCost  the new total
+     * @param updatedAt  the time of the update
+     * @return the number of rows affected
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO company_monthly_spend (company_id, spend_month, total_cost, updated_at) " +
+            "VALUES (:companyId, :spendMonth, :totalCost, :updatedAt) " +
+            "ON CONFLICT (company_id, spend_month) DO UPDATE SET " +
+            "total_cost = EXCLUDED.total_cost, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int setTotalCost(
+            @Param("companyId") Long companyId,
+            @Param("spendMonth") LocalDate spendMonth,
+            @Param("totalCost") BigDecimal totalCost,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Resets to zero the totals of a month that have not been updated since the given time.
+     *
+     * @param spendMonth the first day of the month
+     * @param since      the rows updated before this time are reset
+     * @return the number of rows affected
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CompanyMonthlySpend s SET s.totalCost = 0, s.updatedAt = :since " +
+            "WHERE s.spendMonth = :spendMonth AND s.updatedAt < :since")
+    int resetTotalCostNotUpdatedSince(
+            @Param("spendMonth") LocalDate spendMonth,
+            @Param("since") LocalDateTime since);
+}
@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Company;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
@@ -21,7 +20,7 @@ public interface CompanyRepository extends CrudRepository<Company, Long> {
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "companies")
+    @Cacheable(value = "companies", key = "'all'")
     List<Company> findAll();
 
     /**
@@ -36,11 +35,9 @@ public interface CompanyRepository extends CrudRepository<Company, Long> {
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "companies", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "companies", allEntries = true)
+            @CacheEvict(value = "companies", key = "#result.id"),
+            @CacheEvict(value = "companies", key = "'all'")
         }
     )
     <S extends Company> S save(S entity);
@@ -50,7 +47,8 @@ public interface CompanyRepository extends CrudRepository<Company, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "companies", allEntries = true)
+        @CacheEvict(value = "companies", key = "#id"),
+        @CacheEvict(value = "companies", key = "'all'")
     })
     void deleteById(Long id);
 
@@ -59,7 +57,8 @@ public interface CompanyRepository extends CrudRepository<Company, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "companies", allEntries = true)
+        @CacheEvict(value = "companies", key = "#entity.id"),
+        @CacheEvict(value = "companies", key = "'all'")
     })
     void delete(Company entity);
 }
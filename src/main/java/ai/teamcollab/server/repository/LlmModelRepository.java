@@ -3,7 +3,6 @@ package ai.teamcollab.server.repository;
 import ai.teamcollab.server.domain.LlmModel;
 import ai.teamcollab.server.domain.LlmProvider;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
@@ -50,7 +49,7 @@ public interface LlmModelRepository extends CrudRepository<LlmModel, Long> {
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "llmModels")
+    @Cacheable(value = "llmModels", key = "'all'")
     List<LlmModel> findAll();
 
     /**
@@ -65,11 +64,9 @@ public interface LlmModelRepository extends CrudRepository<LlmModel, Long> {
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "llmModels", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "llmModels", allEntries = true),
+            @CacheEvict(value = "llmModels", key = "#result.id"),
+            @CacheEvict(value = "llmModels", key = "'all'"),
             @CacheEvict(value = "llmModelsByModelId", key = "#result.modelId"),
             @CacheEvict(value = "llmModelsByProvider", key = "#result.provider.id"),
             @CacheEvict(value = "llmModelsByNameAndProvider", key = "{#result.name, #result.provider.id}")
@@ -82,7 +79,8 @@ public interface LlmModelRepository extends CrudRepository<LlmModel, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "llmModels", allEntries = true),
+        @CacheEvict(value = "llmModels", key = "#id"),
+        @CacheEvict(value = "llmModels", key = "'all'"),
         @CacheEvict(value = "llmModelsByModelId", allEntries = true),
         @CacheEvict(value = "llmModelsByProvider", allEntries = true),
         @CacheEvict(value = "llmModelsByNameAndProvider", allEntries = true)
@@ -94,7 +92,8 @@ public interface LlmModelRepository extends CrudRepository<LlmModel, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "llmModels", allEntries = true),
+        @CacheEvict(value = "llmModels", key = "#entity.id"),
+        @CacheEvict(value = "llmModels", key = "'all'"),
         @CacheEvict(value = "llmModelsByModelId", key = "#entity.modelId"),
         @CacheEvict(value = "llmModelsByProvider", key = "#entity.provider.id"),
         @CacheEvict(value = "llmModelsByNameAndProvider", key = "{#entity.name, #entity.provider.id}")
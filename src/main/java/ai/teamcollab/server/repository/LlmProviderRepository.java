@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.LlmProvider;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
@@ -29,7 +28,7 @@ public interface LlmProviderRepository extends CrudRepository<LlmProvider, Long>
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "llmProviders")
+    @Cacheable(value = "llmProviders", key = "'all'")
     Iterable<LlmProvider> findAll();
 
     /**
@@ -44,11 +43,9 @@ public interface LlmProviderRepository extends CrudRepository<LlmProvider, Long>
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "llmProviders", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "llmProviders", allEntries = true),
+            @CacheEvict(value = "llmProviders", key = "#result.id"),
+            @CacheEvict(value = "llmProviders", key = "'all'"),
             @CacheEvict(value = "llmProvidersByName", key = "#result.name")
         }
     )
@@ -59,7 +56,8 @@ public interface LlmProviderRepository extends CrudRepository<LlmProvider, Long>
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "llmProviders", allEntries = true),
+        @CacheEvict(value = "llmProviders", key = "#id"),
+        @CacheEvict(value = "llmProviders", key = "'all'"),
         @CacheEvict(value = "llmProvidersByName", allEntries = true)
     })
     void deleteById(Long id);
@@ -69,7 +67,8 @@ public interface LlmProviderRepository extends CrudRepository<LlmProvider, Long>
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "llmProviders", allEntries = true),
+        @CacheEvict(value = "llmProviders", key = "#entity.id"),
+        @CacheEvict(value = "llmProviders", key = "'all'"),
         @CacheEvict(value = "llmProvidersByName", key = "#entity.name")
     })
     void delete(LlmProvider entity);
@@ -1,6 +1,7 @@
 package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -30,6 +31,45 @@ public interface MessageRepository extends CrudRepository<Message, Long> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND m.deleted = false AND m.createdAt > (SELECT m2.createdAt FROM Message m2 WHERE m2.id = :messageId)")
     int countMessagesAfter(@Param("conversationId") Long conversationId, @Param("messageId") Long messageId);
 
+    /**
+     * Find messages in a conversation that were created after a specific message, oldest first.
+     * Uses the same boundary as {@link #countMessagesAfter(Long, Long)}, so it returns exactly the messages counted there.
+     *
+     * @param conversationId the conversation ID
+     * @param messageId the message ID to start after
+     * @return the messages created after the specified message
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.deleted = false AND m.createdAt > (SELECT m2.createdAt FROM Message m2 WHERE m2.id = :messageId) ORDER BY m.createdAt ASC")
+    List<Message> findMessagesAfter(@Param("conversationId") Long conversationId, @Param("messageId") Long messageId);
+
+    /**
+     * Find the latest visible messages of a conversation, newest first.
+     *
+     * @param conversationId the conversation ID
+     * @param limit the maximum number of messages
+     * @return the latest messages
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.deleted = false " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestInConversation(@Param("conversationId") Long conversationId, Limit limit);
+
+    /**
+     * Find the visible messages of a conversation created before a message, newest first.
+     *
+     * @param conversationId the conversation ID
+     * @param createdAt the creation time of the message to page back from
+     * @param id the ID of the message to page back from (exclusive)
+     * @param limit the maximum number of messages
+     * @return the messages before the message
+     */
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.deleted = false " +
+            "AND (m.createdAt, m.id) < (:createdAt, :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findOlderInConversation(
+            @Param("conversationId") Long conversationId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
     /**
      * Soft delete all messages in a conversation.
      *
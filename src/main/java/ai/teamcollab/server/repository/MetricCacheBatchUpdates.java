@@ -0,0 +1,20 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.service.domain.MetricCacheDelta;
+
+import java.util.Collection;
+
+/**
+ * Batch updates of the metric cache, mixed into {@link MetricCacheRepository}.
+ */
+public interface MetricCacheBatchUpdates {
+
+    /**
+     * Adds the deltas to their metric cache entries in a single statement, creating the entries that do not exist.
+     * Deltas of conversations that have been deleted are skipped. Each conversation and model may appear only once.
+     *
+     * @param deltas the deltas to add
+     * @return the number of entries inserted or updated
+     */
+    int addDeltas(Collection<MetricCacheDelta> deltas);
+}
@@ -0,0 +1,61 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.service.domain.MetricCacheDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Sends every delta in one {@code INSERT ... ON CONFLICT DO UPDATE}, passing the columns as arrays so the statement is
+ * the same whatever the batch size.
+ */
+@RequiredArgsConstructor
+class MetricCacheBatchUpdatesImpl implements MetricCacheBatchUpdates {
+
+    private static final String ADD_DELTAS = "INSERT INTO metric_cache (conversation_id, llm_model_id, " +
+            "total_duration, message_count, total_input_tokens, total_output_tokens, created_at, updated_at) " +
+            "SELECT d.conversation_id, d.llm_model_id, d.duration, d.message_count, d.input_tokens, " +
+            "d.output_tokens, ?, ? " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::int[], ?::int[], ?::int[]) " +
+            "AS d (conversation_id, llm_model_id, duration, message_count, input_tokens, output_tokens) " +
+            "JOIN conversations c ON c.conversation_id = d.conversation_id " +
+            "ON CONFLICT (conversation_id, llm_model_id) DO UPDATE SET " +
+            "total_duration = metric_cache.total_duration + EXCLUDED.total_duration, " +
+            "message_count = metric_cache.message_count + EXCLUDED.message_count, " +
+            "total_input_tokens = metric_cache.total_input_tokens + EXCLUDED.total_input_tokens, " +
+            "total_output_tokens = metric_cache.total_output_tokens + EXCLUDED.total_output_tokens, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int addDeltas(Collection<MetricCacheDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        final var conversationIds = deltas.stream().map(MetricCacheDelta::conversationId).toArray(Long[]::new);
+        final var llmModelIds = deltas.stream().map(MetricCacheDelta::llmModelId).toArray(Long[]::new);
+        final var durations = deltas.stream().map(MetricCacheDelta::duration).toArray(Long[]::new);
+        final var counts = deltas.stream().map(MetricCacheDelta::messageCount).toArray(Integer[]::new);
+        final var inputTokens = deltas.stream().map(MetricCacheDelta::inputTokens).toArray(Integer[]::new);
+        final var outputTokens = deltas.stream().map(MetricCacheDelta::outputTokens).toArray(Integer[]::new);
+        final var now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.update(connection -> {
+            final var statement = connection.prepareStatement(ADD_DELTAS);
+            statement.setTimestamp(1, now);
+            statement.setTimestamp(2, now);
+            statement.setArray(3, connection.createArrayOf("bigint", conversationIds));
+            statement.setArray(4, connection.createArrayOf("bigint", llmModelIds));
+            statement.setArray(5, connection.createArrayOf("bigint", durations));
+            statement.setArray(6, connection.createArrayOf("int", counts));
+            statement.setArray(7, connection.createArrayOf("int", inputTokens));
+            statement.setArray(8, connection.createArrayOf("int", outputTokens));
+            return statement;
+        });
+    }
+}
@@ -1,8 +1,6 @@
 package ai.teamcollab.server.repository;
 
-import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.MetricCache;
-import ai.teamcollab.server.domain.Metrics;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,12 +8,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MetricCacheRepository extends JpaRepository<MetricCache, Long> {
+public interface MetricCacheRepository extends JpaRepository<MetricCache, Long>, MetricCacheBatchUpdates {
 
     /**
      * Finds a MetricCache by conversation ID and LLM model.
@@ -62,43 +59,4 @@ public interface MetricCacheRepository extends JpaRepository<MetricCache, Long>
      */
     @Query("SELECT mc FROM MetricCache mc WHERE mc.conversation.id = :conversationId")
     List<MetricCache> findByConversationId(@Param("conversationId") Long conversationId);
-
-    @Transactional
-    default void updateMetricCache(Conversation conversation, Metrics metrics) {
-        if (conversation == null || metrics == null || metrics.getLlmModel() == null) {
-            return;
-        }
-
-        final var llmModel = metrics.getLlmModel();
-
-        // Try to find an existing cache entry
-        final var metricCacheOpt = this.findByConversationAndLlmModel(
-                conversation.getId(), llmModel.getId());
-
-        if (metricCacheOpt.isPresent()) {
-            // Update existing cache using SQL to avoid race conditions
-            final var metricCache = metricCacheOpt.get();
-            this.incrementMetricsById(
-                    metricCache.getId(),
-                    metrics.getDuration(),
-                    metrics.getInputTokens(),
-                    metrics.getOutputTokens()
-            );
-        } else {
-            // Create new cache
-            final var now = LocalDateTime.now();
-            final var metricCache = MetricCache.builder()
-                    .conversation(conversation)
-                    .llmModel(llmModel)
-                    .totalDuration(metrics.getDuration())
-                    .messageCount(1)
-                    .totalInputTokens(metrics.getInputTokens())
-                    .totalOutputTokens(metrics.getOutputTokens())
-                    .createdAt(now)
-                    .updatedAt(now)
-                    .build();
-            this.save(metricCache);
-        }
-    }
-
 }
@@ -1,52 +1,93 @@
 package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Metrics;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MetricsRepository extends JpaRepository<Metrics, Long> {
     /**
-     * Finds top 10 metrics ordered by duration in descending order
-     * @return List of top 10 metrics
+     * Finds the 10 slowest calls, with what the metrics page shows of them.
+     * @return the metrics with the longest duration, longest first
      */
-    @Query("SELECT m FROM Metrics m JOIN FETCH m.message WHERE m IN (SELECT m2 FROM Metrics m2 ORDER BY m2.duration DESC)")
-    List<Metrics> findTop10ByOrderByDurationDesc();
+    @EntityGraph(attributePaths = {"message", "pointInTimeSummary", "llmModel"})
+    List<Metrics> findTop10ByOrderByDurationDescIdDesc();
 
     /**
-     * Finds metrics ordered by message creation date in descending order with pagination
-     * @param pageable pagination information
-     * @return Page of metrics
+     * Finds the most recent metrics, newest first.
+     * @param limit the maximum number of metrics
+     * @return the latest metrics
      */
-    @Query("SELECT m FROM Metrics m JOIN FETCH m.message WHERE m IN (SELECT m2 FROM Metrics m2 ORDER BY m2.message.createdAt DESC)")
-    Page<Metrics> findAllOrderByMessageCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = {"message", "pointInTimeSummary", "llmModel"})
+    @Query("SELECT m FROM Metrics m ORDER BY m.createdAt DESC, m.id DESC")
+    List<Metrics> findLatest(Limit limit);
 
     /**
-     * Finds metrics ordered by message creation date in descending order with pagination
-     * @param pageable pagination information
-     * @return Page of metrics
+     * Finds the metrics recorded before a metrics row, newest first.
+     * @param createdAt the creation time of the row to page back from
+     * @param id the ID of the row to page back from (exclusive)
+     * @param limit the maximum number of metrics
+     * @return the metrics before the row
      */
-    @Query("SELECT m FROM Metrics m ORDER BY m.id DESC")
-    Page<Metrics> findAllCreatedAtDesc(Pageable pageable);
+    @EntityGraph(attributePaths = {"message", "pointInTimeSummary", "llmModel"})
+    @Query("SELECT m FROM Metrics m WHERE (m.createdAt, m.id) < (:createdAt, :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<Metrics> findOlderThan(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 
     /**
-     * Finds all metrics for a specific company within a date range
-     * @param companyId the ID of the company
+     * Finds the metrics recorded after a metrics row, oldest first.
+     * @param createdAt the creation time of the row to page forward from
+     * @param id the ID of the row to page forward from (exclusive)
+     * @param limit the maximum number of metrics
+     * @return the metrics after the row
+     */
+    @EntityGraph(attributePaths = {"message", "pointInTimeSummary", "llmModel"})
+    @Query("SELECT m FROM Metrics m WHERE (m.createdAt, m.id) > (:createdAt, :id) ORDER BY m.createdAt ASC, m.id ASC")
+    List<Metrics> findNewerThan(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * The cost of a metrics row in SQL, rounded at each step the same way as {@link Metrics#getCost()} so the totals
+     * match the ones computed in Java. Expects the metrics as {@code m} and their model as {@code lm}.
+     */
+    String ROW_COST = "ROUND(ROUND(m.input_tokens / 1000.0, 6) * ROUND(lm.input_price_per_million / 1000000, 6) * 1000 " +
+            "+ ROUND(m.output_tokens / 1000.0, 6) * ROUND(lm.output_price_per_million / 1000000, 6) * 1000, 5)";
+
+    /**
+     * Joins the metrics of messages to the company of the message's user and to the model.
+     */
+    String COMPANY_METRICS = "FROM metrics m " +
+            "JOIN messages msg ON msg.message_id = m.message_id " +
+            "JOIN users u ON u.user_id = msg.user_id " +
+            "JOIN llm_models lm ON lm.llm_model_id = m.llm_model_id ";
+
+    /**
+     * Sums the cost of the metrics of each company within a date range.
      * @param startDate the start date (inclusive)
-     * @param endDate the end date (inclusive)
-     * @return List of metrics for the company within the date range
+     * @param endDate the end date (exclusive)
+     * @return the total cost of each company that has metrics within the date range
      */
-    @Query("SELECT m FROM Metrics m WHERE m.message.user.company.id = :companyId " +
-           "AND m.message.createdAt BETWEEN :startDate AND :endDate")
-    List<Metrics> findByCompanyAndDateRange(
-            @Param("companyId") Long companyId,
+    @Query(value = "SELECT u.company_id AS \"companyId\", SUM(" + ROW_COST + ") AS \"totalCost\" " +
+            COMPANY_METRICS +
+            "WHERE u.company_id IS NOT NULL AND msg.created_at >= :startDate AND msg.created_at < :endDate " +
+            "GROUP BY u.company_id",
+            nativeQuery = true)
+    List<CompanyCost> sumCostByCompany(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * The total cost of a company's metrics.
+     */
+    interface CompanyCost {
+        Long getCompanyId();
+
+        BigDecimal getTotalCost();
+    }
 }
@@ -0,0 +1,175 @@
+package ai.teamcollab.server.repository;
+
+import ai.teamcollab.server.domain.MetricsRollup;
+import ai.teamcollab.server.domain.RollupGranularity;
+import ai.teamcollab.server.service.domain.ModelUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ai.teamcollab.server.repository.MetricsRepository.ROW_COST;
+
+@Repository
+public interface MetricsRollupRepository extends JpaRepository<MetricsRollup, Long> {
+
+    /**
+     * Adds the metrics with an ID in {@code (:fromId, :toId]} to the rollups of a granularity. The bucket is the start
+     * of the hour or day of the metrics' creation time, and the company is the one of the message's or summary's user.
+     */
+    String ADD_METRICS_QUERY = "INSERT INTO metrics_rollups (granularity, bucket_start, company_id, llm_model_id, " +
+            "call_kind, call_count, total_duration, input_tokens, output_tokens, total_cost) " +
+            "SELECT :granularity, DATE_TRUNC(LOWER(:granularity), m.created_at), " +
+            "COALESCE(mu.company_id, su.company_id), m.llm_model_id, " +
+            "CASE WHEN m.message_id IS NOT NULL THEN 'MESSAGE' " +
+            "WHEN m.summary_id IS NOT NULL THEN 'SUMMARY' ELSE 'ROUTING' END, " +
+            "COUNT(*), SUM(m.duration), SUM(m.input_tokens), SUM(m.output_tokens), " +
+            "COALESCE(SUM(" + ROW_COST + "), 0) " +
+            "FROM metrics m " +
+            "LEFT JOIN messages msg ON msg.message_id = m.message_id " +
+            "LEFT JOIN users mu ON mu.user_id = msg.user_id " +
+            "LEFT JOIN point_in_time_summaries s ON s.summary_id = m.summary_id " +
+            "LEFT JOIN conversations c ON c.conversation_id = s.conversation_id " +
+            "LEFT JOIN users su ON su.user_id = c.user_id " +
+            "LEFT JOIN llm_models lm ON lm.llm_model_id = m.llm_model_id " +
+            "WHERE m.metric_id > :fromId AND m.metric_id <= :toId " +
+            "GROUP BY 1, 2, 3, 4, 5 " +
+            "ON CONFLICT (granularity, bucket_start, COALESCE(company_id, 0), COALESCE(llm_model_id, 0), call_kind) " +
+            "DO UPDATE SET " +
+            "call_count = metrics_rollups.call_count + EXCLUDED.call_count, " +
+            "total_duration = metrics_rollups.total_duration + EXCLUDED.total_duration, " +
+            "input_tokens = metrics_rollups.input_tokens + EXCLUDED.input_tokens, " +
+            "output_tokens = metrics_rollups.output_tokens + EXCLUDED.output_tokens, " +
+            "total_cost = metrics_rollups.total_cost + EXCLUDED.total_cost";
+
+    /**
+     * Sums a company's message costs over the last day, week and month from the hourly rollups, plus the metrics not
+     * folded into them yet. The windows are rounded down to the hour.
+     */
+    String COMPANY_COST_WINDOWS_QUERY = "SELECT " +
+            "COALESCE(SUM(CASE WHEN t.bucket_start >= DATE_TRUNC('hour', CAST(:dayStart AS TIMESTAMP)) " +
+            "THEN t.cost END), 0) AS \"daily\", " +
+            "COALESCE(SUM(CASE WHEN t.bucket_start >= DATE_TRUNC('hour', CAST(:weekStart AS TIMESTAMP)) " +
+            "THEN t.cost END), 0) AS \"weekly\", " +
+            "COALESCE(SUM(t.cost), 0) AS \"monthly\" " +
+            "FROM (" +
+            "SELECT r.bucket_start, r.total_cost AS cost FROM metrics_rollups r " +
+            "WHERE r.company_id = :companyId AND r.granularity = 'HOUR' AND r.call_kind = 'MESSAGE' " +
+            "AND r.bucket_start >= DATE_TRUNC('hour', CAST(:monthStart AS TIMESTAMP)) AND r.bucket_start <= :endDate " +
+            "UNION ALL " +
+            "SELECT DATE_TRUNC('hour', m.created_at), " + ROW_COST + " " +
+            MetricsRepository.COMPANY_METRICS +
+            "WHERE u.company_id = :companyId " +
+            "AND m.metric_id > (SELECT high_water_mark FROM metrics_rollup_state WHERE name = 'metrics') " +
+            "AND m.created_at >= DATE_TRUNC('hour', CAST(:monthStart AS TIMESTAMP)) AND m.created_at <= :endDate" +
+            ") t";
+
+    /**
+     * Finds the last metrics row folded into the rollups and locks it until the end of the transaction, so only one
+     * node compacts at a time.
+     *
+     * @return the high-water mark
+     */
+    @Query(value = "SELECT high_water_mark FROM metrics_rollup_state WHERE name = 'metrics' FOR UPDATE",
+            nativeQuery = true)
+    long lockHighWaterMark();
+
+    /**
+     * Finds the last ID of the next batch of metrics rows after the high-water mark. The batch stops before the first
+     * row that is not old enough to be folded.
+     *
+     * @param fromId    the high-water mark (exclusive)
+     * @param batchSize the maximum number of rows in the batch
+     * @param settled   only rows created before this time are folded
+     * @return the last ID, or {@code null} if there is nothing to fold
+     */
+    @Query(value = "SELECT MAX(metric_id) FROM (" +
+            "SELECT metric_id FROM metrics WHERE metric_id > :fromId AND metric_id < COALESCE(" +
+            "(SELECT MIN(metric_id) FROM metrics WHERE metric_id > :fromId AND created_at >= :settled), " +
+            "9223372036854775807) " +
+            "ORDER BY metric_id LIMIT :batchSize) batch",
+            nativeQuery = true)
+    Long findBatchEnd(
+            @Param("fromId") long fromId,
+            @Param("batchSize") int batchSize,
+            @Param("settled") LocalDateTime settled);
+
+    /**
+     * Adds metrics rows to the rollups, see {@link #ADD_METRICS_QUERY}.
+     *
+     * @param granularity the granularity of the rollups to update
+     * @param fromId      the high-water mark (exclusive)
+     * @param toId        the last ID to fold (inclusive)
+     * @return the number of rollups inserted or updated
+     */
+    @Modifying
+    @Transactional
+    @Query(value = ADD_METRICS_QUERY, nativeQuery = true)
+    int addMetrics(
+            @Param("granularity") String granularity,
+            @Param("fromId") long fromId,
+            @Param("toId") long toId);
+
+    /**
+     * Moves the high-water mark after the metrics rows have been folded.
+     *
+     * @param highWaterMark the last folded ID
+     * @param updatedAt     the time of the update
+     * @return the number of rows affected
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE metrics_rollup_state SET high_water_mark = :highWaterMark, updated_at = :updatedAt " +
+            "WHERE name = 'metrics'",
+            nativeQuery = true)
+    int updateHighWaterMark(
+            @Param("highWaterMark") long highWaterMark,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Sums a company's message costs over the last day, week and month, see {@link #COMPANY_COST_WINDOWS_QUERY}. The
+     * windows end at the same time and each one must start within the next.
+     *
+     * @param companyId  the ID of the company
+     * @param dayStart   the start of the daily window
+     * @param weekStart  the start of the weekly window
+     * @param monthStart the start of the monthly window
+     * @param endDate    the end of the windows (inclusive)
+     * @return the cost of each window
+     */
+    @Query(value = COMPANY_COST_WINDOWS_QUERY, nativeQuery = true)
+    CompanyCostWindows sumCompanyCostWindows(
+            @Param("companyId") Long companyId,
+            @Param("dayStart") LocalDateTime dayStart,
+            @Param("weekStart") LocalDateTime weekStart,
+            @Param("monthStart") LocalDateTime monthStart,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Sums the rollups of a granularity per LLM model. Metrics not folded into the rollups yet are not included.
+     *
+     * @param granularity the granularity of the rollups to sum
+     * @return the usage of each LLM model
+     */
+    @Query("SELECT new ai.teamcollab.server.service.domain.ModelUsage(r.llmModel.label, SUM(r.totalDuration), " +
+            "SUM(r.callCount), SUM(r.inputTokens), SUM(r.outputTokens)) " +
+            "FROM MetricsRollup r WHERE r.granularity = :granularity GROUP BY r.llmModel.id, r.llmModel.label")
+    List<ModelUsage> summarizeByModel(@Param("granularity") RollupGranularity granularity);
+
+    /**
+     * The cost of a company's messages over the last day, week and month.
+     */
+    interface CompanyCostWindows {
+        BigDecimal getDaily();
+
+        BigDecimal getWeekly();
+
+        BigDecimal getMonthly();
+    }
+}
@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.Role;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
@@ -26,7 +25,7 @@ public interface RoleRepository extends CrudRepository<Role, Long> {
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "roles")
+    @Cacheable(value = "roles", key = "'all'")
     Iterable<Role> findAll();
 
     /**
@@ -41,11 +40,9 @@ public interface RoleRepository extends CrudRepository<Role, Long> {
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "roles", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "roles", allEntries = true),
+            @CacheEvict(value = "roles", key = "#result.id"),
+            @CacheEvict(value = "roles", key = "'all'"),
             @CacheEvict(value = "rolesByName", key = "#result.name")
         }
     )
@@ -56,7 +53,8 @@ public interface RoleRepository extends CrudRepository<Role, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "roles", allEntries = true),
+        @CacheEvict(value = "roles", key = "#id"),
+        @CacheEvict(value = "roles", key = "'all'"),
         @CacheEvict(value = "rolesByName", allEntries = true)
     })
     void deleteById(Long id);
@@ -66,7 +64,8 @@ public interface RoleRepository extends CrudRepository<Role, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "roles", allEntries = true),
+        @CacheEvict(value = "roles", key = "#entity.id"),
+        @CacheEvict(value = "roles", key = "'all'"),
         @CacheEvict(value = "rolesByName", key = "#entity.name")
     })
     void delete(Role entity);
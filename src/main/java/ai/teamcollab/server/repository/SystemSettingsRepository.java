@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.SystemSettings;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -35,11 +34,8 @@ public interface SystemSettingsRepository extends JpaRepository<SystemSettings,
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "systemSettings", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "systemSettings", allEntries = true),
+            @CacheEvict(value = "systemSettings", key = "#result.id"),
             @CacheEvict(value = "currentSystemSettings", allEntries = true)
         }
     )
@@ -50,7 +46,7 @@ public interface SystemSettingsRepository extends JpaRepository<SystemSettings,
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "systemSettings", allEntries = true),
+        @CacheEvict(value = "systemSettings", key = "#id"),
         @CacheEvict(value = "currentSystemSettings", allEntries = true)
     })
     void deleteById(Long id);
@@ -60,7 +56,7 @@ public interface SystemSettingsRepository extends JpaRepository<SystemSettings,
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "systemSettings", allEntries = true),
+        @CacheEvict(value = "systemSettings", key = "#entity.id"),
         @CacheEvict(value = "currentSystemSettings", allEntries = true)
     })
     void delete(SystemSettings entity);
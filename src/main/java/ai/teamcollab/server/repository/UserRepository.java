@@ -2,7 +2,6 @@ package ai.teamcollab.server.repository;
 
 import ai.teamcollab.server.domain.User;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
@@ -79,7 +78,7 @@ public interface UserRepository extends CrudRepository<User, Long> {
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(value = "users")
+    @Cacheable(value = "users", key = "'all'")
     List<User> findAll();
 
     /**
@@ -94,16 +93,17 @@ public interface UserRepository extends CrudRepository<User, Long> {
      */
     @Override
     @Caching(
-        put = {
-            @CachePut(value = "users", key = "#result.id")
-        },
         evict = {
-            @CacheEvict(value = "users", allEntries = true),
+            @CacheEvict(value = "users", key = "#result.id"),
+            @CacheEvict(value = "users", key = "'all'"),
             @CacheEvict(value = "usersByUsername", key = "#result.username"),
             @CacheEvict(value = "usersByEmail", key = "#result.email"),
-            @CacheEvict(value = "usersByCompany", key = "#result.company?.id"),
-            @CacheEvict(value = "enabledUserCountByCompany", key = "#result.company?.id"),
-            @CacheEvict(value = "disabledUserCountByCompany", key = "#result.company?.id")
+            @CacheEvict(value = "usersByCompany", key = "#result.company.id",
+                    condition = "#result.company != null"),
+            @CacheEvict(value = "enabledUserCountByCompany", key = "#result.company.id",
+                    condition = "#result.company != null"),
+            @CacheEvict(value = "disabledUserCountByCompany", key = "#result.company.id",
+                    condition = "#result.company != null")
         }
     )
     <S extends User> S save(S entity);
@@ -113,7 +113,8 @@ public interface UserRepository extends CrudRepository<User, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "users", allEntries = true),
+        @CacheEvict(value = "users", key = "#id"),
+        @CacheEvict(value = "users", key = "'all'"),
         @CacheEvict(value = "usersByUsername", allEntries = true),
         @CacheEvict(value = "usersByEmail", allEntries = true),
         @CacheEvict(value = "usersByCompany", allEntries = true),
@@ -127,12 +128,16 @@ public interface UserRepository extends CrudRepository<User, Long> {
      */
     @Override
     @Caching(evict = {
-        @CacheEvict(value = "users", allEntries = true),
+        @CacheEvict(value = "users", key = "#entity.id"),
+        @CacheEvict(value = "users", key = "'all'"),
         @CacheEvict(value = "usersByUsername", key = "#entity.username"),
         @CacheEvict(value = "usersByEmail", key = "#entity.email"),
-        @CacheEvict(value = "usersByCompany", key = "#entity.company?.id"),
-        @CacheEvict(value = "enabledUserCountByCompany", key = "#entity.company?.id"),
-        @CacheEvict(value = "disabledUserCountByCompany", key = "#entity.company?.id")
+        @CacheEvict(value = "usersByCompany", key = "#entity.company.id",
+                condition = "#entity.company != null"),
+        @CacheEvict(value = "enabledUserCountByCompany", key = "#entity.company.id",
+                condition = "#entity.company != null"),
+        @CacheEvict(value = "disabledUserCountByCompany", key = "#entity.company.id",
+                condition = "#entity.company != null")
     })
     void delete(User entity);
 }
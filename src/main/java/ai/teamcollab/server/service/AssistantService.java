@@ -6,7 +6,10 @@ import ai.teamcollab.server.domain.Company;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.repository.AssistantRepository;
 import ai.teamcollab.server.repository.ConversationRepository;
+import ai.teamcollab.server.service.domain.AssistantChangedEvent;
+import ai.teamcollab.server.service.domain.ConversationAssistantsChangedEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,13 +24,16 @@ public class AssistantService {
     private final AssistantRepository assistantRepository;
     private final ConversationRepository conversationRepository;
     private final AssistantToneService assistantToneService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AssistantService(AssistantRepository assistantRepository,
                             ConversationRepository conversationRepository,
-                            AssistantToneService assistantToneService) {
+                            AssistantToneService assistantToneService,
+                            ApplicationEventPublisher eventPublisher) {
         this.assistantRepository = assistantRepository;
         this.conversationRepository = conversationRepository;
         this.assistantToneService = assistantToneService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Assistant createAssistant(String name, String expertise, String description, Company company) {
@@ -57,7 +63,9 @@ public class AssistantService {
 
         assistant.setName(name);
         assistant.setExpertise(expertiseAreas);
-        return assistantRepository.save(assistant);
+        final var saved = assistantRepository.save(assistant);
+        eventPublisher.publishEvent(new AssistantChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
@@ -74,7 +82,9 @@ public class AssistantService {
         // Set the default tone
         setDefaultTone(assistant, conversation);
 
-        return assistantRepository.save(assistant);
+        final var saved = assistantRepository.save(assistant);
+        eventPublisher.publishEvent(new ConversationAssistantsChangedEvent(conversationId, assistantId));
+        return saved;
     }
 
     public void removeFromConversation(Long assistantId, Long conversationId) {
@@ -88,6 +98,7 @@ public class AssistantService {
                 .orElseThrow(() -> new IllegalArgumentException("Conversation not found with ID: " + conversationId));
         assistant.removeFromConversation(conversation);
         assistantRepository.save(assistant);
+        eventPublisher.publishEvent(new ConversationAssistantsChangedEvent(conversationId, assistantId));
     }
 
     @Transactional
@@ -102,6 +113,7 @@ public class AssistantService {
 
         assistant.muteInConversation(conversation);
         assistantRepository.save(assistant);
+        eventPublisher.publishEvent(new ConversationAssistantsChangedEvent(conversationId, assistantId));
     }
 
     @Transactional
@@ -116,6 +128,7 @@ public class AssistantService {
 
         assistant.unmuteInConversation(conversation);
         assistantRepository.save(assistant);
+        eventPublisher.publishEvent(new ConversationAssistantsChangedEvent(conversationId, assistantId));
     }
 
     public boolean isAssistantMutedInConversation(Long assistantId, Long conversationId) {
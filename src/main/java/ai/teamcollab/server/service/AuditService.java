@@ -4,15 +4,22 @@ import ai.teamcollab.server.domain.Audit;
 import ai.teamcollab.server.domain.Company;
 import ai.teamcollab.server.domain.User;
 import ai.teamcollab.server.repository.AuditRepository;
+import ai.teamcollab.server.service.impl.AuditWriter;
+import ai.teamcollab.server.service.domain.AuditPipelineStatistics;
+import ai.teamcollab.server.service.domain.KeysetPage;
+import ai.teamcollab.server.service.domain.PageCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -29,18 +36,20 @@ import java.util.Optional;
 public class AuditService {
 
     private final AuditRepository auditRepository;
+    private final AuditWriter auditWriter;
 
     /**
-     * Create an audit event.
+     * Create an audit event. The event is handed to the {@link AuditWriter} once the caller's transaction commits, or
+     * at once outside a transaction, so auditing adds no database round trip to the caller and a rolled back action is
+     * not audited.
      *
      * @param actionType the type of action
      * @param user the user who performed the action
      * @param details additional details about the action
      * @param entityType the type of entity affected by the action
      * @param entityId the ID of the entity affected by the action
-     * @return the created audit event
+     * @return the audit event, which has no ID as it is written later
      */
-    @Transactional
     public Audit createAuditEvent(Audit.AuditActionType actionType, User user, String details, 
                                  String entityType, Long entityId) {
         String ipAddress = getClientIpAddress();
@@ -59,7 +68,17 @@ public class AuditService {
                 .build();
 
         log.info("Creating audit event: {} for user: {} ({})", actionType, user.getUsername(), user.getId());
-        return auditRepository.save(audit);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditWriter.submit(audit);
+                }
+            });
+        } else {
+            auditWriter.submit(audit);
+        }
+        return audit;
     }
 
     /**
@@ -69,9 +88,8 @@ public class AuditService {
      * @param details additional details about the action
      * @param entityType the type of entity affected by the action
      * @param entityId the ID of the entity affected by the action
-     * @return the created audit event
+     * @return the audit event, or {@code null} without an authenticated user
      */
-    @Transactional
     public Audit createAuditEvent(Audit.AuditActionType actionType, String details, 
                                  String entityType, Long entityId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -155,18 +173,6 @@ public class AuditService {
         return auditRepository.findByActionType(actionType);
     }
 
-    /**
-     * Find all audit events of a specific action type with pagination.
-     *
-     * @param actionType the type of action
-     * @param pageable the pagination information
-     * @return a page of audit events
-     */
-    @Transactional(readOnly = true)
-    public Page<Audit> findAuditsByActionType(Audit.AuditActionType actionType, Pageable pageable) {
-        return auditRepository.findByActionType(actionType, pageable);
-    }
-
     /**
      * Find the most recent audit events, limited by count.
      *
@@ -190,13 +196,50 @@ public class AuditService {
     }
 
     /**
-     * Find the most recent audit events with pagination.
+     * Find a page of audit events, newest first. At most one of {@code before} and {@code after} is used; without
+     * either the most recent events are returned.
      *
-     * @param pageable the pagination information
+     * @param actionType the type of action, or {@code null} for all events
+     * @param before the cursor to page back from (exclusive), or {@code null}
+     * @param after the cursor to page forward from (exclusive), or {@code null}
+     * @param size the page size
      * @return a page of audit events
      */
     @Transactional(readOnly = true)
-    public Page<Audit> findMostRecentAudits(Pageable pageable) {
-        return auditRepository.findMostRecentAudits(pageable);
+    public KeysetPage<Audit> findAuditPage(Audit.AuditActionType actionType, PageCursor before, PageCursor after,
+                                           int size) {
+        // One extra event tells whether there is another page in the direction of travel
+        final var limit = Limit.of(size + 1);
+        if (after != null) {
+            final var audits = actionType == null
+                    ? auditRepository.findNewerThan(after.timestamp(), after.id(), limit)
+                    : auditRepository.findByActionTypeNewerThan(actionType, after.timestamp(), after.id(), limit);
+            return KeysetPage.fromOldestFirst(audits, size, AuditService::cursorOf);
+        }
+
+        final List<Audit> audits;
+        if (before != null) {
+            audits = actionType == null
+                    ? auditRepository.findOlderThan(before.timestamp(), before.id(), limit)
+                    : auditRepository.findByActionTypeOlderThan(actionType, before.timestamp(), before.id(), limit);
+        } else {
+            audits = actionType == null
+                    ? auditRepository.findLatest(limit)
+                    : auditRepository.findLatestByActionType(actionType, limit);
+        }
+        return KeysetPage.fromNewestFirst(audits, size, before != null, AuditService::cursorOf);
+    }
+
+    /**
+     * Get the counters of the audit event buffer.
+     *
+     * @return the buffer statistics
+     */
+    public AuditPipelineStatistics getPipelineStatistics() {
+        return auditWriter.getStatistics();
+    }
+
+    private static PageCursor cursorOf(Audit audit) {
+        return new PageCursor(audit.getTimestamp(), audit.getId());
     }
 }
@@ -1,24 +1,47 @@
 package ai.teamcollab.server.service;
 
+import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Message;
 import ai.teamcollab.server.domain.PointInTimeSummary;
 import ai.teamcollab.server.service.domain.ChatContext;
 import ai.teamcollab.server.service.domain.MessageResponse;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface ChatService {
     /**
-     * Asynchronously process a message with enhanced context and generate a response.
+     * Asynchronously process a message with enhanced context and generate one response per assistant chosen to respond.
      *
      * @param conversation The conversation context
      * @param recent The most recent message to process
      * @param chatContext The enhanced context containing conversation history, purpose and project overview
-     * @return CompletableFuture<MessageResponse> containing the LLM response and associated metrics
+     * @param replyListener Receives each response, with its assistant and metrics, as soon as it is complete
+     * @param failureListener Receives the assistant and the error of each response that failed
+     * @return CompletableFuture<List<MessageResponse>> containing every successful response once the last one is complete
      */
-    CompletableFuture<Optional<MessageResponse>> process(Conversation conversation, Message recent, ChatContext chatContext);
+    CompletableFuture<List<MessageResponse>> process(Conversation conversation, Message recent, ChatContext chatContext,
+                                                     Consumer<MessageResponse> replyListener,
+                                                     BiConsumer<Assistant, Throwable> failureListener);
+
+    /**
+     * Asynchronously process a message and stream each assistant's response while it is generated.
+     *
+     * @param conversation The conversation context
+     * @param recent The most recent message to process
+     * @param chatContext The enhanced context containing conversation history, purpose and project overview
+     * @param chunkListener Receives each chunk of a response, with the assistant generating it, as it arrives
+     * @param replyListener Receives each response, with its assistant and metrics, as soon as it is complete
+     * @param failureListener Receives the assistant and the error of each response that failed
+     * @return CompletableFuture<List<MessageResponse>> containing every successful response once the last one is complete
+     */
+    CompletableFuture<List<MessageResponse>> stream(Conversation conversation, Message recent, ChatContext chatContext,
+                                                    BiConsumer<Assistant, String> chunkListener,
+                                                    Consumer<MessageResponse> replyListener,
+                                                    BiConsumer<Assistant, Throwable> failureListener);
 
     /**
      * Generates a point-in-time summary for a conversation.
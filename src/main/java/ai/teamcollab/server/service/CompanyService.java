@@ -6,6 +6,8 @@ import ai.teamcollab.server.domain.User;
 import ai.teamcollab.server.repository.CompanyRepository;
 import ai.teamcollab.server.repository.LlmModelRepository;
 import ai.teamcollab.server.repository.PlanDetailRepository;
+import ai.teamcollab.server.service.domain.LlmModelChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +19,14 @@ public class CompanyService {
     private final CompanyRepository companyRepository;
     private final PlanDetailRepository planDetailRepository;
     private final LlmModelRepository llmModelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CompanyService(CompanyRepository companyRepository, PlanDetailRepository planDetailRepository, LlmModelRepository llmModelRepository) {
+    public CompanyService(CompanyRepository companyRepository, PlanDetailRepository planDetailRepository, LlmModelRepository llmModelRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.companyRepository = companyRepository;
         this.planDetailRepository = planDetailRepository;
         this.llmModelRepository = llmModelRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -64,7 +69,9 @@ public class CompanyService {
             }
         }
 
-        return companyRepository.save(company);
+        final var saved = companyRepository.save(company);
+        eventPublisher.publishEvent(new LlmModelChangedEvent("company " + companyId));
+        return saved;
     }
 
     @Transactional
@@ -1,5 +1,7 @@
 package ai.teamcollab.server.service;
 
+import ai.teamcollab.server.config.ChatStreamingProperties;
+import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Audit;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Message;
@@ -8,12 +10,18 @@ import ai.teamcollab.server.repository.ConversationRepository;
 import ai.teamcollab.server.repository.MessageRepository;
 import ai.teamcollab.server.repository.UserRepository;
 import ai.teamcollab.server.service.domain.ChatContext;
+import ai.teamcollab.server.service.domain.KeysetPage;
+import ai.teamcollab.server.service.domain.MessageResponse;
 import ai.teamcollab.server.service.domain.MessageRow;
+import ai.teamcollab.server.service.domain.PageCursor;
+import ai.teamcollab.server.templates.AssistantStatusRenderer;
 import ai.teamcollab.server.templates.ThymeleafTemplateRender;
+import ai.teamcollab.server.ws.domain.MessageChunk;
 import ai.teamcollab.server.ws.domain.WsMessageResponse;
 import io.swagger.v3.oas.annotations.links.Link;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -23,14 +31,16 @@ import java.time.LocalDateTime;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static ai.teamcollab.server.controller.WebSocketController.DIRECT_MESSAGE_TOPIC;
-import static ai.teamcollab.server.templates.TemplatePath.ASSISTANT_STATUSES_TEMPLATE;
+import static ai.teamcollab.server.controller.WebSocketController.ERROR_EVENT_TOPIC;
 import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
-import static ai.teamcollab.server.templates.TemplateVariableName.ASSISTANTS;
+import static ai.teamcollab.server.templates.TemplatePath.REMOVE_TEMPLATE;
 import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
-import static ai.teamcollab.server.templates.TemplateVariableName.STATUS;
+import static ai.teamcollab.server.templates.TemplateVariableName.TARGET;
 import static java.util.Collections.reverse;
 import static java.util.Objects.nonNull;
 
@@ -45,13 +55,15 @@ public class ConversationService {
     private final ConversationRepository conversationRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final ThymeleafTemplateRender thymeleafTemplateRender;
+    private final AssistantStatusRenderer assistantStatusRenderer;
     private final AuditService auditService;
+    private final ChatStreamingProperties streamingProperties;
 
     @Autowired
     public ConversationService(ChatService chatService, MessageService messageService, UserRepository userRepository,
                                MessageRepository messageRepository, ConversationRepository conversationRepository,
                                SimpMessagingTemplate messagingTemplate, ThymeleafTemplateRender thymeleafTemplateRender,
-                               AuditService auditService) {
+                               AssistantStatusRenderer assistantStatusRenderer, AuditService auditService, ChatStreamingProperties streamingProperties) {
         this.chatService = chatService;
         this.messageService = messageService;
         this.userRepository = userRepository;
@@ -59,7 +71,9 @@ public class ConversationService {
         this.conversationRepository = conversationRepository;
         this.messagingTemplate = messagingTemplate;
         this.thymeleafTemplateRender = thymeleafTemplateRender;
+        this.assistantStatusRenderer = assistantStatusRenderer;
         this.auditService = auditService;
+        this.streamingProperties = streamingProperties;
     }
 
     public Conversation createConversation(Conversation conversation, Long userId) {
@@ -160,43 +174,38 @@ public class ConversationService {
 
             chatService.generatePointInTimeSummary(conversation, chatContext);
 
-            return chatService.process(conversation, message, chatContext)
-                    .thenAccept(optionalResponse -> {
-                        final var responses = new LinkedList<String>();
-
-                        final var assistants = conversation.getAssistants();
-                        responses.add( thymeleafTemplateRender.renderToHtml(ASSISTANT_STATUSES_TEMPLATE, Map.of(ASSISTANTS, assistants, STATUS, "Ready")));
-
-                        if (optionalResponse.isPresent()) {
-
-                            final var response = optionalResponse.get();
-                            final var responseMessage = Message.builder()
-                                    .content(response.getContent())
-                                    .assistant(message.getAssistant())
-                                    .createdAt(LocalDateTime.now())
-                                    .build();
+            final var streaming = streamingProperties.isEnabled();
+            final var failed = ConcurrentHashMap.<Assistant>newKeySet();
+            final var processing = streaming
+                    ? chatService.stream(conversation, message, chatContext,
+                    (assistant, chunk) -> sendChunk(sessionId, message.getId(), assistant.getId(), chunk),
+                    response -> sendReply(sessionId, conversation, message, response, true),
+                    (assistant, failure) -> sendReplyFailure(sessionId, message, assistant, true, failed))
+                    : chatService.process(conversation, message, chatContext,
+                    response -> sendReply(sessionId, conversation, message, response, false),
+                    (assistant, failure) -> sendReplyFailure(sessionId, message, assistant, false, failed));
+
+            return processing
+                    .handle((responses, throwable) -> {
+                        // Sent whether or not processing failed, so no assistant is left "Thinking..."
+                        final var ready = conversation.getAssistants().stream()
+                                .filter(assistant -> !failed.contains(assistant))
+                                .toList();
+                        if (!ready.isEmpty()) {
+                            final var html = assistantStatusRenderer.render(ready, "Ready");
+                            messagingTemplate.convertAndSendToUser(sessionId, DIRECT_MESSAGE_TOPIC, WsMessageResponse.turbo(List.of(html)));
+                        }
 
-                            // Save the response message to the conversation
-                            final var savedMessage = messageService.createMessage(responseMessage, conversation.getId(), message.getUser());
-                            if (nonNull(response.getMetrics())) {
-                                savedMessage.addMetrics(response.getMetrics());
-                                messageRepository.save(savedMessage);
+                        if (throwable != null) {
+                            log.error("Error processing message for conversation {}: {}", conversation.getId(), throwable.getMessage(), throwable);
+                            // Convert checked exception to unchecked
+                            if (throwable instanceof RuntimeException) {
+                                throw (RuntimeException) throwable;
                             }
-
-                            final var row = MessageRow.from(responseMessage);
-                            final var html = thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row));
-                            responses.add(html);
+                            throw new RuntimeException("Failed to process message", throwable);
                         }
-                        messagingTemplate.convertAndSendToUser(sessionId, DIRECT_MESSAGE_TOPIC, WsMessageResponse.turbo(responses));
-                        log.debug("Message processed successfully for conversation: {}", message.getId());
-                    })
-                    .exceptionally(throwable -> {
-                        log.error("Error processing message for conversation {}: {}", conversation.getId(), throwable.getMessage(), throwable);
-                        // Convert checked exception to unchecked
-                        if (throwable instanceof RuntimeException) {
-                            throw (RuntimeException) throwable;
-                        }
-                        throw new RuntimeException("Failed to process message", throwable);
+                        log.debug("Message processed for conversation: {}, {} replies, {} failed", message.getId(), responses.size(), failed.size());
+                        return null;
                     });
         } catch (Exception e) {
             log.error("Error sending message for conversation {}: {}", messageId, e.getMessage(), e);
@@ -204,6 +213,91 @@ public class ConversationService {
         }
     }
 
+    /**
+     * Saves an assistant's reply and sends it to the user as soon as it is complete, without waiting for the other
+     * assistants' replies.
+     *
+     * @param sessionId    the user to send the reply to
+     * @param conversation the conversation
+     * @param message      the message being answered
+     * @param response     the assistant's reply and its metrics
+     * @param streaming    whether the reply was streamed, in which case its pending element is removed
+     */
+    private void sendReply(String sessionId, Conversation conversation, Message message, MessageResponse response,
+                           boolean streaming) {
+        final var responses = new LinkedList<String>();
+        if (streaming) {
+            responses.add(thymeleafTemplateRender.renderToHtml(REMOVE_TEMPLATE,
+                    Map.of(TARGET, streamTarget(message.getId(), response.getAssistant().getId()))));
+        }
+
+        final var responseMessage = Message.builder()
+                .content(response.getContent())
+                .assistant(response.getAssistant())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        // Save the response message to the conversation
+        final var savedMessage = messageService.createMessage(responseMessage, conversation.getId(), message.getUser());
+        if (nonNull(response.getMetrics())) {
+            savedMessage.addMetrics(response.getMetrics());
+            messageRepository.save(savedMessage);
+        }
+
+        final var row = MessageRow.from(responseMessage);
+        responses.add(thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row)));
+        messagingTemplate.convertAndSendToUser(sessionId, DIRECT_MESSAGE_TOPIC, WsMessageResponse.turbo(responses));
+    }
+
+    /**
+     * Tells the user that an assistant could not reply, while the other assistants' replies are still delivered. The
+     * partial reply of a streamed reply is removed and the assistant is shown as failed instead of "Thinking...".
+     *
+     * @param sessionId the user to notify
+     * @param message   the message being answered
+     * @param assistant the assistant whose reply failed
+     * @param streaming whether the reply was streamed, in which case its pending element is removed
+     * @param failed    collects the assistants whose reply failed, so they are not shown as ready afterwards
+     */
+    private void sendReplyFailure(String sessionId, Message message, Assistant assistant, boolean streaming,
+                                  Set<Assistant> failed) {
+        failed.add(assistant);
+
+        final var elements = new LinkedList<String>();
+        if (streaming) {
+            elements.add(thymeleafTemplateRender.renderToHtml(REMOVE_TEMPLATE,
+                    Map.of(TARGET, streamTarget(message.getId(), assistant.getId()))));
+        }
+        elements.add(assistantStatusRenderer.render(List.of(assistant), "Failed to reply"));
+        messagingTemplate.convertAndSendToUser(sessionId, DIRECT_MESSAGE_TOPIC, WsMessageResponse.turbo(elements));
+        messagingTemplate.convertAndSendToUser(sessionId, ERROR_EVENT_TOPIC,
+                assistant.getName() + " could not reply, please try again");
+    }
+
+    /**
+     * Sends a partial reply to the user while it is being generated.
+     *
+     * @param sessionId   the user to send the chunk to
+     * @param replyTo     the id of the message being answered
+     * @param assistantId the id of the assistant generating the reply
+     * @param content     the chunk of the reply
+     */
+    private void sendChunk(String sessionId, Long replyTo, Long assistantId, String content) {
+        final var chunk = MessageChunk.builder()
+                .replyTo(replyTo)
+                .assistantId(assistantId)
+                .content(content)
+                .build();
+        messagingTemplate.convertAndSendToUser(sessionId, DIRECT_MESSAGE_TOPIC, WsMessageResponse.chunk(chunk));
+    }
+
+    /**
+     * The id of the element holding an assistant's streamed reply to a message, matching the one created by the client.
+     */
+    private static String streamTarget(Long replyTo, Long assistantId) {
+        return "stream_" + replyTo + "_" + assistantId;
+    }
+
     public List<Message> findMessagesByConversation(Long conversationId) {
         log.debug("Fetching messages for conversation {}", conversationId);
         final var messages = messageRepository.findTop10ByConversationIdAndDeletedFalseOrderByCreatedAtDesc(conversationId);
@@ -211,6 +305,24 @@ public class ConversationService {
         return messages;
     }
 
+    /**
+     * Finds a page of the visible messages of a conversation, read back from the newest one or from a cursor.
+     *
+     * @param conversationId the ID of the conversation
+     * @param before the cursor of the oldest message shown so far, or {@code null} for the latest messages
+     * @param size the maximum number of messages
+     * @return the messages, newest first, with the cursor to load the ones before them
+     */
+    public KeysetPage<Message> findMessagePage(Long conversationId, PageCursor before, int size) {
+        log.debug("Fetching messages for conversation {} before {}", conversationId, before);
+        final var limit = Limit.of(size + 1);
+        final var messages = before == null
+                ? messageRepository.findLatestInConversation(conversationId, limit)
+                : messageRepository.findOlderInConversation(conversationId, before.timestamp(), before.id(), limit);
+        return KeysetPage.fromNewestFirst(messages, size, false,
+                message -> new PageCursor(message.getCreatedAt(), message.getId()));
+    }
+
     public List<Message> getUserMessages(Long userId) {
         log.debug("Fetching messages for user {}", userId);
         return messageRepository.findByUserIdAndDeletedFalseOrderByCreatedAtDesc(userId);
@@ -1,12 +1,16 @@
 package ai.teamcollab.server.service;
 
 import ai.teamcollab.server.domain.Metrics;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import ai.teamcollab.server.service.domain.CacheStatistics;
+import ai.teamcollab.server.service.domain.KeysetPage;
+import ai.teamcollab.server.service.domain.PageCursor;
+import ai.teamcollab.server.service.domain.RoutingStatistics;
+import ai.teamcollab.server.service.domain.WebSocketStatistics;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface MetricsService {
     /**
@@ -16,11 +20,14 @@ public interface MetricsService {
     List<Metrics> getTopMetrics();
 
     /**
-     * Retrieves metrics ordered by message creation date with pagination.
-     * @param pageable pagination information
+     * Retrieves a page of metrics, newest first. At most one of {@code before} and {@code after} is used; without
+     * either the most recent metrics are returned.
+     * @param before the cursor to page back from (exclusive), or {@code null}
+     * @param after the cursor to page forward from (exclusive), or {@code null}
+     * @param size the maximum number of metrics
      * @return Page of metrics
      */
-    Page<Metrics> getMetricsPaginated(Pageable pageable);
+    KeysetPage<Metrics> getMetricsPage(PageCursor before, PageCursor after, int size);
 
     /**
      * Retrieves metrics statistics including:
@@ -47,4 +54,28 @@ public interface MetricsService {
      * @return total cost for the specified period
      */
     BigDecimal getCompanyCostsByDateRange(Long companyId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Retrieves the counters of how assistant routing decisions were made
+     * @return hit, miss and fallback counts of the fast-path router
+     */
+    RoutingStatistics getRoutingStatistics();
+
+    /**
+     * Retrieves the size, hit and eviction counters of the routing decision cache
+     * @return routing decision cache statistics
+     */
+    CacheStatistics getRoutingCacheStatistics();
+
+    /**
+     * Retrieves the size, hit and eviction counters of each named entity cache
+     * @return the statistics of each cache, by cache name in alphabetical order
+     */
+    Map<String, CacheStatistics> getEntityCacheStatistics();
+
+    /**
+     * Retrieves the outbound queue depths of the WebSocket sessions connected to this node
+     * @return session count, queued messages, slow consumers disconnected and the deepest session queues
+     */
+    WebSocketStatistics getWebSocketStatistics();
 }
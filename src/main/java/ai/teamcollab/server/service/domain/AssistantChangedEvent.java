@@ -0,0 +1,9 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Published when the name or expertise of an assistant changes.
+ *
+ * @param assistantId the ID of the assistant that changed
+ */
+public record AssistantChangedEvent(Long assistantId) {
+}
@@ -0,0 +1,34 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Counters of the audit event buffer since the application started.
+ *
+ * @param buffered the number of events waiting to be written
+ * @param capacity the number of events the buffer holds
+ * @param enqueued events accepted into the buffer
+ * @param written  events inserted into the database
+ * @param dropped  events turned away because the buffer was full
+ * @param failed   events whose batch could not be inserted
+ * @param batches  batches inserted
+ */
+public record AuditPipelineStatistics(long buffered, int capacity, long enqueued, long written, long dropped,
+                                      long failed, long batches) {
+
+    /**
+     * Returns how full the buffer is.
+     *
+     * @return the share of the capacity in use, between 0 and 1
+     */
+    public double fillRate() {
+        return capacity == 0 ? 0 : (double) buffered / capacity;
+    }
+
+    /**
+     * Returns the average number of events inserted per batch.
+     *
+     * @return the average batch size
+     */
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) written / batches;
+    }
+}
@@ -0,0 +1,22 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Counters of an in-memory cache since the application started.
+ *
+ * @param size      the number of entries currently cached
+ * @param hits      lookups answered from the cache
+ * @param misses    lookups that found no live entry
+ * @param evictions entries removed because the cache was full, they expired or they were invalidated
+ */
+public record CacheStatistics(long size, long hits, long misses, long evictions) {
+
+    /**
+     * Returns the share of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double hitRate() {
+        final var total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,10 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Published when an assistant is added to, removed from, muted or unmuted in a conversation.
+ *
+ * @param conversationId the ID of the conversation
+ * @param assistantId    the ID of the assistant that changed in it
+ */
+public record ConversationAssistantsChangedEvent(Long conversationId, Long assistantId) {
+}
@@ -0,0 +1,60 @@
+package ai.teamcollab.server.service.domain;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of rows read after or before a known row, instead of at an offset. Reading a page costs the same however far
+ * back it is, and rows added while paging do not shift the pages.
+ * <p>
+ * Repositories read one row more than the page size, which only tells whether there is another page in the direction
+ * the rows were read.
+ *
+ * @param content     the rows of the page, newest first
+ * @param olderCursor the cursor to read the rows older than the last one, or {@code null} if there are none
+ * @param newerCursor the cursor to read the rows newer than the first one, or {@code null} if there are none
+ * @param <T>         the type of the rows
+ */
+public record KeysetPage<T>(List<T> content, PageCursor olderCursor, PageCursor newerCursor) {
+
+    /**
+     * Builds a page from rows read newest first, either the latest ones or the ones older than a cursor.
+     *
+     * @param rows     the rows, up to one more than the page size
+     * @param size     the page size
+     * @param hasNewer whether the rows were read from a cursor, so there are newer rows
+     * @param cursorOf the cursor of a row
+     * @return the page
+     */
+    public static <T> KeysetPage<T> fromNewestFirst(List<T> rows, int size, boolean hasNewer,
+                                                    Function<T, PageCursor> cursorOf) {
+        final var content = rows.subList(0, Math.min(size, rows.size()));
+        // An empty page has no row to link from
+        return new KeysetPage<>(content,
+                rows.size() > size ? cursorOf.apply(content.getLast()) : null,
+                hasNewer && !content.isEmpty() ? cursorOf.apply(content.getFirst()) : null);
+    }
+
+    /**
+     * Builds a page from rows read oldest first from a cursor. The content is turned newest first.
+     *
+     * @param rows     the rows, up to one more than the page size
+     * @param size     the page size
+     * @param cursorOf the cursor of a row
+     * @return the page
+     */
+    public static <T> KeysetPage<T> fromOldestFirst(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        final var content = rows.subList(0, Math.min(size, rows.size())).reversed();
+        return new KeysetPage<>(content,
+                content.isEmpty() ? null : cursorOf.apply(content.getLast()),
+                rows.size() > size ? cursorOf.apply(content.getFirst()) : null);
+    }
+
+    public boolean hasOlder() {
+        return olderCursor != null;
+    }
+
+    public boolean hasNewer() {
+        return newerCursor != null;
+    }
+}
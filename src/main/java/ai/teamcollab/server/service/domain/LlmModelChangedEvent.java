@@ -0,0 +1,9 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Published when the LLM model used by the system or by a company changes.
+ *
+ * @param source a short description of what changed, used for logging
+ */
+public record LlmModelChangedEvent(String source) {
+}
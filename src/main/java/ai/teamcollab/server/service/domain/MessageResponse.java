@@ -1,5 +1,6 @@
 package ai.teamcollab.server.service.domain;
 
+import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Metrics;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.Data;
 @Data
 @Builder
 public class MessageResponse {
+    private Assistant assistant;
     private String content;
     private Metrics metrics;
 }
\ No newline at end of file
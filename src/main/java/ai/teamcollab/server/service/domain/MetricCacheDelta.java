@@ -0,0 +1,26 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Metrics to add to the metric cache entry of a conversation and LLM model.
+ *
+ * @param conversationId the ID of the conversation
+ * @param llmModelId     the ID of the LLM model
+ * @param duration       the duration to add in milliseconds
+ * @param messageCount   the number of calls to add
+ * @param inputTokens    the input tokens to add
+ * @param outputTokens   the output tokens to add
+ */
+public record MetricCacheDelta(Long conversationId, Long llmModelId, long duration, int messageCount, int inputTokens,
+                               int outputTokens) {
+
+    /**
+     * Returns the sum of this delta and another one for the same conversation and model.
+     *
+     * @param other the other delta
+     * @return the merged delta
+     */
+    public MetricCacheDelta plus(MetricCacheDelta other) {
+        return new MetricCacheDelta(conversationId, llmModelId, duration + other.duration,
+                messageCount + other.messageCount, inputTokens + other.inputTokens, outputTokens + other.outputTokens);
+    }
+}
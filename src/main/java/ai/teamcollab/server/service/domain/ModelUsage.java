@@ -0,0 +1,13 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * The cached metrics of all conversations for one LLM model.
+ *
+ * @param label         the label of the LLM model
+ * @param totalDuration the total duration of the calls in milliseconds
+ * @param messageCount  the number of calls
+ * @param inputTokens   the total input tokens
+ * @param outputTokens  the total output tokens
+ */
+public record ModelUsage(String label, long totalDuration, long messageCount, long inputTokens, long outputTokens) {
+}
@@ -0,0 +1,40 @@
+package ai.teamcollab.server.service.domain;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The position of a row in a keyset page: its timestamp, with its ID to order rows created at the same time. Written
+ * as {@code <timestamp>_<id>} in links, and read back by Spring's conversion through {@link #valueOf(String)}.
+ *
+ * @param timestamp the timestamp of the row
+ * @param id        the ID of the row
+ */
+public record PageCursor(LocalDateTime timestamp, long id) {
+    private static final char SEPARATOR = '_';
+
+    /**
+     * Reads a cursor from a link.
+     *
+     * @param value the cursor as written by {@link #toString()}
+     * @return the cursor
+     * @throws IllegalArgumentException if the value is not a cursor
+     */
+    public static PageCursor valueOf(String value) {
+        final var separator = value == null ? -1 : value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid page cursor: " + value);
+        }
+        try {
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timestamp.toString() + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,31 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Counters of how assistant routing decisions were made since the application started.
+ *
+ * @param hits                decisions made locally by the fast-path router, without an LLM call
+ * @param misses              decisions the fast-path router could not make, which went to the LLM
+ * @param fallbacks           LLM decisions that failed or could not be parsed, so every active assistant responded
+ * @param averageLlmDuration  average duration of an LLM routing call in milliseconds
+ */
+public record RoutingStatistics(long hits, long misses, long fallbacks, double averageLlmDuration) {
+
+    /**
+     * Returns the share of decisions made without an LLM call.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double hitRate() {
+        final var total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the routing latency saved by the fast path, estimated from the average duration of the LLM calls.
+     *
+     * @return the estimated saved latency in milliseconds
+     */
+    public long estimatedSavedDuration() {
+        return Math.round(hits * averageLlmDuration);
+    }
+}
@@ -0,0 +1,12 @@
+package ai.teamcollab.server.service.domain;
+
+/**
+ * Outbound queue of one WebSocket session.
+ *
+ * @param sessionId the WebSocket session id
+ * @param username  the user the session belongs to, or {@code null} if it is anonymous
+ * @param queued    messages to the session waiting for an outbound thread
+ * @param maxQueued the most messages that waited at once since the session connected
+ */
+public record SessionQueueDepth(String sessionId, String username, int queued, int maxQueued) {
+}
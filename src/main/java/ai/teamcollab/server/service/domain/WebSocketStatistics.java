@@ -0,0 +1,15 @@
+package ai.teamcollab.server.service.domain;
+
+import java.util.List;
+
+/**
+ * Outbound queues of the WebSocket sessions connected to this node.
+ *
+ * @param sessions                  the number of open sessions
+ * @param queued                    messages to any session waiting for an outbound thread
+ * @param slowConsumersDisconnected sessions closed since the application started because they fell behind
+ * @param deepestSessions           the sessions with the longest queues, longest first
+ */
+public record WebSocketStatistics(int sessions, long queued, long slowConsumersDisconnected,
+                                  List<SessionQueueDepth> deepestSessions) {
+}
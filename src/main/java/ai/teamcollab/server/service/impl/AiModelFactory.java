@@ -1,30 +1,51 @@
 package ai.teamcollab.server.service.impl;
 
+import ai.teamcollab.server.config.AiClientProperties;
 import ai.teamcollab.server.domain.Company;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.LlmModel;
 import ai.teamcollab.server.domain.User;
 import ai.teamcollab.server.service.SystemSettingsService;
+import ai.teamcollab.server.service.domain.LlmModelChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import java.net.http.HttpClient;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.System.getenv;
 
 /**
- * Factory for creating AI models with appropriate configuration.
+ * Factory for creating AI models with appropriate configuration. Models are built once per LLM model and temperature
+ * and reused afterwards; they all share the same pooled {@link HttpClient}.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AiModelFactory {
+
+    /**
+     * Key of the model registry.
+     */
+    private record ModelKey(Long llmModelId, Double temperature) {
+    }
+
     private final SystemSettingsService systemSettingsService;
+    private final HttpClient llmHttpClient;
+    private final AiClientProperties aiClientProperties;
+    private final Map<ModelKey, ChatModel> models = new ConcurrentHashMap<>();
 
     /**
      * Creates an OpenAI chat model configured based on the conversation and system settings.
@@ -72,18 +93,50 @@ public class AiModelFactory {
     }
 
     /**
-     * Helper method to create a ChatModel from an LlmModel.
+     * Removes every model from the registry, so the next call builds them again from the current LLM models.
+     */
+    public void invalidate() {
+        log.debug("Invalidating {} cached chat models", models.size());
+        models.clear();
+    }
+
+    /**
+     * Invalidates the registry when the active LLM model of the system or of a company changes.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onLlmModelChanged(LlmModelChangedEvent event) {
+        log.info("LLM model changed ({}), invalidating chat models", event.source());
+        invalidate();
+    }
+
+    /**
+     * Returns the registered ChatModel for an LlmModel, creating it on first use.
      *
      * @param llmModel the LLM model to use
      * @return a configured ChatModel
      */
     private ChatModel createChatModelFromLlmModel(LlmModel llmModel) {
+        final var key = new ModelKey(llmModel.getId(), llmModel.getTemperature());
+        return models.computeIfAbsent(key, ignored -> buildChatModel(llmModel));
+    }
+
+    /**
+     * Builds a new ChatModel from an LlmModel.
+     *
+     * @param llmModel the LLM model to use
+     * @return a configured ChatModel
+     */
+    private ChatModel buildChatModel(LlmModel llmModel) {
         final var provider = llmModel.getProvider();
         if (provider.isOpenAi()) {
             log.info("Using OpenAPI Client with model: {}", llmModel.getModelId());
             return OpenAiChatModel.builder()
                     .openAiApi(OpenAiApi.builder()
                             .apiKey(getenv("OPENAI_API_KEY"))
+                            .restClientBuilder(restClientBuilder())
+                            .webClientBuilder(webClientBuilder())
                             .build())
                     .defaultOptions(OpenAiChatOptions.builder()
                             .model(llmModel.getModelId())
@@ -97,6 +150,8 @@ public class AiModelFactory {
                         .apiKey(getenv("GEMINI_FLASH_2_0_KEY"))
                         .baseUrl(getenv("GEMINI_URL"))
                         .completionsPath(getenv("GEMINI_COMPLETIONS_PATH"))
+                        .restClientBuilder(restClientBuilder())
+                        .webClientBuilder(webClientBuilder())
                         .build())
                 .defaultOptions(OpenAiChatOptions.builder()
                         .model(llmModel.getModelId())
@@ -105,6 +160,16 @@ public class AiModelFactory {
                 .build();
     }
 
+    private RestClient.Builder restClientBuilder() {
+        final var requestFactory = new JdkClientHttpRequestFactory(llmHttpClient);
+        requestFactory.setReadTimeout(aiClientProperties.getReadTimeout());
+        return RestClient.builder().requestFactory(requestFactory);
+    }
+
+    private WebClient.Builder webClientBuilder() {
+        return WebClient.builder().clientConnector(new JdkClientHttpConnector(llmHttpClient));
+    }
+
     /**
      * Gets the LLM model ID for a conversation.
      *
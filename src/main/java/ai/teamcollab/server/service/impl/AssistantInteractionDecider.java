@@ -4,7 +4,7 @@ import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Message;
 import ai.teamcollab.server.domain.Metrics;
-import ai.teamcollab.server.repository.MetricCacheRepository;
+import ai.teamcollab.server.domain.User;
 import ai.teamcollab.server.repository.MetricsRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -24,7 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import static java.lang.Boolean.TRUE;
 import static java.time.Instant.now;
@@ -39,8 +39,11 @@ import static java.time.Instant.now;
 public class AssistantInteractionDecider {
     private final AiModelFactory aiModelFactory;
     private final ObjectMapper objectMapper;
-    private final MetricCacheRepository metricCacheRepository;
+    private final MetricCacheAccumulator metricCacheAccumulator;
     private final MetricsRepository metricsRepository;
+    private final CompanyConcurrencyLimiter concurrencyLimiter;
+    private final AssistantRouter assistantRouter;
+    private final RoutingDecisionCache routingDecisionCache;
 
     /**
      * Determines which assistants should respond to a message.
@@ -56,6 +59,19 @@ public class AssistantInteractionDecider {
             return Collections.emptyList();
         }
 
+        // Handle the easy cases without an LLM call
+        final var localDecision = assistantRouter.route(message, activeAssistants);
+        if (localDecision.isPresent()) {
+            return localDecision.get();
+        }
+
+        // Reuse the decision for a near-identical message sent to the same assistants
+        final var cachedDecision = routingDecisionCache.get(message.getContent(), activeAssistants);
+        if (cachedDecision.isPresent()) {
+            log.debug("Using cached routing decision for message {}", message.getId());
+            return cachedDecision.get();
+        }
+
         try {
             // Record start time
             final var start = now();
@@ -67,13 +83,17 @@ public class AssistantInteractionDecider {
             var chatModel = aiModelFactory.createAssistantInteractionModel();
             var llmModel = aiModelFactory.getAssistantInteractionLlmModel();
 
-            // Call the LLM
-            var response = chatModel.call(prompt);
+            // Call the LLM, holding one of the company's permits
+            final var company = Optional.ofNullable(conversation.getUser())
+                    .map(User::getCompany)
+                    .orElse(null);
+            var response = concurrencyLimiter.call(company, () -> chatModel.call(prompt));
             var result = response.getResult().getOutput().getText();
 
             // Record end time and calculate duration
             final var end = now();
             final var duration = Duration.between(start, end).toMillis();
+            assistantRouter.recordLlmDecision(duration);
 
             log.debug("LLM response for assistant interaction decision: {}", result);
 
@@ -86,12 +106,20 @@ public class AssistantInteractionDecider {
             metricsRepository.save(metrics);
 
             // Update the metric cache
-            metricCacheRepository.updateMetricCache(conversation, metrics);
+            metricCacheAccumulator.add(conversation, metrics);
 
             // Parse the response to get the list of assistants that should respond
-            return parseResponse(result, activeAssistants);
+            final var decision = parseResponse(result);
+            if (decision.isEmpty()) {
+                // In case of parsing error, return all active assistants
+                assistantRouter.recordFallback();
+                return activeAssistants.stream().map(Assistant::getId).toList();
+            }
+            routingDecisionCache.put(message.getContent(), activeAssistants, decision.get());
+            return decision.get();
         } catch (Exception e) {
             log.error("Error deciding which assistants should respond: {}", e.getMessage(), e);
+            assistantRouter.recordFallback();
             // In case of error, return all active assistants to ensure the conversation continues
             return activeAssistants.stream().map(Assistant::getId).toList();
         }
@@ -142,11 +170,10 @@ public class AssistantInteractionDecider {
     /**
      * Parses the LLM response to extract the list of assistant IDs that should respond.
      *
-     * @param response         the LLM response
-     * @param activeAssistants list of active assistants in the conversation
-     * @return list of assistant IDs that should respond
+     * @param response the LLM response
+     * @return list of assistant IDs that should respond, or empty if the response could not be parsed
      */
-    private List<Long> parseResponse(@NonNull String response, @NonNull Collection<Assistant> activeAssistants) {
+    private Optional<List<Long>> parseResponse(@NonNull String response) {
         try {
             // Extract JSON array from response (in case there's additional text)
             String jsonResponse = extractJsonArray(response);
@@ -156,7 +183,7 @@ public class AssistantInteractionDecider {
             });
 
             // Extract assistant IDs where triggered is true
-            return assistantResponses.stream().filter(map -> TRUE.equals(map.get("triggered"))).map(map -> {
+            return Optional.of(assistantResponses.stream().filter(map -> TRUE.equals(map.get("triggered"))).map(map -> {
                 // Handle different types of ID representation (Long, Integer, String)
                 final var idObj = map.get("assistantId");
                 if (idObj instanceof Number) {
@@ -165,11 +192,10 @@ public class AssistantInteractionDecider {
                     return Long.parseLong((String) idObj);
                 }
                 return null;
-            }).filter(Objects::nonNull).toList();
+            }).filter(Objects::nonNull).toList());
         } catch (JsonProcessingException e) {
             log.error("Error parsing LLM response: {}", e.getMessage(), e);
-            // In case of parsing error, return all active assistants
-            return activeAssistants.stream().map(Assistant::getId).collect(Collectors.toList());
+            return Optional.empty();
         }
     }
 
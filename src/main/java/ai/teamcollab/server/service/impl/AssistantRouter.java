@@ -0,0 +1,143 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.service.domain.RoutingStatistics;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic router that decides who should respond to the easy messages without an LLM call:
+ * <ul>
+ *     <li>when only one assistant is active, it responds;</li>
+ *     <li>when assistants are mentioned with {@code @name}, exactly those respond;</li>
+ *     <li>when the message is a statement with no question, no assistant responds.</li>
+ * </ul>
+ * Everything else is left to the LLM. The router also keeps the hit, miss and fallback counters for routing.
+ */
+@Slf4j
+@Component
+public class AssistantRouter {
+
+    private static final Set<String> QUESTION_WORDS = Set.of(
+            "who", "what", "when", "where", "why", "how", "which", "whose", "whom",
+            "can", "could", "should", "would", "will", "shall", "may", "might", "must",
+            "is", "are", "was", "were", "am", "do", "does", "did", "have", "has", "had",
+            "anyone", "anybody", "thoughts", "ideas", "suggestions", "please", "help", "explain", "tell", "let's"
+    );
+
+    private static final Pattern SENTENCE_START = Pattern.compile("(?:^|[.!\\n]\\s*)([\\p{L}']+)");
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder llmCalls = new LongAdder();
+    private final LongAdder llmDuration = new LongAdder();
+
+    /**
+     * Decides locally which assistants should respond to a message.
+     *
+     * @param message          the message to route
+     * @param activeAssistants the active (not muted) assistants in the conversation
+     * @return the IDs of the assistants that should respond, or empty if the decision needs the LLM
+     */
+    public Optional<List<Long>> route(@NonNull Message message, @NonNull Collection<Assistant> activeAssistants) {
+        final var decision = decide(message.getContent(), activeAssistants);
+        if (decision.isPresent()) {
+            hits.increment();
+            log.debug("Routed message {} locally to {}", message.getId(), decision.get());
+        } else {
+            misses.increment();
+        }
+        return decision;
+    }
+
+    /**
+     * Records the duration of an LLM routing call made after a miss.
+     *
+     * @param duration the duration in milliseconds
+     */
+    public void recordLlmDecision(long duration) {
+        llmCalls.increment();
+        llmDuration.add(duration);
+    }
+
+    /**
+     * Records an LLM routing call that failed or could not be parsed.
+     */
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    /**
+     * Returns the routing counters.
+     *
+     * @return the routing statistics
+     */
+    public RoutingStatistics getStatistics() {
+        final var callCount = llmCalls.sum();
+        final var averageLlmDuration = callCount == 0 ? 0 : (double) llmDuration.sum() / callCount;
+        return new RoutingStatistics(hits.sum(), misses.sum(), fallbacks.sum(), averageLlmDuration);
+    }
+
+    private Optional<List<Long>> decide(String content, Collection<Assistant> activeAssistants) {
+        if (activeAssistants.size() == 1) {
+            return Optional.of(List.of(activeAssistants.iterator().next().getId()));
+        }
+
+        final var text = Optional.ofNullable(content).orElse("");
+        final var lowerCaseText = text.toLowerCase(Locale.ROOT);
+
+        final var mentioned = activeAssistants.stream()
+                .filter(assistant -> isMentioned(lowerCaseText, assistant))
+                .map(Assistant::getId)
+                .toList();
+        if (!mentioned.isEmpty()) {
+            return Optional.of(mentioned);
+        }
+
+        if (!isQuestion(lowerCaseText)) {
+            return Optional.of(List.of());
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean isMentioned(String lowerCaseText, Assistant assistant) {
+        final var mention = "@" + assistant.getName().toLowerCase(Locale.ROOT);
+        var index = lowerCaseText.indexOf(mention);
+        while (index >= 0) {
+            // The mention must not be the prefix of a longer name, e.g. @ann in @anna
+            final var end = index + mention.length();
+            if (end == lowerCaseText.length() || !Character.isLetterOrDigit(lowerCaseText.charAt(end))) {
+                return true;
+            }
+            index = lowerCaseText.indexOf(mention, end);
+        }
+        return false;
+    }
+
+    private static boolean isQuestion(String lowerCaseText) {
+        if (lowerCaseText.indexOf('?') >= 0) {
+            return true;
+        }
+
+        // Questions and requests are often typed without a question mark, so look at how each sentence starts
+        final var matcher = SENTENCE_START.matcher(lowerCaseText);
+        while (matcher.find()) {
+            if (QUESTION_WORDS.contains(matcher.group(1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AuditProperties;
+import ai.teamcollab.server.repository.AuditRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+
+import static ai.teamcollab.server.config.AuditProperties.RetentionAction.DROP;
+
+/**
+ * Keeps the monthly partitions of the {@code audits} table in shape: the current month and the configured number of
+ * months ahead always have a partition, so the audit writer never inserts into a missing one, and the partitions of
+ * months past the retention are detached or dropped whole, which costs a catalog update instead of deleting every row.
+ * <p>
+ * The first check runs at startup. The checks take an advisory lock, so several nodes can run them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionMaintainer {
+    private final AuditRepository auditRepository;
+    private final AuditProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates the missing partitions and retires the expired ones.
+     */
+    @Scheduled(fixedDelayString = "${teamcollab.audit.partition-check-interval:6h}")
+    public void maintain() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!auditRepository.tryLockPartitions()) {
+                log.debug("Audit partitions are being maintained by another node");
+                return;
+            }
+            maintain(YearMonth.now());
+        });
+    }
+
+    /**
+     * Brings the partitions in line with the given current month. Must run in a transaction holding the lock.
+     *
+     * @param currentMonth the current month
+     */
+    void maintain(YearMonth currentMonth) {
+        final var existing = auditRepository.findPartitionMonths();
+
+        final var lastMonth = currentMonth.plusMonths(properties.getPartitionsAhead());
+        for (var month = currentMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                auditRepository.createPartition(month);
+                log.info("Created the audit partition of {}", month);
+            }
+        }
+
+        if (properties.getRetentionMonths() <= 0) {
+            return;
+        }
+        final var oldestKept = currentMonth.minusMonths(properties.getRetentionMonths());
+        for (final var month : existing) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            if (properties.getRetentionAction() == DROP) {
+                auditRepository.dropPartition(month);
+                log.info("Dropped the expired audit partition of {}", month);
+            } else {
+                auditRepository.detachPartition(month);
+                log.info("Detached the expired audit partition of {}", month);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AuditProperties;
+import ai.teamcollab.server.domain.Audit;
+import ai.teamcollab.server.repository.AuditRepository;
+import ai.teamcollab.server.service.domain.AuditPipelineStatistics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static ai.teamcollab.server.config.AuditProperties.Durability.WAIT_FOR_FLUSH;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Writes audit events in the background. Callers put events in a bounded ring buffer, and a single writer thread takes
+ * whatever has accumulated, up to the batch size, and inserts it as one JDBC batch. Under load the batches grow on
+ * their own, while a lone event is written as soon as the writer wakes up.
+ * <p>
+ * A full buffer never blocks a {@link AuditProperties.Durability#FIRE_AND_FORGET} caller: the event is dropped and
+ * counted, so a slow database shows up in {@link #getStatistics()} instead of in request latency. Events left in the
+ * buffer are written on shutdown.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditWriter {
+    private static final long POLL_TIMEOUT_MILLIS = 1000;
+
+    private final AuditRepository auditRepository;
+    private final AuditProperties properties;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private BlockingQueue<PendingAudit> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    record PendingAudit(Audit audit, CompletableFuture<Void> written) {
+    }
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("audit-writer")
+                .daemon()
+                .start(this::run);
+    }
+
+    /**
+     * Stops the writer and writes the events still in the buffer.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(POLL_TIMEOUT_MILLIS * 2);
+
+        final var remaining = new ArrayList<PendingAudit>();
+        buffer.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += properties.getBatchSize()) {
+            write(remaining.subList(i, Math.min(i + properties.getBatchSize(), remaining.size())));
+        }
+    }
+
+    /**
+     * Buffers an audit event for writing. Depending on the durability mode, returns at once or once the event is
+     * written. Never throws: an event that cannot be buffered or written is logged and counted.
+     *
+     * @param audit the audit event
+     */
+    public void submit(Audit audit) {
+        final var pending = new PendingAudit(audit, new CompletableFuture<>());
+        final var waitForFlush = properties.getDurability() == WAIT_FOR_FLUSH;
+        final var timeout = properties.getWaitTimeout().toMillis();
+
+        try {
+            final var accepted = waitForFlush ? buffer.offer(pending, timeout, MILLISECONDS) : buffer.offer(pending);
+            if (!accepted) {
+                dropped.increment();
+                log.warn("Audit buffer full, dropped {} event of {}", audit.getActionType(), audit.getUsername());
+                return;
+            }
+            enqueued.increment();
+
+            if (waitForFlush) {
+                pending.written().get(timeout, MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Audit {} event of {} not confirmed as written: {}", audit.getActionType(), audit.getUsername(),
+                    e.getMessage());
+        }
+    }
+
+    public AuditPipelineStatistics getStatistics() {
+        return new AuditPipelineStatistics(buffer.size(), properties.getCapacity(), enqueued.sum(), written.sum(),
+                dropped.sum(), failed.sum(), batches.sum());
+    }
+
+    private void run() {
+        final var batch = new ArrayList<PendingAudit>(properties.getBatchSize());
+        while (running) {
+            try {
+                final var first = buffer.poll(POLL_TIMEOUT_MILLIS, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingAudit> batch) {
+        try {
+            auditRepository.insertAll(batch.stream().map(PendingAudit::audit).toList());
+            written.add(batch.size());
+            batches.increment();
+            batch.forEach(pending -> pending.written().complete(null));
+            log.debug("Wrote {} audit events", batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+            batch.forEach(pending -> pending.written().completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AsyncProperties;
+import ai.teamcollab.server.controller.domain.WsMessage;
+import ai.teamcollab.server.domain.LoginUserDetails;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.service.ConversationService;
+import ai.teamcollab.server.service.domain.MessageRow;
+import ai.teamcollab.server.templates.AssistantStatusRenderer;
+import ai.teamcollab.server.templates.ThymeleafTemplateRender;
+import ai.teamcollab.server.ws.domain.WsMessageResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static ai.teamcollab.server.controller.WebSocketController.DIRECT_MESSAGE_TOPIC;
+import static ai.teamcollab.server.controller.WebSocketController.ERROR_EVENT_TOPIC;
+import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplatePath.REMOVE_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
+import static ai.teamcollab.server.templates.TemplateVariableName.TARGET;
+
+/**
+ * Takes in the chat messages sent over the WebSocket. {@link #submit(WsMessage, LoginUserDetails)} only checks the
+ * message and queues it, so the inbound channel thread is free again right away; a worker then saves it, starts the
+ * assistants' replies and sends the rendered message back to the sender.
+ * <p>
+ * The messages of a conversation are handled one at a time in the order they were submitted, while different
+ * conversations are handled in parallel. Once {@code teamcollab.async.chat-ingest} holds as many messages as its pool
+ * and queue can take, new ones are turned away instead of queuing without bound.
+ */
+@Slf4j
+@Component
+public class ChatMessageIngest {
+    private static final Pattern CLIENT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final ConversationService conversationService;
+    private final ThymeleafTemplateRender thymeleafTemplateRender;
+    private final AssistantStatusRenderer assistantStatusRenderer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Executor executor;
+    private final int capacity;
+    private final Map<Long, CompletableFuture<Void>> conversationTails = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public ChatMessageIngest(ConversationService conversationService,
+                             ThymeleafTemplateRender thymeleafTemplateRender,
+                             AssistantStatusRenderer assistantStatusRenderer,
+                             SimpMessagingTemplate messagingTemplate,
+                             @Qualifier("chatIngestExecutor") Executor executor,
+                             AsyncProperties properties) {
+        this.conversationService = conversationService;
+        this.thymeleafTemplateRender = thymeleafTemplateRender;
+        this.assistantStatusRenderer = assistantStatusRenderer;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        final var pool = properties.getChatIngest();
+        this.capacity = pool.getMaxPoolSize() + pool.getQueueCapacity();
+    }
+
+    /**
+     * Checks a message and queues it to be saved behind the earlier messages of its conversation.
+     *
+     * @param message the message sent by the client
+     * @param user    the sender
+     * @throws IllegalArgumentException if the message is empty or its client id is malformed
+     * @throws IllegalStateException    if too many messages are already waiting
+     */
+    public void submit(WsMessage message, LoginUserDetails user) {
+        if (message.getConversationId() <= 0) {
+            throw new IllegalArgumentException("Missing conversation");
+        }
+        if (message.getContent() == null || message.getContent().isBlank()) {
+            throw new IllegalArgumentException("Message cannot be empty");
+        }
+        if (message.getClientId() != null && !CLIENT_ID.matcher(message.getClientId()).matches()) {
+            throw new IllegalArgumentException("Malformed client id");
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Too many messages are waiting, please try again");
+        }
+
+        final var conversationId = message.getConversationId();
+        final var task = new CompletableFuture<Void>();
+        task.whenComplete((ignored, failure) -> {
+            pending.decrementAndGet();
+            conversationTails.remove(conversationId, task);
+            if (failure != null) {
+                log.error("Failed to save message {} for conversation {}", message.getClientId(), conversationId,
+                        failure);
+                messagingTemplate.convertAndSendToUser(user.getUsername(), ERROR_EVENT_TOPIC,
+                        "Failed to send your message, please try again");
+            }
+        });
+
+        // Runs once the conversation's previous message is handled, whether or not it succeeded
+        final var tail = conversationTails.put(conversationId, task);
+        (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                .whenComplete((previous, failure) -> execute(task, () -> process(message, user)));
+    }
+
+    /**
+     * Returns the number of messages submitted and not handled yet.
+     *
+     * @return the number of waiting messages
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Runs work on the executor and completes the task with its outcome. A rejected submission fails the task as
+     * well, so the message is still counted out and the conversation's next message is not left waiting behind it.
+     *
+     * @param task the task completed once the work is done
+     * @param work the work to run
+     */
+    private void execute(CompletableFuture<Void> task, Runnable work) {
+        try {
+            executor.execute(() -> {
+                try {
+                    work.run();
+                    task.complete(null);
+                } catch (Throwable failure) {
+                    task.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            task.completeExceptionally(e);
+        }
+    }
+
+    private void process(WsMessage message, LoginUserDetails user) {
+        final var conversation = conversationService.findConversationByIdWithAssistant(message.getConversationId());
+        final var newMessage = Message.builder()
+                .content(message.getContent())
+                .build();
+        final var savedMessage = conversationService.addToConversation(conversation.getId(), newMessage, user.getId());
+
+        final var elements = new ArrayList<String>();
+        if (message.getClientId() != null) {
+            elements.add(thymeleafTemplateRender.renderToHtml(REMOVE_TEMPLATE,
+                    Map.of(TARGET, pendingTarget(message.getClientId()))));
+        }
+        final var row = MessageRow.builder()
+                .content(savedMessage.getContent())
+                .username(user.getUsername())
+                .createdAt(savedMessage.getCreatedAt())
+                .bookmarked(false)
+                .build();
+        elements.add(thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row)));
+        elements.add(assistantStatusRenderer.render(conversation.getAssistants(), "Thinking..."));
+        messagingTemplate.convertAndSendToUser(user.getUsername(), DIRECT_MESSAGE_TOPIC,
+                WsMessageResponse.turbo(elements));
+
+        // Sent after the message itself, so a quick reply cannot overtake it
+        conversationService.sendMessage(savedMessage.getId(), user.getUsername());
+    }
+
+    /**
+     * The id of the element showing a message until it is saved, matching the one created by the client.
+     */
+    private static String pendingTarget(String clientId) {
+        return "pending_" + clientId;
+    }
+}
@@ -1,5 +1,6 @@
 package ai.teamcollab.server.service.impl;
 
+import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Message;
 import ai.teamcollab.server.domain.PointInTimeSummary;
@@ -10,8 +11,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the ChatService interface that delegates to specialized components.
@@ -24,9 +27,21 @@ public class ChatServiceImpl implements ChatService {
     private final SummaryGenerator summaryGenerator;
 
     @Override
-    public CompletableFuture<Optional<MessageResponse>> process(Conversation conversation, Message recent, ChatContext chatContext) {
+    public CompletableFuture<List<MessageResponse>> process(Conversation conversation, Message recent, ChatContext chatContext,
+                                                            Consumer<MessageResponse> replyListener,
+                                                            BiConsumer<Assistant, Throwable> failureListener) {
         log.debug("Delegating message processing to MessageProcessor");
-        return messageProcessor.process(conversation, recent, chatContext);
+        return messageProcessor.process(conversation, recent, chatContext, replyListener, failureListener);
+    }
+
+    @Override
+    public CompletableFuture<List<MessageResponse>> stream(Conversation conversation, Message recent, ChatContext chatContext,
+                                                           BiConsumer<Assistant, String> chunkListener,
+                                                           Consumer<MessageResponse> replyListener,
+                                                           BiConsumer<Assistant, Throwable> failureListener) {
+        log.debug("Delegating message streaming to MessageProcessor");
+        return messageProcessor.stream(conversation, recent, chatContext, chunkListener, replyListener,
+                failureListener);
     }
 
     @Override
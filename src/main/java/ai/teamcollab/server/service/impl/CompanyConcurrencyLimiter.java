@@ -0,0 +1,81 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AsyncProperties;
+import ai.teamcollab.server.domain.Company;
+import ai.teamcollab.server.exception.ConcurrencyLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many LLM calls each company may have in flight. Every company gets its own fair semaphore, so a company
+ * that starts thousands of conversations only queues behind itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompanyConcurrencyLimiter {
+    private final AsyncProperties asyncProperties;
+    private final Map<Long, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Runs a task while holding one of the company's permits, waiting up to the configured timeout for a permit to
+     * become available. Tasks without a company are not limited.
+     *
+     * @param company the company the task is run for, may be null
+     * @param task    the task to run
+     * @param <T>     the type of the task result
+     * @return the task result
+     * @throws ConcurrencyLimitExceededException if no permit became available in time
+     */
+    public <T> T call(Company company, Supplier<T> task) {
+        if (company == null || company.getId() == null) {
+            return task.get();
+        }
+
+        final var semaphore = permits.computeIfAbsent(company.getId(),
+                id -> new Semaphore(asyncProperties.getMaxConcurrentLlmCallsPerCompany(), true));
+        acquire(company.getId(), semaphore);
+        try {
+            return task.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Returns the number of LLM calls the company can start right now.
+     *
+     * @param companyId the company ID
+     * @return the number of free permits
+     */
+    public int availablePermits(Long companyId) {
+        final var semaphore = permits.get(companyId);
+        return semaphore == null ? asyncProperties.getMaxConcurrentLlmCallsPerCompany() : semaphore.availablePermits();
+    }
+
+    private void acquire(Long companyId, Semaphore semaphore) {
+        final var timeout = asyncProperties.getCompanyPermitTimeout();
+        try {
+            if (semaphore.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Company {} has {} LLM calls in flight, rejecting call after waiting {}",
+                companyId, asyncProperties.getMaxConcurrentLlmCallsPerCompany(), timeout);
+        throw new ConcurrencyLimitExceededException(
+                "Too many requests are being processed for your company. Please try again shortly.",
+                companyId,
+                asyncProperties.getMaxConcurrentLlmCallsPerCompany()
+        );
+    }
+}
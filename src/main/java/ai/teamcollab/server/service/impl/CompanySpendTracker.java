@@ -0,0 +1,218 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Metrics;
+import ai.teamcollab.server.repository.CompanyMonthlySpendRepository;
+import ai.teamcollab.server.repository.MetricsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.math.BigDecimal.ZERO;
+import static java.util.Objects.isNull;
+
+/**
+ * Keeps the LLM spend of each company per month in memory, so the monthly spending limit can be checked without
+ * loading the month's metrics. The cost of a {@link Metrics} row is added once its transaction commits, and the
+ * amounts added since the last flush are written to {@code company_monthly_spend} as deltas, so the totals stay correct
+ * when several nodes update them. Each flush also reads back the totals to pick up the other nodes' spend.
+ * <p>
+ * Only the metrics of a message count towards the spend, like the limit check always did. A nightly job recomputes the
+ * totals of the current and previous month from the metrics to correct any drift, for example from a node that
+ * stopped before flushing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompanySpendTracker {
+    private final CompanyMonthlySpendRepository spendRepository;
+    private final MetricsRepository metricsRepository;
+
+    private final ConcurrentMap<Key, Spend> spends = new ConcurrentHashMap<>();
+
+    record Key(Long companyId, YearMonth month) {
+    }
+
+    /**
+     * Returns the spend of a company for the current month. Only the first call for a company and month reads the
+     * database.
+     *
+     * @param companyId the ID of the company
+     * @return the spend of the company for the current month
+     */
+    public BigDecimal getCurrentMonthSpend(@NonNull Long companyId) {
+        return spend(new Key(companyId, YearMonth.now())).total();
+    }
+
+    /**
+     * Adds the cost of a saved metrics row to its company's spend, after the current transaction commits if there is
+     * one.
+     *
+     * @param metrics the metrics that were saved
+     */
+    public void record(@NonNull Metrics metrics) {
+        final var message = metrics.getMessage();
+        if (isNull(message) || isNull(message.getUser()) || isNull(message.getUser().getCompany())) {
+            return;
+        }
+
+        final var cost = metrics.getCost();
+        if (cost.signum() == 0) {
+            return;
+        }
+
+        final var createdAt = isNull(message.getCreatedAt()) ? LocalDateTime.now() : message.getCreatedAt();
+        final var key = new Key(message.getUser().getCompany().getId(), YearMonth.from(createdAt));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    spend(key).add(cost);
+                }
+            });
+        } else {
+            spend(key).add(cost);
+        }
+    }
+
+    /**
+     * Writes the spend recorded since the last flush to the database and reads back the totals.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${teamcollab.spend.flush-interval:30s}")
+    public void flush() {
+        final var now = LocalDateTime.now();
+        spends.forEach((key, spend) -> {
+            final var amount = spend.beginFlush();
+            try {
+                if (amount.signum() != 0) {
+                    spendRepository.addToTotalCost(key.companyId(), key.month().atDay(1), amount, now);
+                }
+                spend.endFlush(spendRepository.findTotalCost(key.companyId(), key.month().atDay(1)).orElse(ZERO));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush the spend of company {} for {}: {}", key.companyId(), key.month(), e.getMessage());
+                spend.failFlush();
+            }
+        });
+
+        // Messages are stamped when they are created, so months before the previous one no longer change
+        final var oldest = YearMonth.now().minusMonths(1);
+        spends.entrySet().removeIf(entry -> entry.getKey().month().isBefore(oldest) && entry.getValue().isIdle());
+    }
+
+    /**
+     * Recomputes the spend of the current and previous month from the metrics. A cost recorded while this runs can be
+     * counted twice until the next reconciliation, which errs on the side of enforcing the limit.
+     */
+    @Scheduled(cron = "${teamcollab.spend.reconcile-cron:0 30 2 * * *}")
+    public void reconcile() {
+        flush();
+        final var now = YearMonth.now();
+        reconcile(now.minusMonths(1));
+        reconcile(now);
+    }
+
+    private void reconcile(YearMonth month) {
+        final var start = LocalDateTime.now();
+        final var spendMonth = month.atDay(1);
+        final var costs = metricsRepository.sumCostByCompany(spendMonth.atStartOfDay(),
+                month.plusMonths(1).atDay(1).atStartOfDay());
+
+        final var reconciled = new HashSet<Long>();
+        for (final var cost : costs) {
+            spendRepository.setTotalCost(cost.getCompanyId(), spendMonth, cost.getTotalCost(), start);
+            reconcile(new Key(cost.getCompanyId(), month), cost.getTotalCost());
+            reconciled.add(cost.getCompanyId());
+        }
+
+        // Companies without metrics that month have spent nothing
+        spendRepository.resetTotalCostNotUpdatedSince(spendMonth, start);
+        spends.keySet().stream()
+                .filter(key -> key.month().equals(month) && !reconciled.contains(key.companyId()))
+                .forEach(key -> reconcile(key, ZERO));
+
+        log.info("Reconciled the spend of {} companies for {}", costs.size(), month);
+    }
+
+    private void reconcile(Key key, BigDecimal total) {
+        final var spend = spends.get(key);
+        if (spend == null) {
+            return;
+        }
+        final var previous = spend.reconcile(total);
+        if (previous.compareTo(total) != 0) {
+            log.warn("Corrected the spend of company {} for {} from {} to {}", key.companyId(), key.month(), previous, total);
+        }
+    }
+
+    private Spend spend(Key key) {
+        final var existing = spends.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Loaded outside the map so a slow query does not block the other companies
+        final var loaded = new Spend(spendRepository.findTotalCost(key.companyId(), key.month().atDay(1)).orElse(ZERO));
+        final var previous = spends.putIfAbsent(key, loaded);
+        return previous == null ? loaded : previous;
+    }
+
+    /**
+     * The spend of a company for a month: the last total read from the database, the amount being flushed and the
+     * amount recorded since.
+     */
+    private static final class Spend {
+        private BigDecimal persisted;
+        private BigDecimal flushing = ZERO;
+        private BigDecimal pending = ZERO;
+
+        Spend(BigDecimal persisted) {
+            this.persisted = persisted;
+        }
+
+        synchronized BigDecimal total() {
+            return persisted.add(flushing).add(pending);
+        }
+
+        synchronized void add(BigDecimal cost) {
+            pending = pending.add(cost);
+        }
+
+        synchronized BigDecimal beginFlush() {
+            flushing = pending;
+            pending = ZERO;
+            return flushing;
+        }
+
+        synchronized void endFlush(BigDecimal total) {
+            persisted = total;
+            flushing = ZERO;
+        }
+
+        synchronized void failFlush() {
+            pending = pending.add(flushing);
+            flushing = ZERO;
+        }
+
+        synchronized BigDecimal reconcile(BigDecimal total) {
+            final var previous = persisted;
+            persisted = total;
+            return previous;
+        }
+
+        synchronized boolean isIdle() {
+            return flushing.signum() == 0 && pending.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AsyncProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many assistant replies are generated at the same time for each conversation. A semaphore only exists while
+ * the conversation has replies running or waiting, so idle conversations do not hold memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConversationConcurrencyLimiter {
+    private final AsyncProperties asyncProperties;
+    private final Map<Long, Permits> permits = new ConcurrentHashMap<>();
+
+    /**
+     * A conversation's semaphore and the number of tasks using it.
+     */
+    private record Permits(Semaphore semaphore, AtomicInteger users) {
+    }
+
+    /**
+     * Runs a task while holding one of the conversation's permits, waiting for a permit if the conversation is at its
+     * limit.
+     *
+     * @param conversationId the conversation the task is run for
+     * @param task           the task to run
+     * @param <T>            the type of the task result
+     * @return the task result
+     */
+    public <T> T call(Long conversationId, Supplier<T> task) {
+        final var conversationPermits = permits.compute(conversationId, (id, current) -> {
+            final var result = current != null
+                    ? current
+                    : new Permits(new Semaphore(asyncProperties.getMaxConcurrentRepliesPerConversation(), true),
+                    new AtomicInteger());
+            result.users().incrementAndGet();
+            return result;
+        });
+
+        try {
+            conversationPermits.semaphore().acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                conversationPermits.semaphore().release();
+            }
+        } finally {
+            permits.computeIfPresent(conversationId,
+                    (id, current) -> current.users().decrementAndGet() == 0 ? null : current);
+        }
+    }
+}
@@ -1,29 +1,47 @@
 package ai.teamcollab.server.service.impl;
 
+import ai.teamcollab.server.config.ChatStreamingProperties;
+import ai.teamcollab.server.domain.Assistant;
 import ai.teamcollab.server.domain.Company;
 import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.ConversationAssistant;
 import ai.teamcollab.server.domain.Message;
 import ai.teamcollab.server.domain.Metrics;
 import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.exception.ConcurrencyLimitExceededException;
 import ai.teamcollab.server.exception.MonthlyLimitExceededException;
-import ai.teamcollab.server.repository.MessageRepository;
-import ai.teamcollab.server.repository.MetricCacheRepository;
-import ai.teamcollab.server.repository.MetricsRepository;
 import ai.teamcollab.server.service.domain.ChatContext;
 import ai.teamcollab.server.service.domain.MessageResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.YearMonth;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.time.Instant.now;
+import static java.util.Objects.nonNull;
 
 /**
  * Responsible for processing chat messages.
@@ -32,23 +50,82 @@ import static java.time.Instant.now;
 @Component
 @RequiredArgsConstructor
 public class MessageProcessor {
+    /**
+     * Asks for the usage in the final streamed response; merged over the model's default options.
+     */
+    private static final OpenAiChatOptions STREAM_OPTIONS = OpenAiChatOptions.builder().streamUsage(true).build();
+
     private final AssistantInteractionDecider assistantInteractionDecider;
-    private final MessageRepository messageRepository;
     private final AiModelFactory aiModelFactory;
     private final PromptBuilder promptBuilder;
-    private final MetricsRepository metricsRepository;
-    private final MetricCacheRepository metricCacheRepository;
+    private final CompanySpendTracker companySpendTracker;
+    private final MetricCacheAccumulator metricCacheAccumulator;
+    private final ChatStreamingProperties streamingProperties;
+    private final CompanyConcurrencyLimiter concurrencyLimiter;
+    private final ConversationConcurrencyLimiter conversationLimiter;
+    @Qualifier("applicationTaskExecutor")
+    private final Executor taskExecutor;
 
     /**
-     * Processes a message and returns a response.
+     * Reply text and token usage returned by a single model invocation.
      *
-     * @param conversation the conversation
-     * @param recent       the recent message to process
-     * @param chatContext  the chat context
-     * @return a CompletableFuture containing the message response
+     * @param firstTokenAt when the first token arrived, or null when the reply was not streamed
+     */
+    private record ModelReply(String text, int promptTokens, int completionTokens, Instant firstTokenAt) {
+    }
+
+    /**
+     * Processes a message and generates one reply per assistant chosen to respond. The replies are generated
+     * concurrently and each one is handed to the listener as soon as it is complete. A reply that fails is handed to
+     * the failure listener without failing the other replies.
+     *
+     * @param conversation    the conversation
+     * @param recent          the recent message to process
+     * @param chatContext     the chat context
+     * @param replyListener   receives each reply as soon as it is complete
+     * @param failureListener receives the assistant and the error of each reply that could not be generated or handed
+     *                        to the reply listener
+     * @return a CompletableFuture containing every successful reply, completed once the last one is done
+     */
+    public CompletableFuture<List<MessageResponse>> process(@NonNull Conversation conversation, @NonNull Message recent,
+                                                            @NonNull ChatContext chatContext,
+                                                            @NonNull Consumer<MessageResponse> replyListener,
+                                                            @NonNull BiConsumer<Assistant, Throwable> failureListener) {
+        return process(conversation, recent, chatContext, assistant -> MessageProcessor::call, replyListener,
+                failureListener);
+    }
+
+    /**
+     * Processes a message and streams each assistant's reply while it is generated. Tokens are coalesced into small
+     * chunks before being handed to the listener; each reply and its metrics are handed to the reply listener once
+     * that reply is complete. A reply that fails, possibly after some of its chunks were sent, is handed to the failure
+     * listener without failing the other replies.
+     *
+     * @param conversation    the conversation
+     * @param recent          the recent message to process
+     * @param chatContext     the chat context
+     * @param chunkListener   receives each chunk of a reply, with the assistant generating it, as it arrives
+     * @param replyListener   receives each reply as soon as it is complete
+     * @param failureListener receives the assistant and the error of each reply that could not be generated or handed
+     *                        to the reply listener
+     * @return a CompletableFuture containing every successful reply, completed once the last one is done
      */
-    public CompletableFuture<Optional<MessageResponse>> process(@NonNull Conversation conversation, @NonNull Message recent,
-                                                                @NonNull ChatContext chatContext) {
+    public CompletableFuture<List<MessageResponse>> stream(@NonNull Conversation conversation, @NonNull Message recent,
+                                                           @NonNull ChatContext chatContext,
+                                                           @NonNull BiConsumer<Assistant, String> chunkListener,
+                                                           @NonNull Consumer<MessageResponse> replyListener,
+                                                           @NonNull BiConsumer<Assistant, Throwable> failureListener) {
+        return process(conversation, recent, chatContext,
+                assistant -> (chatModel, prompt) -> stream(chatModel, prompt,
+                        chunk -> chunkListener.accept(assistant, chunk)),
+                replyListener, failureListener);
+    }
+
+    private CompletableFuture<List<MessageResponse>> process(Conversation conversation, Message recent,
+                                                             ChatContext chatContext,
+                                                             Function<Assistant, BiFunction<ChatModel, Prompt, ModelReply>> invokers,
+                                                             Consumer<MessageResponse> replyListener,
+                                                             BiConsumer<Assistant, Throwable> failureListener) {
 
         log.debug("Asynchronously processing message for conversation: {}, message: {}", conversation.getId(), recent.getId());
         log.debug("Using chat context - Purpose: {}, Project Overview: {}, History Size: {}",
@@ -61,65 +138,197 @@ public class MessageProcessor {
                 .map(User::getCompany)
                 .orElseThrow();
 
-        // Check if the company has exceeded its monthly spending limit
-        checkMonthlySpendingLimit(company);
+        // Muted assistants neither take part in routing nor reply
+        final var active = conversation.getConversationAssistants().stream()
+                .filter(conversationAssistant -> !conversationAssistant.isMuted())
+                .toList();
+        final var activeAssistants = active.stream()
+                .map(ConversationAssistant::getAssistant)
+                .toList();
+        if (activeAssistants.isEmpty()) {
+            log.debug("No active assistants in conversation {}, nothing to reply", conversation.getId());
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        // The spending check, the routing decision and the prompts do not depend on each other, so they run at the
+        // same time and the replies start as soon as the spending check and routing have both succeeded
+        final var spendingCheck = CompletableFuture.runAsync(() -> checkMonthlySpendingLimit(company), taskExecutor);
+        final var routing = CompletableFuture.supplyAsync(() -> assistantInteractionDecider.decideAssistantsToRespond(
+                conversation, recent, activeAssistants), taskExecutor);
+        final var promptBuild = CompletableFuture.supplyAsync(() -> buildPrompts(active, chatContext, recent),
+                taskExecutor);
+
+        return spendingCheck
+                .thenCombine(routing, (ignored, ids) -> ids)
+                .thenCompose(ids -> {
+                    final var assistants = activeAssistants.stream()
+                            .filter(assistant -> ids.contains(assistant.getId()))
+                            .toList();
+                    if (assistants.isEmpty()) {
+                        return CompletableFuture.completedFuture(List.<MessageResponse>of());
+                    }
+
+                    // One reply per assistant, generated concurrently within the conversation's limit. A failed
+                    // reply is reported on its own, so the others are still delivered
+                    final var replies = assistants.stream()
+                            .map(assistant -> promptBuild
+                                    .thenApplyAsync(prompts -> conversationLimiter.call(conversation.getId(),
+                                            () -> reply(conversation, assistant, company, prompts.get(assistant.getId()),
+                                                    start, invokers.apply(assistant))), taskExecutor)
+                                    .thenApply(response -> {
+                                        replyListener.accept(response);
+                                        return Optional.of(response);
+                                    })
+                                    .exceptionally(failure -> {
+                                        final var cause = failure instanceof CompletionException && nonNull(failure.getCause())
+                                                ? failure.getCause()
+                                                : failure;
+                                        log.warn("Assistant {} failed to reply in conversation {}: {}",
+                                                assistant.getId(), conversation.getId(), cause.getMessage());
+                                        failureListener.accept(assistant, cause);
+                                        return Optional.<MessageResponse>empty();
+                                    }))
+                            .toList();
+
+                    return CompletableFuture.allOf(replies.toArray(new CompletableFuture[0]))
+                            .thenApply(ignored -> replies.stream()
+                                    .map(CompletableFuture::join)
+                                    .flatMap(Optional::stream)
+                                    .toList());
+                });
+    }
+
+    /**
+     * Builds the reply prompt of every active assistant in the conversation, each with its own persona and tone.
+     *
+     * @param active      the conversation's assistants that are not muted
+     * @param chatContext the chat context
+     * @param recent      the message being answered
+     * @return the prompts keyed by assistant ID
+     */
+    private Map<Long, Prompt> buildPrompts(List<ConversationAssistant> active, ChatContext chatContext,
+                                           Message recent) {
+        return active.stream()
+                .collect(Collectors.toMap(
+                        conversationAssistant -> conversationAssistant.getAssistant().getId(),
+                        conversationAssistant -> promptBuilder.buildAssistantMessagePrompt(chatContext, recent,
+                                conversationAssistant.getAssistant(), conversationAssistant.getTone())));
+    }
 
-        final var ids = assistantInteractionDecider.decideAssistantsToRespond(conversation, recent, conversation.getAssistants());
-        if (ids.isEmpty()) {
-            return CompletableFuture.completedFuture(Optional.empty());
+    /**
+     * Generates one assistant's reply and records its metrics.
+     *
+     * @param conversation the conversation
+     * @param assistant    the assistant that replies
+     * @param company      the company the call is made for
+     * @param prompt       the assistant's prompt
+     * @param start        when processing of the message started
+     * @param invoker      calls the model and collects the reply
+     * @return the message response
+     */
+    private MessageResponse reply(Conversation conversation, Assistant assistant, Company company, Prompt prompt,
+                                  Instant start, BiFunction<ChatModel, Prompt, ModelReply> invoker) {
+        try {
+            log.debug("Sending prompt for assistant {} to OpenAI: {}", assistant.getName(), prompt);
+
+            // Get the AI model
+            final var chatModel = aiModelFactory.createModel(conversation);
+            final var llmModel = aiModelFactory.getActiveLlmModel(conversation);
+
+            // Call the AI model, holding one of the company's permits
+            final var reply = concurrencyLimiter.call(company, () -> invoker.apply(chatModel, prompt));
+            final var response = reply.text();
+
+            final var end = now();
+            final var duration = Duration.between(start, end).toMillis();
+            final var timeToFirstToken = Optional.ofNullable(reply.firstTokenAt())
+                    .map(firstTokenAt -> Duration.between(start, firstTokenAt).toMillis())
+                    .orElse(null);
+
+            // The metrics are saved with the reply message, which links them to the assistant
+            final var metrics = Metrics.builder()
+                    .duration(duration)
+                    .timeToFirstToken(timeToFirstToken)
+                    .inputTokens(reply.promptTokens())
+                    .outputTokens(reply.completionTokens())
+                    .llmModel(llmModel)
+                    .additionalInfo("Reply from " + assistant.getName())
+                    .build();
+
+            // Update the metric cache for this conversation, provider, and model
+            metricCacheAccumulator.add(conversation, metrics);
+
+            log.debug("Received response for assistant {} from OpenAI: {}", assistant.getName(), response);
+
+            return MessageResponse.builder()
+                    .assistant(assistant)
+                    .content(response)
+                    .metrics(metrics)
+                    .build();
+
+        } catch (ConcurrencyLimitExceededException e) {
+            log.warn("Concurrency limit reached while processing message: {}", e.getMessage());
+            throw e;
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid argument while processing message: {}", e.getMessage(), e);
+            throw new IllegalArgumentException("Invalid input for message processing", e);
+        } catch (Exception e) {
+            log.error("Error processing message: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to process message: " + e.getMessage(), e);
         }
+    }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Build the prompt
-                final var prompt = promptBuilder.buildMessagePrompt(chatContext, recent);
-                log.debug("Sending prompt to OpenAI: {}", prompt);
-
-                // Get the AI model
-                final var chatModel = aiModelFactory.createModel(conversation);
-                final var llmModel = aiModelFactory.getActiveLlmModel(conversation);
-
-                // Call the AI model
-                final var aiResponse = chatModel.call(prompt);
-                final var assistantMessage = aiResponse.getResult().getOutput();
-                final var response = assistantMessage.getText();
-
-                final var end = now();
-                final var duration = Duration.between(start, end).toMillis();
-
-                final var metadata = aiResponse.getMetadata();
-                final var usage = metadata.getUsage();
-
-                final var metrics = Metrics.builder()
-                        .duration(duration)
-                        .inputTokens(usage.getPromptTokens())
-                        .outputTokens(usage.getCompletionTokens())
-                        .llmModel(llmModel)
-                        .build();
-
-                recent.addMetrics(metrics);
-                messageRepository.save(recent);
-
-                // Update the metric cache for this conversation, provider, and model
-                metricCacheRepository.updateMetricCache(conversation, metrics);
-
-                log.debug("Received response from OpenAI: {}", response);
-
-                return Optional.of(MessageResponse.builder()
-                        .content(response)
-                        .metrics(metrics)
-                        .build());
-
-            } catch (IllegalArgumentException e) {
-                log.error("Invalid argument while processing message: {}", e.getMessage(), e);
-                throw new IllegalArgumentException("Invalid input for message processing", e);
-            } catch (Exception e) {
-                log.error("Error processing message: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to process message: " + e.getMessage(), e);
-            }
-        });
+    /**
+     * Calls the AI model and waits for the complete reply.
+     *
+     * @param chatModel the AI model to call
+     * @param prompt    the prompt to send
+     * @return the reply and its token usage
+     */
+    private static ModelReply call(ChatModel chatModel, Prompt prompt) {
+        final var aiResponse = chatModel.call(prompt);
+        final var usage = aiResponse.getMetadata().getUsage();
+        return new ModelReply(aiResponse.getResult().getOutput().getText(),
+                usage.getPromptTokens(), usage.getCompletionTokens(), null);
     }
 
+    /**
+     * Streams the reply from the AI model, handing coalesced chunks to the listener as they arrive. The usage is taken
+     * from the last response that reports it, which for OpenAI is the final, content-less response that is only sent
+     * when the request asks for it.
+     *
+     * @param chatModel     the AI model to call
+     * @param prompt        the prompt to send
+     * @param chunkListener receives each chunk of the reply
+     * @return the complete reply and its token usage
+     */
+    private ModelReply stream(ChatModel chatModel, Prompt prompt, Consumer<String> chunkListener) {
+        final var text = new StringBuilder();
+        final var usage = new AtomicReference<Usage>();
+        final var firstTokenAt = new AtomicReference<Instant>();
+
+        chatModel.stream(new Prompt(prompt.getInstructions(), STREAM_OPTIONS))
+                .doOnNext(response -> Optional.ofNullable(response.getMetadata().getUsage())
+                        .filter(current -> nonNull(current.getTotalTokens()) && current.getTotalTokens() > 0)
+                        .ifPresent(usage::set))
+                .mapNotNull(response -> Optional.ofNullable(response.getResult())
+                        .map(Generation::getOutput)
+                        .map(AssistantMessage::getText)
+                        .filter(token -> !token.isEmpty())
+                        .orElse(null))
+                .doOnNext(token -> {
+                    firstTokenAt.compareAndSet(null, now());
+                    text.append(token);
+                })
+                .bufferTimeout(streamingProperties.getMaxTokensPerChunk(), streamingProperties.getFlushInterval())
+                .map(tokens -> String.join("", tokens))
+                .doOnNext(chunkListener)
+                .blockLast();
+
+        final var promptTokens = Optional.ofNullable(usage.get()).map(Usage::getPromptTokens).orElse(0);
+        final var completionTokens = Optional.ofNullable(usage.get()).map(Usage::getCompletionTokens).orElse(0);
+        return new ModelReply(text.toString(), promptTokens, completionTokens, firstTokenAt.get());
+    }
 
     /**
      * Checks if a company has exceeded its monthly spending limit.
@@ -164,27 +373,6 @@ public class MessageProcessor {
             return BigDecimal.ZERO;
         }
 
-        // Get the start and end dates for the current month
-        final var now = LocalDateTime.now();
-        final var currentMonth = YearMonth.from(now);
-        final var startDate = currentMonth.atDay(1).atStartOfDay();
-        final var endDate = currentMonth.atEndOfMonth().atTime(23, 59, 59);
-
-        // Get all metrics for the company for the current month
-        final var metrics = metricsRepository.findByCompanyAndDateRange(company.getId(), startDate, endDate);
-
-        // Calculate the total spending
-        return metrics.stream()
-                .map(Metrics::getCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return companySpendTracker.getCurrentMonthSpend(company.getId());
     }
-
-    /**
-     * Updates the metric cache for a conversation and LLM model. If a cache entry doesn't exist for the given
-     * combination, a new one is created.
-     *
-     * @param conversation the conversation
-     * @param metrics      the metrics to add to the cache
-     */
-
 }
@@ -0,0 +1,76 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.Metrics;
+import ai.teamcollab.server.repository.MetricCacheRepository;
+import ai.teamcollab.server.service.domain.MetricCacheDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Write-behind buffer for the metric cache. A user message updates the same entry up to three times, for the routing
+ * decision, the reply and the summary, so the calls only merge their metrics in memory and the merged deltas are
+ * written in one statement every flush interval and on shutdown. The map locks per key, so calls for different
+ * conversations do not wait on each other.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricCacheAccumulator {
+    private final MetricCacheRepository metricCacheRepository;
+
+    private final ConcurrentMap<Key, MetricCacheDelta> deltas = new ConcurrentHashMap<>();
+
+    record Key(Long conversationId, Long llmModelId) {
+    }
+
+    /**
+     * Adds the metrics of an LLM call to the metric cache entry of its conversation and model.
+     *
+     * @param conversation the conversation
+     * @param metrics      the metrics to add
+     */
+    public void add(Conversation conversation, Metrics metrics) {
+        if (conversation == null || metrics == null || metrics.getLlmModel() == null) {
+            return;
+        }
+
+        final var delta = new MetricCacheDelta(conversation.getId(), metrics.getLlmModel().getId(),
+                metrics.getDuration(), 1, metrics.getInputTokens(), metrics.getOutputTokens());
+        deltas.merge(new Key(delta.conversationId(), delta.llmModelId()), delta, MetricCacheDelta::plus);
+    }
+
+    /**
+     * Writes the deltas merged since the last flush. Deltas that fail to be written are merged back for the next one.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${teamcollab.metrics.cache.flush-interval:500ms}")
+    public void flush() {
+        final var batch = new ArrayList<MetricCacheDelta>();
+        for (final var key : deltas.keySet()) {
+            final var delta = deltas.remove(key);
+            if (delta != null) {
+                batch.add(delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            final var updated = metricCacheRepository.addDeltas(batch);
+            log.debug("Flushed {} metric cache deltas, {} entries updated", batch.size(), updated);
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} metric cache deltas: {}", batch.size(), e.getMessage());
+            batch.forEach(delta -> deltas.merge(new Key(delta.conversationId(), delta.llmModelId()), delta,
+                    MetricCacheDelta::plus));
+        }
+    }
+}
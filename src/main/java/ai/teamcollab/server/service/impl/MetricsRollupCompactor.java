@@ -0,0 +1,69 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.MetricsRollupProperties;
+import ai.teamcollab.server.domain.RollupGranularity;
+import ai.teamcollab.server.repository.MetricsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Folds new {@code metrics} rows into the hourly and daily rollups. The rows after the high-water mark are added to the
+ * rollups in batches, each in one transaction with the move of the mark, so a row is never counted twice. The mark is
+ * locked while a batch runs, so several nodes can run the compactor.
+ * <p>
+ * Metric IDs are assigned before the rows are committed, so a row younger than the settle delay may still be followed
+ * by a lower ID that is not visible yet. Those rows are left for a later run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(MetricsRollupProperties.class)
+public class MetricsRollupCompactor {
+    private final MetricsRollupRepository rollupRepository;
+    private final MetricsRollupProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Folds every settled row after the high-water mark, one batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${teamcollab.metrics.rollup.interval:30s}")
+    public void compact() {
+        var folded = 0L;
+        Long batch;
+        do {
+            batch = transactionTemplate.execute(status -> compactBatch());
+            folded += batch == null ? 0 : batch;
+        } while (batch != null);
+
+        if (folded > 0) {
+            log.debug("Folded {} metrics IDs into the rollups", folded);
+        }
+    }
+
+    /**
+     * Folds up to one batch of rows. Must run in a transaction.
+     *
+     * @return the number of IDs the high-water mark moved by, or {@code null} if there was nothing to fold
+     */
+    private Long compactBatch() {
+        final var from = rollupRepository.lockHighWaterMark();
+        final var now = LocalDateTime.now();
+        final var to = rollupRepository.findBatchEnd(from, properties.getBatchSize(),
+                now.minus(properties.getSettleDelay()));
+        if (to == null) {
+            return null;
+        }
+
+        for (final var granularity : RollupGranularity.values()) {
+            rollupRepository.addMetrics(granularity.name(), from, to);
+        }
+        rollupRepository.updateHighWaterMark(to, now);
+        return to - from;
+    }
+}
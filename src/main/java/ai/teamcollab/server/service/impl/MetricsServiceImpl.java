@@ -1,23 +1,32 @@
 package ai.teamcollab.server.service.impl;
 
-import ai.teamcollab.server.domain.LlmModel;
-import ai.teamcollab.server.domain.MetricCache;
+import ai.teamcollab.server.config.BoundedCache;
 import ai.teamcollab.server.domain.Metrics;
-import ai.teamcollab.server.repository.MetricCacheRepository;
+import ai.teamcollab.server.domain.RollupGranularity;
 import ai.teamcollab.server.repository.MetricsRepository;
+import ai.teamcollab.server.repository.MetricsRollupRepository;
 import ai.teamcollab.server.service.MetricsService;
+import ai.teamcollab.server.service.domain.CacheStatistics;
+import ai.teamcollab.server.service.domain.KeysetPage;
+import ai.teamcollab.server.service.domain.ModelUsage;
+import ai.teamcollab.server.service.domain.PageCursor;
+import ai.teamcollab.server.service.domain.RoutingStatistics;
+import ai.teamcollab.server.service.domain.WebSocketStatistics;
+import ai.teamcollab.server.ws.OutboundQueueMonitor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
@@ -25,64 +34,66 @@ import java.util.Map;
 public class MetricsServiceImpl implements MetricsService {
 
     private final MetricsRepository metricsRepository;
-    private final MetricCacheRepository metricCacheRepository;
+    private final MetricsRollupRepository metricsRollupRepository;
+    private final AssistantRouter assistantRouter;
+    private final RoutingDecisionCache routingDecisionCache;
+    private final CacheManager cacheManager;
+    private final OutboundQueueMonitor outboundQueueMonitor;
 
     @Override
     @Transactional(readOnly = true)
     public List<Metrics> getTopMetrics() {
         log.debug("Fetching top 10 metrics");
-        return metricsRepository.findTop10ByOrderByDurationDesc();
+        return metricsRepository.findTop10ByOrderByDurationDescIdDesc();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Metrics> getMetricsPaginated(Pageable pageable) {
-        log.debug("Fetching paginated metrics with pageable: {}", pageable);
-        return metricsRepository.findAllCreatedAtDesc(pageable);
+    public KeysetPage<Metrics> getMetricsPage(PageCursor before, PageCursor after, int size) {
+        log.debug("Fetching metrics page before {} after {} of size {}", before, after, size);
+
+        // One extra row tells whether there is another page in the direction of travel
+        final var limit = Limit.of(size + 1);
+        if (after != null) {
+            final var rows = metricsRepository.findNewerThan(after.timestamp(), after.id(), limit);
+            return KeysetPage.fromOldestFirst(rows, size, MetricsServiceImpl::cursorOf);
+        }
+        final var rows = before != null
+                ? metricsRepository.findOlderThan(before.timestamp(), before.id(), limit)
+                : metricsRepository.findLatest(limit);
+        return KeysetPage.fromNewestFirst(rows, size, before != null, MetricsServiceImpl::cursorOf);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getMetricsStatistics() {
-        log.debug("Calculating metrics statistics using MetricCache");
+        log.debug("Calculating metrics statistics using the daily rollups");
 
-        List<MetricCache> allMetricCaches = metricCacheRepository.findAll();
-        Map<String, Object> statistics = new HashMap<>();
+        // One row per model, summed by the database
+        final var usages = metricsRollupRepository.summarizeByModel(RollupGranularity.DAY);
+        final var statistics = new HashMap<String, Object>();
 
-        if (allMetricCaches.isEmpty()) {
+        if (usages.isEmpty()) {
             return statistics;
         }
 
-        // Calculate average duration
-        double avgDuration = allMetricCaches.stream()
-                .mapToLong(MetricCache::getTotalDuration)
-                .sum() / (double) allMetricCaches.stream()
-                .mapToInt(MetricCache::getMessageCount)
-                .sum();
-
-        // Calculate total tokens
-        int totalInputTokens = allMetricCaches.stream()
-                .mapToInt(MetricCache::getTotalInputTokens)
-                .sum();
-
-        int totalOutputTokens = allMetricCaches.stream()
-                .mapToInt(MetricCache::getTotalOutputTokens)
-                .sum();
-
-        // Find most used model
-        final var mostUsedModel = allMetricCaches.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        MetricCache::getLlmModel,
-                        java.util.stream.Collectors.summingInt(MetricCache::getMessageCount)
-                ))
-                .entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .map(LlmModel::getLabel)
+        long totalDuration = 0;
+        long messageCount = 0;
+        long totalInputTokens = 0;
+        long totalOutputTokens = 0;
+        for (final var usage : usages) {
+            totalDuration += usage.totalDuration();
+            messageCount += usage.messageCount();
+            totalInputTokens += usage.inputTokens();
+            totalOutputTokens += usage.outputTokens();
+        }
+
+        final var mostUsedModel = usages.stream()
+                .max(Comparator.comparingLong(ModelUsage::messageCount))
+                .map(ModelUsage::label)
                 .orElse("N/A");
 
-        statistics.put("averageDuration", avgDuration);
+        statistics.put("averageDuration", messageCount == 0 ? 0.0 : totalDuration / (double) messageCount);
         statistics.put("totalInputTokens", totalInputTokens);
         statistics.put("totalOutputTokens", totalOutputTokens);
         statistics.put("mostUsedModel", mostUsedModel);
@@ -90,26 +101,25 @@ public class MetricsServiceImpl implements MetricsService {
         return statistics;
     }
 
+    @Override
+    public WebSocketStatistics getWebSocketStatistics() {
+        return outboundQueueMonitor.getStatistics();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Map<String, BigDecimal> getCompanyCosts(Long companyId) {
         log.debug("Calculating company costs for company ID: {}", companyId);
 
-        Map<String, BigDecimal> costs = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        // Calculate daily costs (last 24 hours)
-        LocalDateTime dayStart = now.minusHours(24);
-        costs.put("daily", getCompanyCostsByDateRange(companyId, dayStart, now));
-
-        // Calculate weekly costs (last 7 days)
-        LocalDateTime weekStart = now.minusDays(7);
-        costs.put("weekly", getCompanyCostsByDateRange(companyId, weekStart, now));
-
-        // Calculate monthly costs (last 30 days)
-        LocalDateTime monthStart = now.minusDays(30);
-        costs.put("monthly", getCompanyCostsByDateRange(companyId, monthStart, now));
+        // Last 24 hours, 7 days and 30 days, summed from the hourly rollups in a single query
+        final var now = LocalDateTime.now();
+        final var windows = metricsRollupRepository.sumCompanyCostWindows(companyId,
+                now.minusHours(24), now.minusDays(7), now.minusDays(30), now);
 
+        final var costs = new HashMap<String, BigDecimal>();
+        costs.put("daily", windows.getDaily());
+        costs.put("weekly", windows.getWeekly());
+        costs.put("monthly", windows.getMonthly());
         return costs;
     }
 
@@ -118,14 +128,33 @@ public class MetricsServiceImpl implements MetricsService {
     public BigDecimal getCompanyCostsByDateRange(Long companyId, LocalDateTime startDate, LocalDateTime endDate) {
         log.debug("Calculating company costs for company ID: {} between {} and {}", companyId, startDate, endDate);
 
-        List<Metrics> metrics = metricsRepository.findByCompanyAndDateRange(companyId, startDate, endDate);
+        // A single window, to the hour
+        return metricsRollupRepository.sumCompanyCostWindows(companyId, startDate, startDate, startDate, endDate)
+                .getMonthly();
+    }
+
+    @Override
+    public RoutingStatistics getRoutingStatistics() {
+        return assistantRouter.getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getRoutingCacheStatistics() {
+        return routingDecisionCache.getStatistics();
+    }
+
+    @Override
+    public Map<String, CacheStatistics> getEntityCacheStatistics() {
+        final var statistics = new TreeMap<String, CacheStatistics>();
+        for (final var name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof BoundedCache cache) {
+                statistics.put(name, cache.getStatistics());
+            }
+        }
+        return statistics;
+    }
 
-        return metrics.stream()
-                .map(metric -> {
-                    final var model = metric.getLlmModel();
-                    final var cost = model.calculate(metric.getInputTokens(), metric.getOutputTokens());
-                    return cost.setScale(5, java.math.RoundingMode.HALF_UP);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private static PageCursor cursorOf(Metrics metrics) {
+        return new PageCursor(metrics.getCreatedAt(), metrics.getId());
     }
 }
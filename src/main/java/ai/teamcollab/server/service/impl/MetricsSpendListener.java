@@ -0,0 +1,44 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the cost of every saved {@link Metrics} row to its company's monthly spend. The listener registers itself with
+ * Hibernate once the entity manager factory is up, so the entity does not have to reference it.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsSpendListener implements PostInsertEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final CompanySpendTracker companySpendTracker;
+
+    @PostConstruct
+    void register() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_INSERT, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Metrics metrics) {
+            companySpendTracker.record(metrics);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -1,7 +1,10 @@
 package ai.teamcollab.server.service.impl;
 
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.AssistantTone;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.PointInTimeSummary;
 import ai.teamcollab.server.service.domain.ChatContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -11,6 +14,8 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Responsible for building prompts for different purposes.
@@ -21,18 +26,31 @@ public class PromptBuilder {
     private final MessageFormatter messageFormatter;
     
     /**
-     * Builds a prompt for processing a message.
+     * Builds a prompt for one assistant's reply to a message. The system message gives the assistant its persona from
+     * its expertise prompt and its tone in the conversation; the assistant's own earlier replies are sent as assistant
+     * messages and everyone else's messages as user messages prefixed with the sender's name.
      *
      * @param chatContext the chat context
      * @param recent the recent message to process
+     * @param assistant the assistant that replies
+     * @param tone the assistant's tone in the conversation, may be null
      * @return the built prompt
      */
-    public Prompt buildMessagePrompt(ChatContext chatContext, Message recent) {
+    public Prompt buildAssistantMessagePrompt(ChatContext chatContext, Message recent, Assistant assistant,
+                                              AssistantTone tone) {
         final var messages = new ArrayList<org.springframework.ai.chat.messages.Message>();
 
-        // Add system message with context
+        // Add system message with the persona and context
+        final var toneInstruction = Optional.ofNullable(tone)
+                .map(AssistantTone::getPrompt)
+                .map(prompt -> "\nTone: " + prompt)
+                .orElse("");
         messages.add(new SystemMessage(String.format(
-                "Conversation Purpose: %s\nProject Overview: %s",
+                "You are %s, an assistant with expertise in %s.\n%s%s\n\nConversation Purpose: %s\nProject Overview: %s",
+                assistant.getName(),
+                assistant.getExpertise(),
+                Optional.ofNullable(assistant.getExpertisePrompt()).orElse(""),
+                toneInstruction,
                 chatContext.getPurpose(),
                 chatContext.getProjectOverview()
         )));
@@ -42,18 +60,21 @@ public class PromptBuilder {
             if (historyMessage.equals(recent)) {
                 continue; // Skip the current message
             }
-            if (historyMessage.isAssistant()) {
+            if (assistant.equals(historyMessage.getAssistant())) {
                 messages.add(new AssistantMessage(historyMessage.getContent()));
             } else {
-                messages.add(new UserMessage(historyMessage.getContent()));
+                final var sender = Optional.ofNullable(historyMessage.getAssistant())
+                        .map(Assistant::getName)
+                        .orElseGet(() -> messageFormatter.getSenderName(historyMessage));
+                messages.add(new UserMessage(String.format("%s: %s", sender, historyMessage.getContent())));
             }
         }
 
         messages.add(new UserMessage(recent.getContent()));
-        
+
         return new Prompt(messages.toArray(new org.springframework.ai.chat.messages.Message[0]));
     }
-    
+
     /**
      * Builds a prompt for extracting topics from a conversation.
      *
@@ -158,4 +179,109 @@ public class PromptBuilder {
 
         return new Prompt(messages.toArray(new org.springframework.ai.chat.messages.Message[0]));
     }
+
+    /**
+     * Builds a single prompt that asks for the topics, topic summaries and assistant summaries of a conversation as
+     * one JSON object, so the conversation history is only sent once.
+     *
+     * @param conversation the conversation
+     * @param chatContext the chat context
+     * @return the built prompt
+     */
+    public Prompt buildStructuredSummaryPrompt(Conversation conversation, ChatContext chatContext) {
+        final var messages = new ArrayList<org.springframework.ai.chat.messages.Message>();
+
+        // Add system message with instructions
+        messages.add(new SystemMessage("""
+                You are an expert at analyzing and summarizing conversations. Produce three summaries of the conversation:
+
+                - topicsAndKeyPoints: the main topics and key points discussed, as a bulleted list with main topics as headers and key points as sub-bullets. Be comprehensive but concise.
+                - topicSummaries: for each topic, a concise summary that captures the information important for continuing the conversation, with topic headers and summaries as paragraphs.
+                - assistantSummaries: for each assistant, a summary of their contributions and the critical points related to their expertise, with assistant names as headers and summaries as paragraphs.
+
+                Output only a JSON object in this format, with each value a markdown string:
+
+                { "topicsAndKeyPoints": "...", "topicSummaries": "...", "assistantSummaries": "..." }
+                """
+        ));
+
+        // Add context about assistants
+        final var assistantsInfo = new StringBuilder("Assistants in this conversation:\n");
+        for (final var assistant : conversation.getAssistants()) {
+            assistantsInfo.append(String.format("- %s: %s\n", assistant.getName(), assistant.getExpertise()));
+        }
+
+        messages.add(new UserMessage(String.format(
+                "Conversation Purpose: %s\nProject Overview: %s\n\n%s\n\nPlease summarize the following conversation:",
+                chatContext.getPurpose(),
+                chatContext.getProjectOverview(),
+                assistantsInfo
+        )));
+
+        // Add conversation history
+        for (final var message : chatContext.getLastMessages()) {
+            final var sender = messageFormatter.getSenderName(message);
+            messages.add(new UserMessage(String.format("%s: %s", sender, message.getContent())));
+        }
+
+        return new Prompt(messages.toArray(new org.springframework.ai.chat.messages.Message[0]));
+    }
+
+    /**
+     * Builds a prompt that updates a previous summary with the messages added since it was generated. The reply has
+     * the same JSON format as {@link #buildStructuredSummaryPrompt(Conversation, ChatContext)}.
+     *
+     * @param conversation the conversation
+     * @param chatContext the chat context
+     * @param previous the most recent active summary
+     * @param newMessages the messages created after the previous summary's latest message, oldest first
+     * @return the built prompt
+     */
+    public Prompt buildIncrementalSummaryPrompt(Conversation conversation, ChatContext chatContext,
+                                                PointInTimeSummary previous, List<Message> newMessages) {
+        final var messages = new ArrayList<org.springframework.ai.chat.messages.Message>();
+
+        // Add system message with instructions
+        messages.add(new SystemMessage("""
+                You are an expert at analyzing and summarizing conversations. You are given the current summary of a conversation and the messages added since it was written. Update the three summaries so they cover the whole conversation:
+
+                - topicsAndKeyPoints: the main topics and key points discussed, as a bulleted list with main topics as headers and key points as sub-bullets. Be comprehensive but concise.
+                - topicSummaries: for each topic, a concise summary that captures the information important for continuing the conversation, with topic headers and summaries as paragraphs.
+                - assistantSummaries: for each assistant, a summary of their contributions and the critical points related to their expertise, with assistant names as headers and summaries as paragraphs.
+
+                Keep earlier points that are still relevant, revise points the new messages change, and add new topics. Output only a JSON object in this format, with each value a markdown string:
+
+                { "topicsAndKeyPoints": "...", "topicSummaries": "...", "assistantSummaries": "..." }
+                """
+        ));
+
+        // Add context about assistants
+        final var assistantsInfo = new StringBuilder("Assistants in this conversation:\n");
+        for (final var assistant : conversation.getAssistants()) {
+            assistantsInfo.append(String.format("- %s: %s\n", assistant.getName(), assistant.getExpertise()));
+        }
+
+        messages.add(new UserMessage(String.format(
+                "Conversation Purpose: %s\nProject Overview: %s\n\n%s",
+                chatContext.getPurpose(),
+                chatContext.getProjectOverview(),
+                assistantsInfo
+        )));
+
+        // Add the current summary
+        messages.add(new UserMessage(String.format(
+                "Current summary:\n\nTopics and key points:\n%s\n\nTopic summaries:\n%s\n\nAssistant summaries:\n%s\n\nMessages added since this summary:",
+                previous.getTopicsAndKeyPoints(),
+                previous.getTopicSummaries(),
+                previous.getAssistantSummaries()
+        )));
+
+        // Add only the new messages
+        for (final var message : newMessages) {
+            final var sender = messageFormatter.getSenderName(message);
+            messages.add(new UserMessage(String.format("%s: %s", sender, message.getContent())));
+        }
+
+        return new Prompt(messages.toArray(new org.springframework.ai.chat.messages.Message[0]));
+    }
 }
\ No newline at end of file
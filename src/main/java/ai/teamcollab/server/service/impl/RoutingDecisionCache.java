@@ -0,0 +1,129 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.RoutingCacheProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.service.domain.AssistantChangedEvent;
+import ai.teamcollab.server.service.domain.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded cache of the routing decisions made by the LLM. Users often send near-identical messages to the same
+ * assistants, and those can reuse an earlier decision instead of calling the routing model again. Entries expire after
+ * the configured TTL, Caffeine evicts the entries least likely to be used again when the cache is full, and entries that
+ * involve an assistant are dropped when that assistant changes.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RoutingCacheProperties.class)
+public class RoutingDecisionCache {
+    private final RoutingCacheProperties properties;
+    private final Cache<Key, List<Long>> entries;
+
+    /**
+     * Identifies a routing decision: the normalized message text, the IDs of the active assistants in ascending order,
+     * and a hash of their names and expertise, so a decision is not reused after an assistant changes.
+     */
+    record Key(String text, List<Long> assistantIds, int assistantsHash) {
+    }
+
+    public RoutingDecisionCache(RoutingCacheProperties properties) {
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached decision for a message sent to a set of assistants.
+     *
+     * @param content          the message text
+     * @param activeAssistants the active assistants in the conversation
+     * @return the IDs of the assistants that should respond, or empty if no live decision is cached
+     */
+    public Optional<List<Long>> get(String content, Collection<Assistant> activeAssistants) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entries.getIfPresent(key(content, activeAssistants)));
+    }
+
+    /**
+     * Caches the decision for a message sent to a set of assistants.
+     *
+     * @param content          the message text
+     * @param activeAssistants the active assistants in the conversation
+     * @param assistantIds     the IDs of the assistants that should respond
+     */
+    public void put(String content, Collection<Assistant> activeAssistants, List<Long> assistantIds) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        entries.put(key(content, activeAssistants), List.copyOf(assistantIds));
+    }
+
+    /**
+     * Removes every decision that involves an assistant.
+     *
+     * @param assistantId the ID of the assistant
+     */
+    public void invalidateAssistant(Long assistantId) {
+        entries.asMap().keySet().removeIf(key -> key.assistantIds().contains(assistantId));
+        log.debug("Invalidated routing decisions for assistant {}", assistantId);
+    }
+
+    /**
+     * Drops cached decisions when an assistant's name or expertise changes.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onAssistantChanged(AssistantChangedEvent event) {
+        invalidateAssistant(event.assistantId());
+    }
+
+    /**
+     * Returns the size, hit and eviction counters of the cache. Evictions count the decisions removed because the cache
+     * was full or they expired, not the ones invalidated on changes.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatistics getStatistics() {
+        // Runs the pending evictions first, so the size does not include entries already due to go
+        entries.cleanUp();
+        final var stats = entries.stats();
+        return new CacheStatistics(entries.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount());
+    }
+
+    static Key key(String content, Collection<Assistant> activeAssistants) {
+        final var text = Optional.ofNullable(content)
+                .orElse("")
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        final var sorted = activeAssistants.stream()
+                .sorted(Comparator.comparing(Assistant::getId))
+                .toList();
+        final var assistantIds = sorted.stream()
+                .map(Assistant::getId)
+                .toList();
+        final var assistantsHash = sorted.stream()
+                .mapToInt(assistant -> Objects.hash(assistant.getId(), assistant.getName(), assistant.getExpertise()))
+                .reduce(17, (hash, next) -> 31 * hash + next);
+        return new Key(text, assistantIds, assistantsHash);
+    }
+}
@@ -3,23 +3,31 @@ package ai.teamcollab.server.service.impl;
 import ai.teamcollab.server.domain.Conversation;
 import ai.teamcollab.server.domain.Metrics;
 import ai.teamcollab.server.domain.PointInTimeSummary;
+import ai.teamcollab.server.domain.SummaryMode;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.exception.ConcurrencyLimitExceededException;
 import ai.teamcollab.server.exception.EmptyConversationException;
 import ai.teamcollab.server.repository.MessageRepository;
-import ai.teamcollab.server.repository.MetricCacheRepository;
 import ai.teamcollab.server.repository.PointInTimeSummaryRepository;
 import ai.teamcollab.server.service.SystemSettingsService;
 import ai.teamcollab.server.service.domain.ChatContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static java.time.Instant.now;
 import static java.util.Objects.requireNonNull;
+import static org.springframework.util.StringUtils.hasText;
 
 /**
  * Responsible for generating conversation summaries.
@@ -30,17 +38,36 @@ import static java.util.Objects.requireNonNull;
 public class SummaryGenerator {
 
     /**
-     * Record to hold the response text and token usage from an AI model call.
+     * Record to hold the response text, token usage and duration of an AI model call.
      */
-    private record AiResponse(String text, int promptTokens, int completionTokens) {
+    private record AiResponse(String text, int promptTokens, int completionTokens, long duration) {
+    }
+
+    /**
+     * Record to hold the JSON reply of a structured summary call.
+     */
+    private record StructuredSummary(String topicsAndKeyPoints, String topicSummaries, String assistantSummaries) {
+    }
+
+    /**
+     * Record to hold the three summary fields along with the token usage and timing of the calls that produced them.
+     */
+    private record SummaryContent(String topicsAndKeyPoints, String topicSummaries, String assistantSummaries,
+                                  int promptTokens, int completionTokens, String timings) {
     }
 
     private final PointInTimeSummaryRepository pointInTimeSummaryRepository;
     private final MessageRepository messageRepository;
-    private final MetricCacheRepository metricCacheRepository;
+    private final MetricCacheAccumulator metricCacheAccumulator;
     private final AiModelFactory aiModelFactory;
     private final PromptBuilder promptBuilder;
     private final SystemSettingsService systemSettingsService;
+    private final ObjectMapper objectMapper;
+    private final CompanyConcurrencyLimiter concurrencyLimiter;
+    @Qualifier("applicationTaskExecutor")
+    private final Executor taskExecutor;
+    @Qualifier("summaryExecutor")
+    private final Executor summaryExecutor;
 
     /**
      * Generates a point-in-time summary for a conversation.
@@ -94,16 +121,29 @@ public class SummaryGenerator {
 
                 final var start = now();
 
-                final var topicsPrompt = promptBuilder.buildTopicsPrompt(chatContext);
-                final var topicSummariesPrompt = promptBuilder.buildTopicSummariesPrompt(chatContext);
-                final var assistantSummariesPrompt = promptBuilder.buildAssistantSummariesPrompt(conversation, chatContext);
-
                 final var chatModel = aiModelFactory.createSummaryModel();
-                final var llmModel = aiModelFactory.getActiveLlmModel(conversation);
-
-                final var topicsResponse = callAndGetResponse(chatModel, topicsPrompt);
-                final var topicSummariesResponse = callAndGetResponse(chatModel, topicSummariesPrompt);
-                final var assistantSummariesResponse = callAndGetResponse(chatModel, assistantSummariesPrompt);
+                final SummaryContent content;
+                var summaryLatestMessage = latestMessage;
+                if (currentSettings.getSummaryMode() == SummaryMode.INCREMENTAL && existingSummary.isPresent()) {
+                    // Only the messages the previous summary has not seen are sent along with it
+                    final var previous = existingSummary.get();
+                    final var newMessages = messageRepository.findMessagesAfter(
+                            conversation.getId(),
+                            previous.getLatestMessage().getId()
+                    );
+                    if (!newMessages.isEmpty()) {
+                        summaryLatestMessage = newMessages.getLast();
+                    }
+                    content = generateWithStructuredCall(chatModel, conversation, chatContext,
+                            promptBuilder.buildIncrementalSummaryPrompt(conversation, chatContext, previous, newMessages),
+                            "incremental call");
+                } else if (currentSettings.getSummaryMode() != SummaryMode.SEPARATE_CALLS) {
+                    content = generateWithStructuredCall(chatModel, conversation, chatContext,
+                            promptBuilder.buildStructuredSummaryPrompt(conversation, chatContext),
+                            "single call");
+                } else {
+                    content = generateWithSeparateCalls(chatModel, conversation, chatContext);
+                }
 
                 final var end = now();
                 final var duration = Duration.between(start, end).toMillis();
@@ -111,37 +151,33 @@ public class SummaryGenerator {
                 // Create and save the summary
                 final var summary = PointInTimeSummary.create(
                         conversation,
-                        latestMessage,
-                        topicsResponse.text(),
-                        topicSummariesResponse.text(),
-                        assistantSummariesResponse.text()
+                        summaryLatestMessage,
+                        content.topicsAndKeyPoints(),
+                        content.topicSummaries(),
+                        content.assistantSummaries()
                 );
 
-                // Calculate total tokens
-                final var totalInputTokens = topicsResponse.promptTokens() +
-                        topicSummariesResponse.promptTokens() +
-                        assistantSummariesResponse.promptTokens();
-                final var totalOutputTokens = topicsResponse.completionTokens() +
-                        topicSummariesResponse.completionTokens() +
-                        assistantSummariesResponse.completionTokens();
                 final var summaryLlmModel = currentSettings.getSummaryLlmModel();
                 // Create metrics
                 final var metrics = Metrics.builder()
                         .duration(duration)
-                        .inputTokens(totalInputTokens)
-                        .outputTokens(totalOutputTokens)
+                        .inputTokens(content.promptTokens())
+                        .outputTokens(content.completionTokens())
                         .llmModel(summaryLlmModel)
-                        .additionalInfo("Summary generation")
+                        .additionalInfo("Summary generation (" + content.timings() + ")")
                         .build();
 
                 // Associate metrics with summary
                 summary.addMetrics(metrics);
-                metricCacheRepository.updateMetricCache(conversation, metrics);
+                metricCacheAccumulator.add(conversation, metrics);
                 return pointInTimeSummaryRepository.save(summary);
 
             } catch (EmptyConversationException e) {
                 log.error("Empty conversation error while generating summary: {}", e.getMessage(), e);
                 throw e;
+            } catch (ConcurrencyLimitExceededException e) {
+                log.warn("Concurrency limit reached while generating summary: {}", e.getMessage());
+                throw e;
             } catch (IllegalArgumentException e) {
                 log.error("Invalid argument while generating summary: {}", e.getMessage(), e);
                 throw new IllegalArgumentException("Invalid input for summary generation", e);
@@ -149,7 +185,139 @@ public class SummaryGenerator {
                 log.error("Error generating summary: {}", e.getMessage(), e);
                 throw new RuntimeException("Failed to generate summary: " + e.getMessage(), e);
             }
-        });
+        }, taskExecutor);
+    }
+
+    /**
+     * Generates the summary fields with one prompt each. The prompts are independent, so they run at the same time on
+     * the summary executor.
+     *
+     * @param chatModel    the summary model
+     * @param conversation the conversation to summarize
+     * @param chatContext  the chat context
+     * @return the summary fields and the combined token usage of the three calls
+     */
+    private SummaryContent generateWithSeparateCalls(ChatModel chatModel, Conversation conversation,
+                                                     ChatContext chatContext) {
+        final var topicsPrompt = promptBuilder.buildTopicsPrompt(chatContext);
+        final var topicSummariesPrompt = promptBuilder.buildTopicSummariesPrompt(chatContext);
+        final var assistantSummariesPrompt = promptBuilder.buildAssistantSummariesPrompt(conversation, chatContext);
+
+        final var topicsFuture = callAsync(conversation, chatModel, topicsPrompt);
+        final var topicSummariesFuture = callAsync(conversation, chatModel, topicSummariesPrompt);
+        final var assistantSummariesFuture = callAsync(conversation, chatModel, assistantSummariesPrompt);
+        CompletableFuture.allOf(topicsFuture, topicSummariesFuture, assistantSummariesFuture).join();
+
+        final var topicsResponse = topicsFuture.join();
+        final var topicSummariesResponse = topicSummariesFuture.join();
+        final var assistantSummariesResponse = assistantSummariesFuture.join();
+
+        return new SummaryContent(
+                topicsResponse.text(),
+                topicSummariesResponse.text(),
+                assistantSummariesResponse.text(),
+                topicsResponse.promptTokens() + topicSummariesResponse.promptTokens()
+                        + assistantSummariesResponse.promptTokens(),
+                topicsResponse.completionTokens() + topicSummariesResponse.completionTokens()
+                        + assistantSummariesResponse.completionTokens(),
+                String.format("topics: %d ms, topic summaries: %d ms, assistant summaries: %d ms",
+                        topicsResponse.duration(),
+                        topicSummariesResponse.duration(),
+                        assistantSummariesResponse.duration())
+        );
+    }
+
+    /**
+     * Generates the summary fields with a single prompt that returns them as one JSON object. If the reply cannot be
+     * parsed, the summary is generated again with separate calls and the tokens of both attempts are counted.
+     *
+     * @param chatModel    the summary model
+     * @param conversation the conversation to summarize
+     * @param chatContext  the chat context, used by the fallback
+     * @param prompt       the structured summary prompt
+     * @param label        names the call in the recorded timings
+     * @return the summary fields and the token usage of the calls that were made
+     */
+    private SummaryContent generateWithStructuredCall(ChatModel chatModel, Conversation conversation,
+                                                      ChatContext chatContext, Prompt prompt, String label) {
+        final var response = call(conversation, chatModel, prompt);
+
+        final var parsed = parseStructuredSummary(response.text());
+        if (parsed.isPresent()) {
+            final var structured = parsed.get();
+            return new SummaryContent(
+                    structured.topicsAndKeyPoints(),
+                    structured.topicSummaries(),
+                    structured.assistantSummaries(),
+                    response.promptTokens(),
+                    response.completionTokens(),
+                    String.format("%s: %d ms", label, response.duration())
+            );
+        }
+
+        log.warn("Falling back to separate summary calls after {} for conversation {}", label, conversation.getId());
+        final var fallback = generateWithSeparateCalls(chatModel, conversation, chatContext);
+        return new SummaryContent(
+                fallback.topicsAndKeyPoints(),
+                fallback.topicSummaries(),
+                fallback.assistantSummaries(),
+                response.promptTokens() + fallback.promptTokens(),
+                response.completionTokens() + fallback.completionTokens(),
+                String.format("%s: %d ms, unparseable; %s", label, response.duration(), fallback.timings())
+        );
+    }
+
+    /**
+     * Parses the JSON reply of a structured summary call. The reply is rejected when it is not valid JSON or when any of
+     * the three fields is missing.
+     *
+     * @param text the reply text
+     * @return the parsed summary, or empty if the reply could not be used
+     */
+    private Optional<StructuredSummary> parseStructuredSummary(String text) {
+        final var start = text.indexOf('{');
+        final var end = text.lastIndexOf('}') + 1;
+        if (start < 0 || end <= start) {
+            log.warn("Structured summary reply does not contain a JSON object");
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(text.substring(start, end), StructuredSummary.class))
+                    .filter(summary -> hasText(summary.topicsAndKeyPoints())
+                            && hasText(summary.topicSummaries())
+                            && hasText(summary.assistantSummaries()));
+        } catch (JsonProcessingException e) {
+            log.warn("Error parsing structured summary reply: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Calls the AI model on the summary executor.
+     *
+     * @param conversation the conversation being summarized
+     * @param chatModel    the AI model to call
+     * @param prompt       the prompt to send
+     * @return a CompletableFuture containing the response text, token usage and duration
+     */
+    private CompletableFuture<AiResponse> callAsync(Conversation conversation, ChatModel chatModel, Prompt prompt) {
+        return CompletableFuture.supplyAsync(() -> call(conversation, chatModel, prompt), summaryExecutor);
+    }
+
+    /**
+     * Calls the AI model while holding one of the conversation's company permits.
+     *
+     * @param conversation the conversation being summarized
+     * @param chatModel    the AI model to call
+     * @param prompt       the prompt to send
+     * @return an AiResponse containing the response text, token usage and duration
+     */
+    private AiResponse call(Conversation conversation, ChatModel chatModel, Prompt prompt) {
+        final var company = Optional.ofNullable(conversation.getUser())
+                .map(User::getCompany)
+                .orElse(null);
+        return concurrencyLimiter.call(company, () -> callAndGetResponse(chatModel, prompt));
     }
 
     /**
@@ -157,9 +325,10 @@ public class SummaryGenerator {
      *
      * @param chatModel the AI model to call
      * @param prompt    the prompt to send
-     * @return an AiResponse containing the response text and token usage
+     * @return an AiResponse containing the response text, token usage and duration
      */
     private static AiResponse callAndGetResponse(ChatModel chatModel, Prompt prompt) {
+        final var start = now();
         var aiResponse = chatModel.call(prompt);
         var result = aiResponse.getResult();
         var output = result.getOutput();
@@ -169,7 +338,8 @@ public class SummaryGenerator {
         return new AiResponse(
                 output.getText(),
                 usage.getPromptTokens(),
-                usage.getCompletionTokens()
+                usage.getCompletionTokens(),
+                Duration.between(start, now()).toMillis()
         );
     }
 }
@@ -5,9 +5,11 @@ import ai.teamcollab.server.domain.SystemSettings;
 import ai.teamcollab.server.repository.LlmModelRepository;
 import ai.teamcollab.server.repository.SystemSettingsRepository;
 import ai.teamcollab.server.service.SystemSettingsService;
+import ai.teamcollab.server.service.domain.LlmModelChangedEvent;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +19,14 @@ public class SystemSettingsServiceImpl implements SystemSettingsService {
 
     private final SystemSettingsRepository systemSettingsRepository;
     private final LlmModelRepository llmModelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SystemSettingsServiceImpl(SystemSettingsRepository systemSettingsRepository, LlmModelRepository llmModelRepository) {
+    public SystemSettingsServiceImpl(SystemSettingsRepository systemSettingsRepository, LlmModelRepository llmModelRepository,
+                                     ApplicationEventPublisher eventPublisher) {
         this.systemSettingsRepository = systemSettingsRepository;
         this.llmModelRepository = llmModelRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -61,7 +66,10 @@ public class SystemSettingsServiceImpl implements SystemSettingsService {
         current.setSummaryLlmModel(settings.getSummaryLlmModel());
         current.setAssistantInteractionLlmModel(settings.getAssistantInteractionLlmModel());
         current.setSummaryBatchSize(settings.getSummaryBatchSize());
+        current.setSummaryMode(settings.getSummaryMode());
 
-        return systemSettingsRepository.save(current);
+        final var saved = systemSettingsRepository.save(current);
+        eventPublisher.publishEvent(new LlmModelChangedEvent("system settings"));
+        return saved;
     }
 }
@@ -0,0 +1,83 @@
+package ai.teamcollab.server.templates;
+
+import ai.teamcollab.server.config.TemplateProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.service.domain.ConversationAssistantsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ai.teamcollab.server.templates.TemplatePath.ASSISTANT_STATUSES_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.ASSISTANTS;
+import static ai.teamcollab.server.templates.TemplateVariableName.STATUS;
+
+/**
+ * Renders the Turbo streams that set the status shown for each assistant of a conversation. Only a handful of statuses
+ * exist and a conversation's assistants rarely change, so the streams are rendered once per set of assistants and
+ * status and then reused for every message. Entries involving an assistant are dropped when it is added, removed,
+ * muted or unmuted in a conversation.
+ */
+@Slf4j
+@Component
+public class AssistantStatusRenderer {
+
+    private final ThymeleafTemplateRender thymeleafTemplateRender;
+    private final Cache<Key, String> fragments;
+
+    /**
+     * Identifies rendered statuses: the IDs of the assistants and the status shown for them.
+     */
+    record Key(Set<Long> assistantIds, String status) {
+    }
+
+    public AssistantStatusRenderer(ThymeleafTemplateRender thymeleafTemplateRender, TemplateProperties properties) {
+        this.thymeleafTemplateRender = thymeleafTemplateRender;
+        final var spec = properties.getStatusFragments();
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterAccess(spec.getTtl())
+                .build();
+    }
+
+    /**
+     * Renders a status for a set of assistants, from the cache if it was rendered before.
+     *
+     * @param assistants the assistants whose status changes
+     * @param status     the status to show, such as "Thinking..."
+     * @return the Turbo streams replacing the status of each assistant
+     */
+    public String render(Collection<Assistant> assistants, String status) {
+        final var assistantIds = assistants.stream()
+                .map(Assistant::getId)
+                .collect(Collectors.toUnmodifiableSet());
+        return fragments.get(new Key(assistantIds, status), ignored -> thymeleafTemplateRender.renderToHtml(
+                ASSISTANT_STATUSES_TEMPLATE, Map.of(ASSISTANTS, assistants, STATUS, status)));
+    }
+
+    /**
+     * Removes every rendered status that involves an assistant.
+     *
+     * @param assistantId the ID of the assistant
+     */
+    public void invalidateAssistant(Long assistantId) {
+        fragments.asMap().keySet().removeIf(key -> key.assistantIds().contains(assistantId));
+        log.debug("Invalidated rendered statuses for assistant {}", assistantId);
+    }
+
+    /**
+     * Drops rendered statuses when the assistants of a conversation change.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onConversationAssistantsChanged(ConversationAssistantsChangedEvent event) {
+        invalidateAssistant(event.assistantId());
+    }
+}
@@ -0,0 +1,58 @@
+package ai.teamcollab.server.templates;
+
+import ai.teamcollab.server.config.TemplateProperties;
+import ai.teamcollab.server.service.domain.MessageRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
+
+/**
+ * Renders a message row as the Turbo stream that appends it to the chat, keeping the result of saved messages. A
+ * message's content and time never change, so a row is rendered again only when its version does: the user's bookmark
+ * or the name shown for its author. Every user joining a conversation thus reuses the history rendered for the first
+ * one.
+ */
+@Component
+public class MessageRowRenderer {
+
+    private final ThymeleafTemplateRender thymeleafTemplateRender;
+    private final Cache<Key, String> fragments;
+
+    /**
+     * Identifies a rendered row: the message and the parts of the row that can change after it was saved.
+     */
+    record Key(long id, boolean bookmarked, String username, String assistantName) {
+    }
+
+    public MessageRowRenderer(ThymeleafTemplateRender thymeleafTemplateRender, TemplateProperties properties) {
+        this.thymeleafTemplateRender = thymeleafTemplateRender;
+        final var spec = properties.getMessageFragments();
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterAccess(spec.getTtl())
+                .build();
+    }
+
+    /**
+     * Renders a message row, from the cache if it was rendered before.
+     *
+     * @param row the row; one without an id is not saved yet and always rendered
+     * @return the Turbo stream appending the row
+     */
+    public String render(MessageRow row) {
+        if (row.getId() == null) {
+            return renderNow(row);
+        }
+        final var key = new Key(row.getId(), row.isBookmarked(), row.getUsername(), row.getAssistantName());
+        return fragments.get(key, ignored -> renderNow(row));
+    }
+
+    private String renderNow(MessageRow row) {
+        return thymeleafTemplateRender.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row));
+    }
+}
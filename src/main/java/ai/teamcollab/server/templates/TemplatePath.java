@@ -8,15 +8,21 @@ import java.util.Map;
 import java.util.Set;
 
 import static ai.teamcollab.server.templates.TemplateVariableName.ASSISTANTS;
+import static ai.teamcollab.server.templates.TemplateVariableName.CURSOR;
 import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
+import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGES;
 import static ai.teamcollab.server.templates.TemplateVariableName.STATUS;
+import static ai.teamcollab.server.templates.TemplateVariableName.TARGET;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 @Getter
 public enum TemplatePath {
     CONVERSATION_MESSAGE_TEMPLATE("conversations/streams/message.xhtml", MESSAGE),
-    ASSISTANT_STATUSES_TEMPLATE("conversations/streams/statuses.xhtml", ASSISTANTS, STATUS);
+    ASSISTANT_STATUSES_TEMPLATE("conversations/streams/statuses.xhtml", ASSISTANTS, STATUS),
+    REMOVE_TEMPLATE("conversations/streams/remove.xhtml", TARGET),
+    OLDER_MESSAGES_TEMPLATE("conversations/streams/older_messages.xhtml", MESSAGES),
+    LOAD_OLDER_MESSAGES_TEMPLATE("conversations/streams/load_older.xhtml", CURSOR);
 
     private final String path;
     private final Set<String> variables;
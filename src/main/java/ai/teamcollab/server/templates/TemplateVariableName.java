@@ -7,6 +7,9 @@ public enum TemplateVariableName {
     MESSAGE("message"),
     ASSISTANTS("assistants"),
     STATUS("status"),
+    TARGET("target"),
+    MESSAGES("messages"),
+    CURSOR("cursor"),
     ;
 
     private final String key;
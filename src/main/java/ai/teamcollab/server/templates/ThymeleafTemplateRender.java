@@ -29,9 +29,10 @@ public class ThymeleafTemplateRender {
      * @throws IllegalArgumentException if the template path is null or empty
      */
     public String renderToHtml(@NonNull final TemplatePath templatePath, @NonNull final Map<TemplateVariableName, Object> values) {
-        final var context = templatePath.validate(values);
+        final var context = new Context();
+        templatePath.validate(values).forEach(context::setVariable);
 
-        return this.render(templatePath.getPath(), context);
+        return this.process(templatePath.getPath(), context);
     }
 
     /**
@@ -56,19 +57,21 @@ public class ThymeleafTemplateRender {
      * @throws IllegalArgumentException if the template path is null or empty
      */
     public String render(@NonNull final String templatePath, @NonNull final Map<String, Object> values) {
-        log.debug("Rendering template: {} with values: {}", templatePath, values);
+        final var context = new Context();
+        context.setVariables(values);
+        return this.process(templatePath, context);
+    }
+
+    private String process(final String templatePath, final Context context) {
+        // The values are not logged: rendering their toString() costs more than the render itself for entities
+        log.trace("Rendering template: {}", templatePath);
 
         if (templatePath.isBlank()) {
             throw new IllegalArgumentException("Template path cannot be empty");
         }
 
         try {
-            final var context = new Context();
-            context.setVariables(values);
-
-            final var result = templateEngine.process(templatePath, context);
-            log.debug("Template rendered successfully");
-            return result;
+            return templateEngine.process(templatePath, context);
         } catch (final Exception e) {
             log.error("Failed to render template: {}", templatePath, e);
             throw new RuntimeException("Failed to render template: " + templatePath, e);
@@ -0,0 +1,235 @@
+package ai.teamcollab.server.ws;
+
+import ai.teamcollab.server.config.WebSocketProperties;
+import ai.teamcollab.server.service.domain.SessionQueueDepth;
+import ai.teamcollab.server.service.domain.WebSocketStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks how many messages wait to be sent to each WebSocket session, and disconnects a session whose backlog grows
+ * past {@code teamcollab.websocket.transport.max-queued-messages-per-session}. A client that reads too slowly would
+ * otherwise pile up messages and keep outbound threads busy for everyone else.
+ * <p>
+ * Publish order is preserved, so the broker holds each session's backlog in its own queue and hands the outbound
+ * channel one message at a time. The backlog is therefore counted where it starts: a message published on the broker
+ * channel counts once for every local subscription it matches in the simple broker's registry. Messages sent straight
+ * to the outbound channel, such as the CONNECT acknowledgement, are counted when sent. Either way a message stops
+ * counting once the outbound channel has handled it. With the STOMP broker relay the subscriptions live in the external
+ * broker, so only the transport's send time and buffer limits apply.
+ * <p>
+ * Registered as an interceptor of the broker and outbound channels, and as a decorator of the WebSocket handler, which
+ * sees the sessions open and close. Sessions the transport closes because a send exceeded its time or buffer limit are
+ * counted as slow consumers too.
+ */
+@Slf4j
+@Component
+public class OutboundQueueMonitor implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    private static final int DEEPEST_SESSIONS = 10;
+
+    private final WebSocketProperties properties;
+    private final ObjectProvider<AbstractBrokerMessageHandler> simpleBrokerMessageHandler;
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+    private final LongAdder slowConsumersDisconnected = new LongAdder();
+    private final ChannelInterceptor brokerChannelInterceptor = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            published(message);
+            return message;
+        }
+    };
+
+    public OutboundQueueMonitor(WebSocketProperties properties,
+                                @Qualifier("simpleBrokerMessageHandler")
+                                ObjectProvider<AbstractBrokerMessageHandler> simpleBrokerMessageHandler) {
+        this.properties = properties;
+        this.simpleBrokerMessageHandler = simpleBrokerMessageHandler;
+    }
+
+    /**
+     * Returns the interceptor of the broker channel, which counts each published message against the sessions
+     * subscribed to it.
+     *
+     * @return the broker channel interceptor
+     */
+    public ChannelInterceptor brokerChannelInterceptor() {
+        return brokerChannelInterceptor;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionQueue(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    final var queue = sessions.remove(session.getId());
+                    if (closeStatus.equalsCode(CloseStatus.SESSION_NOT_RELIABLE)
+                            && (queue == null || !queue.closedAsSlow.get())) {
+                        slowConsumersDisconnected.increment();
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        // Released from a session's ordered queue, so it was counted when it was published
+        if (OrderedMessageChannelDecorator.getNextMessageTask(message) != null) {
+            return message;
+        }
+        final var queue = queueOf(message);
+        if (queue == null) {
+            return message;
+        }
+        if (!enqueue(queue, 1)) {
+            queue.queued.decrementAndGet();
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Rejected by the executor, so it will never be handled
+        if (!sent || ex != null) {
+            dequeued(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        dequeued(message);
+    }
+
+    /**
+     * Returns the outbound queues of the sessions connected to this node.
+     *
+     * @return the session count, the queued messages and the deepest queues
+     */
+    public WebSocketStatistics getStatistics() {
+        final var depths = sessions.values().stream()
+                .map(SessionQueue::depth)
+                .toList();
+        final var deepest = depths.stream()
+                .filter(depth -> depth.maxQueued() > 0)
+                .sorted(Comparator.comparingInt(SessionQueueDepth::queued)
+                        .thenComparingInt(SessionQueueDepth::maxQueued)
+                        .reversed())
+                .limit(DEEPEST_SESSIONS)
+                .toList();
+        final var queued = depths.stream().mapToLong(SessionQueueDepth::queued).sum();
+        return new WebSocketStatistics(depths.size(), queued, slowConsumersDisconnected.sum(), deepest);
+    }
+
+    /**
+     * Counts a message published on the broker channel against each local subscription it is delivered to. The
+     * message itself is shared by every subscriber, so a session past its limit is disconnected but the message is not
+     * dropped.
+     */
+    private void published(Message<?> message) {
+        if (!(simpleBrokerMessageHandler.getIfAvailable() instanceof SimpleBrokerMessageHandler broker)) {
+            return;
+        }
+        broker.getSubscriptionRegistry().findSubscriptions(message).forEach((sessionId, subscriptionIds) -> {
+            final var queue = sessions.get(sessionId);
+            if (queue != null) {
+                enqueue(queue, subscriptionIds.size());
+            }
+        });
+    }
+
+    /**
+     * Adds messages to a session's backlog, disconnecting the session if that takes it past the limit.
+     *
+     * @return {@code false} if the session was disconnected
+     */
+    private boolean enqueue(SessionQueue queue, int messages) {
+        final var queued = queue.queued.addAndGet(messages);
+        queue.maxQueued.accumulateAndGet(queued, Math::max);
+        if (queued > properties.getTransport().getMaxQueuedMessagesPerSession()) {
+            disconnect(queue);
+            return false;
+        }
+        return true;
+    }
+
+    private void dequeued(Message<?> message) {
+        final var queue = queueOf(message);
+        if (queue != null) {
+            queue.queued.updateAndGet(queued -> Math.max(0, queued - 1));
+        }
+    }
+
+    private SessionQueue queueOf(Message<?> message) {
+        final var sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    private void disconnect(SessionQueue queue) {
+        if (!queue.closedAsSlow.compareAndSet(false, true)) {
+            return;
+        }
+        slowConsumersDisconnected.increment();
+        log.warn("Disconnecting WebSocket session {} of {}, {} outbound messages are waiting", queue.session.getId(),
+                queue.username(), queue.queued.get());
+        try {
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close WebSocket session {}: {}", queue.session.getId(), e.getMessage());
+        }
+    }
+
+    private static final class SessionQueue {
+        private final WebSocketSession session;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxQueued = new AtomicInteger();
+        private final AtomicBoolean closedAsSlow = new AtomicBoolean();
+
+        private SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+
+        private String username() {
+            final var principal = session.getPrincipal();
+            return principal == null ? null : principal.getName();
+        }
+
+        private SessionQueueDepth depth() {
+            return new SessionQueueDepth(session.getId(), username(), queued.get(), maxQueued.get());
+        }
+    }
+}
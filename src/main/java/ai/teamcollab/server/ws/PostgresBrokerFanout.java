@@ -0,0 +1,185 @@
+package ai.teamcollab.server.ws;
+
+import ai.teamcollab.server.config.PostgresNotificationListener;
+import ai.teamcollab.server.config.WebSocketProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Passes the messages published on this node's broker channel on to the brokers of the other nodes, through PostgreSQL
+ * {@code NOTIFY}, so that a message reaches the sessions connected to any node.
+ * <p>
+ * Messages to {@code /topic/} are delivered by the broker of every node. Messages to {@code /user/} are resolved by
+ * every node against its own sessions, so a user is reached on whichever node their socket is. A message larger than a
+ * notification is written to {@code broker_relay_messages} and the notification carries its id. Notifications are
+ * missed while the listening connection is down, like messages to a session that is reconnecting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "teamcollab.websocket.broker", name = "mode", havingValue = "postgres")
+public class PostgresBrokerFanout implements ChannelInterceptor {
+    /**
+     * Header that marks a message received from another node, so it is not passed on again.
+     */
+    static final String RELAYED_HEADER = "teamcollab-relayed";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MessageChannel> brokerChannel;
+    private final WebSocketProperties.Postgres properties;
+    private final PostgresNotificationListener listener;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public PostgresBrokerFanout(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel,
+                                WebSocketProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.brokerChannel = brokerChannel;
+        this.properties = properties.getBroker().getPostgres();
+        this.listener = new PostgresNotificationListener(dataSource, this.properties.getChannel(),
+                this.properties.getReconnectDelay(), () -> log.debug("Receiving the messages of the other nodes"),
+                this::receive);
+    }
+
+    @PostConstruct
+    void start() {
+        listener.start("broker-fanout-listener");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        listener.stop();
+    }
+
+    /**
+     * Tells whether the messages of the other nodes are currently received.
+     *
+     * @return {@code true} while the listening connection is up
+     */
+    public boolean isListening() {
+        return listener.isListening();
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        final var headers = message.getHeaders();
+        final var destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE
+                && destination != null
+                && (destination.startsWith("/topic/") || destination.startsWith("/user/"))
+                && !headers.containsKey(RELAYED_HEADER)
+                && message.getPayload() instanceof byte[] payload) {
+            publish(destination, headers.get(MessageHeaders.CONTENT_TYPE), payload);
+        }
+        return message;
+    }
+
+    private void publish(String destination, Object contentType, byte[] payload) {
+        try {
+            final var message = JsonNodeFactory.instance.objectNode();
+            message.put("destination", destination);
+            if (contentType != null) {
+                message.put("contentType", contentType.toString());
+            }
+            message.put("payload", Base64.getEncoder().encodeToString(payload));
+
+            final var notification = JsonNodeFactory.instance.objectNode();
+            notification.put("node", nodeId);
+            notification.set("message", message);
+            var body = objectMapper.writeValueAsString(notification);
+            if (body.getBytes(StandardCharsets.UTF_8).length > PostgresNotificationListener.MAX_PAYLOAD_BYTES) {
+                final var id = jdbcTemplate.queryForObject(
+                        "INSERT INTO broker_relay_messages (payload) VALUES (?) RETURNING id", Long.class,
+                        objectMapper.writeValueAsString(message));
+                notification.remove("message");
+                notification.put("ref", id);
+                body = objectMapper.writeValueAsString(notification);
+            }
+            PostgresNotificationListener.notify(jdbcTemplate, properties.getChannel(), body);
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to pass the message to {} on to the other nodes: {}", destination, e.getMessage());
+        }
+    }
+
+    void receive(String payload) {
+        try {
+            final var notification = objectMapper.readTree(payload);
+            if (nodeId.equals(notification.path("node").asText())) {
+                return;
+            }
+            final JsonNode message;
+            if (notification.has("ref")) {
+                final var body = jdbcTemplate.query("SELECT payload FROM broker_relay_messages WHERE id = ?",
+                        (rs, rowNum) -> rs.getString(1), notification.get("ref").asLong());
+                if (body.isEmpty()) {
+                    log.warn("Relayed message {} is gone", notification.get("ref"));
+                    return;
+                }
+                message = objectMapper.readTree(body.getFirst());
+            } else {
+                message = notification.path("message");
+            }
+
+            final var destination = message.path("destination").asText();
+            if (destination.isEmpty() || !message.hasNonNull("payload")) {
+                log.warn("Ignoring relayed message without destination or payload: {}", abbreviate(payload));
+                return;
+            }
+
+            final var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(destination);
+            if (message.hasNonNull("contentType")) {
+                accessor.setContentType(MimeType.valueOf(message.get("contentType").asText()));
+            }
+            accessor.setHeader(RELAYED_HEADER, true);
+            accessor.setLeaveMutable(true);
+            final var bytes = Base64.getDecoder().decode(message.get("payload").asText());
+            brokerChannel.getObject().send(MessageBuilder.createMessage(bytes, accessor.getMessageHeaders()));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed relayed message {}: {}", abbreviate(payload), e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the large messages that every node has had time to read.
+     */
+    @Scheduled(fixedDelayString = "${teamcollab.websocket.broker.postgres.retention:1m}")
+    public void deleteExpiredMessages() {
+        final var deleted = jdbcTemplate.update(
+                "DELETE FROM broker_relay_messages WHERE created_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second'",
+                properties.getRetention().toSeconds());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired relayed messages", deleted);
+        }
+    }
+
+    private static String abbreviate(String payload) {
+        return payload.length() > 200 ? payload.substring(0, 200) + "..." : payload;
+    }
+}
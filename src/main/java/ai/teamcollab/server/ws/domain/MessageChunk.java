@@ -0,0 +1,21 @@
+package ai.teamcollab.server.ws.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A piece of an assistant reply that is still being generated.
+ */
+@Getter
+@Builder
+public class MessageChunk {
+    /**
+     * The id of the user message being answered. The client groups chunks by this id.
+     */
+    private Long replyTo;
+    /**
+     * The id of the assistant whose reply this chunk belongs to, so concurrent replies are kept apart.
+     */
+    private Long assistantId;
+    private String content;
+}
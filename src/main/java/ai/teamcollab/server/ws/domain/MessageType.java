@@ -8,6 +8,8 @@ public enum MessageType {
     CLOSED("When the conversation is closed by the server"),
     MESSAGE("When one or more messages are sent"),
     MESSAGE_PROCESSING("When a message is being processed by AI"),
+    MESSAGE_CHUNK("A partial reply while the AI is still generating it"),
+    MESSAGE_ACK("When a sent message was accepted, before it is saved"),
     MESSAGE_WAITING("When the message is waiting to be processed"),
     THINKING("Update the assistants indicator to thinking"),
     NOTE("When a note was recorded by the facillitor"),
@@ -3,6 +3,8 @@ package ai.teamcollab.server.ws.domain;
 import lombok.Builder;
 import lombok.Getter;
 
+import static ai.teamcollab.server.ws.domain.MessageType.MESSAGE_ACK;
+import static ai.teamcollab.server.ws.domain.MessageType.MESSAGE_CHUNK;
 import static ai.teamcollab.server.ws.domain.MessageType.TURBO;
 
 @Getter
@@ -18,4 +20,18 @@ public class WsMessageResponse {
                 .build();
     }
 
+    public static WsMessageResponse chunk(MessageChunk payload) {
+        return WsMessageResponse.builder()
+                .messageType(MESSAGE_CHUNK)
+                .payload(payload)
+                .build();
+    }
+
+    public static WsMessageResponse ack(String clientId) {
+        return WsMessageResponse.builder()
+                .messageType(MESSAGE_ACK)
+                .payload(clientId)
+                .build();
+    }
+
 }
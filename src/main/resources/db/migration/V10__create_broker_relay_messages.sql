@@ -0,0 +1,10 @@
+-- Messages relayed between the nodes that are too large for a NOTIFY payload. The notification carries the id of the
+-- row instead, and PostgresBrokerFanout deletes the rows once every node has had time to read them.
+CREATE TABLE broker_relay_messages
+(
+    id         BIGSERIAL PRIMARY KEY,
+    payload    TEXT      NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_broker_relay_messages_created_at ON broker_relay_messages (created_at);
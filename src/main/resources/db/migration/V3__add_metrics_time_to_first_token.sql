@@ -0,0 +1,3 @@
+-- Time between the start of a streamed request and the first token received, in milliseconds
+ALTER TABLE metrics
+    ADD COLUMN time_to_first_token BIGINT;
@@ -0,0 +1,3 @@
+-- How point-in-time summaries are requested from the summary model, see SummaryMode
+ALTER TABLE system_settings
+    ADD COLUMN summary_mode VARCHAR(32) NOT NULL DEFAULT 'SEPARATE_CALLS';
@@ -0,0 +1,26 @@
+-- Running total of the LLM spend of each company per calendar month, kept up to date by CompanySpendTracker so the
+-- monthly spending limit can be checked without summing the month's metrics
+CREATE TABLE company_monthly_spend
+(
+    company_monthly_spend_id BIGSERIAL PRIMARY KEY,
+    company_id               BIGINT         NOT NULL REFERENCES companies (company_id) ON DELETE CASCADE,
+    spend_month              DATE           NOT NULL,
+    total_cost               DECIMAL(19, 5) NOT NULL DEFAULT 0,
+    updated_at               TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_company_monthly_spend UNIQUE (company_id, spend_month)
+);
+
+-- Backfill from the existing metrics, rounding each row the same way as LlmModel.calculate and Metrics.getCost
+INSERT INTO company_monthly_spend (company_id, spend_month, total_cost, updated_at)
+SELECT u.company_id,
+       CAST(DATE_TRUNC('month', msg.created_at) AS DATE),
+       SUM(ROUND(ROUND(m.input_tokens / 1000.0, 6) * ROUND(lm.input_price_per_million / 1000000, 6) * 1000
+                     + ROUND(m.output_tokens / 1000.0, 6) * ROUND(lm.output_price_per_million / 1000000, 6) * 1000,
+                 5)),
+       CURRENT_TIMESTAMP
+FROM metrics m
+         JOIN messages msg ON msg.message_id = m.message_id
+         JOIN users u ON u.user_id = msg.user_id
+         JOIN llm_models lm ON lm.llm_model_id = m.llm_model_id
+WHERE u.company_id IS NOT NULL
+GROUP BY u.company_id, CAST(DATE_TRUNC('month', msg.created_at) AS DATE);
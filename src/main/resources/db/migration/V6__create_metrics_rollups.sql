@@ -0,0 +1,29 @@
+-- Hourly and daily aggregates of the metrics per company, model and call kind, filled by MetricsRollupCompactor so
+-- the dashboards do not scan the metrics table. company_id is NULL for routing decisions, which belong to no company.
+CREATE TABLE metrics_rollups
+(
+    metrics_rollup_id BIGSERIAL PRIMARY KEY,
+    granularity       VARCHAR(8)     NOT NULL,
+    bucket_start      TIMESTAMP      NOT NULL,
+    company_id        BIGINT REFERENCES companies (company_id) ON DELETE CASCADE,
+    llm_model_id      BIGINT REFERENCES llm_models (llm_model_id),
+    call_kind         VARCHAR(16)    NOT NULL,
+    call_count        BIGINT         NOT NULL DEFAULT 0,
+    total_duration    BIGINT         NOT NULL DEFAULT 0,
+    input_tokens      BIGINT         NOT NULL DEFAULT 0,
+    output_tokens     BIGINT         NOT NULL DEFAULT 0,
+    total_cost        DECIMAL(19, 5) NOT NULL DEFAULT 0
+);
+CREATE UNIQUE INDEX uk_metrics_rollups_bucket ON metrics_rollups (granularity, bucket_start, COALESCE(company_id, 0),
+                                                                  COALESCE(llm_model_id, 0), call_kind);
+CREATE INDEX idx_metrics_rollups_company ON metrics_rollups (company_id, granularity, bucket_start);
+
+-- The last metric_id folded into the rollups
+CREATE TABLE metrics_rollup_state
+(
+    name            VARCHAR(32) PRIMARY KEY,
+    high_water_mark BIGINT      NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+INSERT INTO metrics_rollup_state (name, high_water_mark)
+VALUES ('metrics', 0);
@@ -0,0 +1,11 @@
+-- Indexes for the metrics page. The slowest calls are read as a top-N scan of idx_metrics_duration, and the recent
+-- metrics are paged by (created_at, metric_id) cursors through idx_metrics_created_at_id. message_id and summary_id are
+-- already indexed by their UNIQUE constraint and idx_metrics_summary_id.
+CREATE INDEX idx_metrics_duration ON metrics (duration DESC, metric_id DESC);
+
+-- Keyset pages of the recent metrics, range scans of the metrics not folded into the rollups yet, and of the metrics
+-- of a time window
+CREATE INDEX idx_metrics_created_at_id ON metrics (created_at, metric_id);
+
+-- Foreign key lookups when joining to, or deleting, an LLM model
+CREATE INDEX idx_metrics_llm_model_id ON metrics (llm_model_id);
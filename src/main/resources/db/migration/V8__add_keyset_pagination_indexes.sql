@@ -0,0 +1,13 @@
+-- Indexes for keyset pagination on (timestamp, id). Each page is read by seeking to the cursor in the index and
+-- scanning a page worth of entries, in either direction, so deep pages cost the same as the first one.
+
+-- The recent metrics are served by idx_metrics_created_at_id from V7
+
+-- Audits, all of them and by action type
+DROP INDEX idx_audit_timestamp;
+CREATE INDEX idx_audit_timestamp_id ON audits (timestamp, id);
+CREATE INDEX idx_audit_action_type_timestamp_id ON audits (action_type, timestamp, id);
+
+-- The visible history of a conversation
+CREATE INDEX idx_messages_conversation_created_at_id ON messages (conversation_id, created_at, message_id)
+    WHERE deleted = FALSE;
@@ -0,0 +1,61 @@
+-- Monthly range partitions of audits on timestamp, so time-range queries only read the months they cover and old
+-- months can be detached or dropped whole instead of deleted row by row. AuditPartitionMaintainer creates the months
+-- ahead and retires the expired ones; an insert into a month without a partition fails, so none is left as default.
+-- The primary key of a partitioned table must contain the partition key, hence (id, timestamp); the IDs still come from
+-- the one sequence and stay unique.
+ALTER TABLE audits RENAME TO audits_unpartitioned;
+ALTER INDEX audits_pkey RENAME TO audits_unpartitioned_pkey;
+
+CREATE TABLE audits
+(
+    id          BIGINT       NOT NULL DEFAULT nextval('audits_id_seq'),
+    action_type VARCHAR(50)  NOT NULL,
+    user_id     BIGINT,
+    username    VARCHAR(255) NOT NULL,
+    ip_address  VARCHAR(50),
+    details     VARCHAR(1000),
+    timestamp   TIMESTAMP    NOT NULL,
+    entity_type VARCHAR(100),
+    entity_id   BIGINT,
+    company_id  BIGINT,
+
+    PRIMARY KEY (id, timestamp),
+    CONSTRAINT fk_audit_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE SET NULL,
+    CONSTRAINT fk_audit_company FOREIGN KEY (company_id) REFERENCES companies (company_id) ON DELETE SET NULL
+) PARTITION BY RANGE (timestamp);
+
+-- One partition per month from the oldest audit to three months ahead, named audits_YYYY_MM
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM audits_unpartitioned), now()));
+        last_month  DATE := date_trunc('month', GREATEST((SELECT MAX(timestamp) FROM audits_unpartitioned),
+                                                         now() + INTERVAL '3 months'));
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF audits FOR VALUES FROM (%L) TO (%L)',
+                               'audits_' || to_char(month_start, 'YYYY_MM'), month_start,
+                               month_start + INTERVAL '1 month');
+                month_start := month_start + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO audits (id, action_type, user_id, username, ip_address, details, timestamp, entity_type, entity_id,
+                    company_id)
+SELECT id, action_type, user_id, username, ip_address, details, timestamp, entity_type, entity_id, company_id
+FROM audits_unpartitioned;
+
+ALTER SEQUENCE audits_id_seq OWNED BY audits.id;
+DROP TABLE audits_unpartitioned;
+
+-- Created on the parent after the copy, so every partition gets them. idx_audit_action_type is not recreated, as
+-- idx_audit_action_type_timestamp_id covers it.
+CREATE INDEX idx_audit_user_id ON audits (user_id);
+CREATE INDEX idx_audit_company_id ON audits (company_id);
+CREATE INDEX idx_audit_entity ON audits (entity_type, entity_id);
+CREATE INDEX idx_audit_timestamp_id ON audits (timestamp, id);
+CREATE INDEX idx_audit_action_type_timestamp_id ON audits (action_type, timestamp, id);
+
+COMMENT ON TABLE audits IS 'Stores audit events for tracking user actions in the system, partitioned by month';
@@ -11,9 +11,25 @@ export default class extends Controller {
         this.stompClient.debug = () => {
         };
 
+        // Follow new messages only while the user is at the bottom of the chat, so reading older messages is not
+        // interrupted. Prepended older messages keep their place through the browser's scroll anchoring.
+        this.pinnedToBottom = true;
+        this.lastScrollTop = 0;
+        this.chatTarget.addEventListener('scroll', () => {
+            const chat = this.chatTarget;
+            if (chat.scrollTop < this.lastScrollTop) {
+                this.pinnedToBottom = false;
+            } else if (chat.scrollHeight - chat.scrollTop - chat.clientHeight < 40) {
+                this.pinnedToBottom = true;
+            }
+            this.lastScrollTop = chat.scrollTop;
+        });
+
         // Set up MutationObserver to detect DOM changes in the chat container
         this.chatObserver = new MutationObserver((mutations) => {
-            this.scrollToBottom();
+            if (this.pinnedToBottom) {
+                this.scrollToBottom();
+            }
         });
 
         // Start observing the chat container for DOM changes
@@ -23,9 +39,17 @@ export default class extends Controller {
         });
 
         this.buttonTarget.addEventListener('click', (e) => {
+            const content = this.inputTarget.value;
+            if (!content.trim()) {
+                return;
+            }
+            // Shown until the server sends the saved message back, which removes it
+            const clientId = crypto.randomUUID();
+            this.chatTarget.appendChild(this.createPendingMessage(clientId, content));
             const payload = JSON.stringify({
                 'conversation_id': this.element.dataset.conversationChatIdValue,
-                'content': this.inputTarget.value
+                'content': content,
+                'client_id': clientId
             });
             this.inputTarget.value = "";
             this.stompClient.send('/app/chat.send', {}, payload);
@@ -43,6 +67,10 @@ export default class extends Controller {
                         this.chatTarget.appendChild(element);
                     }
                     this.scrollToBottom();
+                } else if (this.isChunk(response)) {
+                    this.appendChunk(response.payload);
+                } else if (this.isAck(response)) {
+                    this.acknowledge(response.payload);
                 } else if (this.isTurbo(response)) {
                     if (Array.isArray(response.payload)) {
                         for (let i = 0; i < response.payload.length; i++) {
@@ -74,6 +102,17 @@ export default class extends Controller {
 
     }
 
+    // Asks for the page of messages before the oldest one shown. The server prepends them and replaces the button.
+    loadOlder(event) {
+        const button = event.currentTarget;
+        button.disabled = true;
+        const payload = JSON.stringify({
+            'conversation_id': this.element.dataset.conversationChatIdValue,
+            'before': button.dataset.cursor
+        });
+        this.stompClient.send('/app/chat.history', {}, payload);
+    }
+
     isMessage(response) {
         return response.messageType === 'MESSAGE';
     }
@@ -82,6 +121,54 @@ export default class extends Controller {
         return response.messageType === 'TURBO';
     }
 
+    isChunk(response) {
+        return response.messageType === 'MESSAGE_CHUNK';
+    }
+
+    isAck(response) {
+        return response.messageType === 'MESSAGE_ACK';
+    }
+
+    // A sent message, faded until the server has accepted it
+    createPendingMessage(clientId, content) {
+        const element = document.createElement('div');
+        element.id = `pending_${clientId}`;
+        element.className = 'flex items-start justify-end opacity-50';
+
+        const messageBox = document.createElement('p');
+        messageBox.className = 'bg-green-100 p-3 rounded-lg max-w-[70%] text-gray-800 whitespace-pre-wrap';
+        messageBox.textContent = content;
+        element.appendChild(messageBox);
+        return element;
+    }
+
+    acknowledge(clientId) {
+        const element = document.getElementById(`pending_${clientId}`);
+        if (element) {
+            element.classList.remove('opacity-50');
+            element.classList.add('opacity-75');
+        }
+    }
+
+    // Appends a streamed chunk to the pending reply of its assistant. Several assistants may answer the same message at
+    // once, so each gets its own element. The server removes the element once the full message is rendered.
+    appendChunk(chunk) {
+        const id = `stream_${chunk.replyTo}_${chunk.assistantId}`;
+        let element = document.getElementById(id);
+        if (!element) {
+            element = document.createElement('div');
+            element.id = id;
+            element.className = 'flex items-start';
+
+            const content = document.createElement('p');
+            content.className = 'bg-blue-100 p-3 rounded-lg max-w-[70%] text-gray-800 whitespace-pre-wrap';
+            element.appendChild(content);
+
+            this.chatTarget.appendChild(element);
+        }
+        element.firstChild.textContent += chunk.content;
+    }
+
     offline() {
         this.statusTarget.classList.remove('text-green-500');
         this.statusTarget.classList.add('text-amber-500');
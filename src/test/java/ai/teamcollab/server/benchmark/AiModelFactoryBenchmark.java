@@ -0,0 +1,114 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.config.AiClientConfig;
+import ai.teamcollab.server.config.AiClientProperties;
+import ai.teamcollab.server.domain.LlmModel;
+import ai.teamcollab.server.domain.LlmProvider;
+import ai.teamcollab.server.domain.SystemSettings;
+import ai.teamcollab.server.service.SystemSettingsService;
+import ai.teamcollab.server.service.impl.AiModelFactory;
+import lombok.NonNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call setup cost removed by the {@link AiModelFactory} registry: building a new
+ * {@link OpenAiChatModel} and {@link OpenAiApi} for every call versus looking up the registered instance. No request is
+ * sent, so the numbers exclude the TLS handshake that a fresh HTTP client also paid on the first call.
+ * <p>
+ * {@code OPENAI_API_KEY} must be set (any value) because the factory reads it when building the model. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.AiModelFactoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiModelFactoryBenchmark {
+
+    private LlmModel llmModel;
+    private AiModelFactory aiModelFactory;
+
+    @Setup
+    public void setUp() {
+        final var provider = LlmProvider.builder()
+                .id(1L)
+                .name(LlmProvider.OPEN_AI)
+                .build();
+        llmModel = LlmModel.builder()
+                .id(1L)
+                .name("gpt-4o-mini")
+                .modelId("gpt-4o-mini")
+                .label("GPT-4o mini")
+                .temperature(0.7)
+                .inputPricePerMillion(new BigDecimal("0.15"))
+                .outputPricePerMillion(new BigDecimal("0.60"))
+                .provider(provider)
+                .build();
+
+        final var settings = SystemSettings.builder()
+                .llmModel(llmModel)
+                .summaryLlmModel(llmModel)
+                .assistantInteractionLlmModel(llmModel)
+                .build();
+        final var settingsService = new SystemSettingsService() {
+            @Override
+            public SystemSettings getCurrentSettings() {
+                return settings;
+            }
+
+            @Override
+            public SystemSettings updateSettings(@NonNull SystemSettings ignored) {
+                return settings;
+            }
+        };
+
+        final var properties = new AiClientProperties();
+        aiModelFactory = new AiModelFactory(settingsService, new AiClientConfig().llmHttpClient(properties), properties);
+    }
+
+    @Benchmark
+    public ChatModel newModelPerCall() {
+        return OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder()
+                        .apiKey(System.getenv("OPENAI_API_KEY"))
+                        .build())
+                .defaultOptions(OpenAiChatOptions.builder()
+                        .model(llmModel.getModelId())
+                        .temperature(llmModel.getTemperature())
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public ChatModel registeredModel() {
+        return aiModelFactory.createModel(null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AiModelFactoryBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
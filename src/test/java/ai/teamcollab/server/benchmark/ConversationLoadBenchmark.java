@@ -0,0 +1,116 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.config.AsyncConfig;
+import ai.teamcollab.server.config.AsyncProperties;
+import ai.teamcollab.server.domain.Company;
+import ai.teamcollab.server.service.impl.CompanyConcurrencyLimiter;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.time.Instant.now;
+
+/**
+ * Load-test harness for the executor and per-company limits that run LLM calls. Starts thousands of conversations at
+ * once against a simulated LLM that blocks for a fixed latency, with one heavy company sending most of the traffic,
+ * and reports throughput plus the latency seen by the heavy and the light companies. Run it once with virtual threads
+ * and once with the platform thread pool to compare.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.ConversationLoadBenchmark}, tuning the run with the system properties
+ * {@code load.conversations} (default 5000), {@code load.companies} (10), {@code load.heavyShare} (0.8, the share of
+ * conversations sent by the first company), {@code load.latencyMs} (200), {@code load.perCompany} (20) and
+ * {@code load.virtualThreads} (true).
+ */
+public class ConversationLoadBenchmark {
+
+    record Result(long companyId, long latency) {
+    }
+
+    public static void main(String[] args) {
+        final var conversations = Integer.getInteger("load.conversations", 5000);
+        final var companies = Integer.getInteger("load.companies", 10);
+        final var heavyShare = Double.parseDouble(System.getProperty("load.heavyShare", "0.8"));
+        final var latency = Duration.ofMillis(Long.getLong("load.latencyMs", 200));
+
+        final var properties = new AsyncProperties();
+        properties.setVirtualThreads(Boolean.parseBoolean(System.getProperty("load.virtualThreads", "true")));
+        properties.setMaxConcurrentLlmCallsPerCompany(Integer.getInteger("load.perCompany", 20));
+        properties.setCompanyPermitTimeout(Duration.ofMinutes(10));
+
+        final var executor = new AsyncConfig().applicationTaskExecutor(properties,
+                new SimpleAsyncTaskExecutorBuilder(),
+                new ThreadPoolTaskExecutorBuilder().corePoolSize(8).maxPoolSize(200).queueCapacity(Integer.MAX_VALUE));
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.initialize();
+        }
+        final var limiter = new CompanyConcurrencyLimiter(properties);
+
+        final var companyList = IntStream.rangeClosed(1, companies)
+                .mapToObj(id -> Company.builder().id((long) id).name("Company " + id).build())
+                .toList();
+
+        System.out.printf("%d conversations, %d companies (company 1 sends %.0f%%), %d ms LLM latency, " +
+                        "%d calls per company, virtual threads: %s%n",
+                conversations, companies, heavyShare * 100, latency.toMillis(),
+                properties.getMaxConcurrentLlmCallsPerCompany(), properties.isVirtualThreads());
+
+        final var start = now();
+        final var futures = new ArrayList<CompletableFuture<Result>>(conversations);
+        final var heavyConversations = (int) (conversations * heavyShare);
+        for (var i = 0; i < conversations; i++) {
+            final var company = i < heavyConversations || companies == 1
+                    ? companyList.getFirst()
+                    : companyList.get(1 + i % (companies - 1));
+            futures.add(submit(executor, limiter, company, latency));
+        }
+        final var results = futures.stream().map(CompletableFuture::join).toList();
+        final var elapsed = Duration.between(start, now());
+
+        System.out.printf("Completed in %d ms, %.1f conversations/s%n",
+                elapsed.toMillis(), conversations * 1000.0 / Math.max(1, elapsed.toMillis()));
+        report("Heavy company", results.stream().filter(result -> result.companyId() == 1).toList());
+        report("Other companies", results.stream().filter(result -> result.companyId() != 1).toList());
+
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private static CompletableFuture<Result> submit(AsyncTaskExecutor executor, CompanyConcurrencyLimiter limiter,
+                                                    Company company, Duration latency) {
+        final var submitted = now();
+        return CompletableFuture.supplyAsync(() -> limiter.call(company, () -> {
+            simulateLlmCall(latency);
+            return new Result(company.getId(), Duration.between(submitted, now()).toMillis());
+        }), executor);
+    }
+
+    private static void simulateLlmCall(Duration latency) {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String label, List<Result> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        final var latencies = results.stream().mapToLong(Result::latency).sorted().toArray();
+        System.out.printf("%s: %d conversations, latency p50 %d ms, p99 %d ms, max %d ms%n",
+                label, latencies.length,
+                latencies[latencies.length / 2],
+                latencies[(int) (latencies.length * 0.99)],
+                Arrays.stream(latencies).max().orElse(0));
+    }
+}
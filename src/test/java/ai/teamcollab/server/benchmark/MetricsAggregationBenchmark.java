@@ -0,0 +1,173 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.domain.LlmModel;
+import ai.teamcollab.server.repository.MetricsRepository;
+import ai.teamcollab.server.repository.MetricsRollupRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.time.Instant.now;
+
+/**
+ * Compares the metrics page queries over a seeded dataset of {@code bench.rows} metrics (default 10,000,000) spread
+ * over {@code bench.companies} companies (default 100) and the last 60 days.
+ * <p>
+ * The original company costs loaded every metrics row of the company in each of the daily, weekly and monthly windows
+ * and summed {@link LlmModel#calculate} in Java; the original statistics loaded every {@code metric_cache} row. Here the
+ * rows are read with plain JDBC, so those numbers leave out Hibernate's entity hydration and are a lower bound. They are
+ * compared with summing the raw metrics in the database, and with reading the rollups through
+ * {@link MetricsRollupRepository#COMPANY_COST_WINDOWS_QUERY} and the SQL equivalent of
+ * {@code MetricsRollupRepository.summarizeByModel}. The seeded metrics are folded into the rollups once, before the
+ * measurements.
+ * <p>
+ * See {@link MetricsDataset} for the database. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.MetricsAggregationBenchmark}.
+ */
+public class MetricsAggregationBenchmark {
+
+    private static final String OLD_COMPANY_COSTS_QUERY = "SELECT m.input_tokens, m.output_tokens, m.llm_model_id " +
+            "FROM metrics m " +
+            "JOIN messages msg ON msg.message_id = m.message_id " +
+            "JOIN users u ON u.user_id = msg.user_id " +
+            "WHERE u.company_id = ? AND msg.created_at BETWEEN ? AND ?";
+
+    private static final String OLD_STATISTICS_QUERY = "SELECT mc.total_duration, mc.message_count, " +
+            "mc.total_input_tokens, mc.total_output_tokens, lm.label " +
+            "FROM metric_cache mc JOIN llm_models lm ON lm.llm_model_id = mc.llm_model_id";
+
+    private static final String RAW_COMPANY_COSTS_QUERY = "SELECT " +
+            "COALESCE(SUM(CASE WHEN msg.created_at >= :dayStart THEN " + MetricsRepository.ROW_COST + " END), 0) " +
+            "AS \"daily\", " +
+            "COALESCE(SUM(CASE WHEN msg.created_at >= :weekStart THEN " + MetricsRepository.ROW_COST + " END), 0) " +
+            "AS \"weekly\", " +
+            "COALESCE(SUM(" + MetricsRepository.ROW_COST + "), 0) AS \"monthly\" " +
+            MetricsRepository.COMPANY_METRICS +
+            "WHERE u.company_id = :companyId AND msg.created_at BETWEEN :monthStart AND :endDate";
+
+    private static final String STATISTICS_QUERY = "SELECT lm.label, SUM(r.total_duration), SUM(r.call_count), " +
+            "SUM(r.input_tokens), SUM(r.output_tokens) " +
+            "FROM metrics_rollups r JOIN llm_models lm ON lm.llm_model_id = r.llm_model_id " +
+            "WHERE r.granularity = 'DAY' GROUP BY lm.llm_model_id, lm.label";
+
+    public static void main(String[] args) {
+        final var rows = Long.getLong("bench.rows", 10_000_000);
+        final var companies = Integer.getInteger("bench.companies", 100);
+        final var iterations = Integer.getInteger("bench.iterations", 10);
+
+        try (final var dataset = new MetricsDataset()) {
+            dataset.migrate("latest");
+            dataset.seedIfEmpty(rows, companies);
+            final var jdbc = dataset.getJdbc();
+
+            final var models = new HashMap<Long, LlmModel>();
+            jdbc.query("SELECT llm_model_id, input_price_per_million, output_price_per_million FROM llm_models",
+                    rs -> {
+                        models.put(rs.getLong(1), LlmModel.builder()
+                                .id(rs.getLong(1))
+                                .inputPricePerMillion(rs.getBigDecimal(2))
+                                .outputPricePerMillion(rs.getBigDecimal(3))
+                                .build());
+                    });
+            final var companyIds = jdbc.queryForList("SELECT company_id FROM companies WHERE name LIKE 'Bench %' " +
+                    "ORDER BY company_id LIMIT ?", Long.class, iterations);
+            final var named = new NamedParameterJdbcTemplate(jdbc);
+
+            // Warm up the caches and the JIT once before measuring
+            companyCostsInJava(jdbc, models, companyIds.getFirst());
+            companyCosts(named, RAW_COMPANY_COSTS_QUERY, companyIds.getFirst());
+            companyCosts(named, MetricsRollupRepository.COMPANY_COST_WINDOWS_QUERY, companyIds.getFirst());
+
+            final var javaCosts = new ArrayList<Duration>();
+            final var rawCosts = new ArrayList<Duration>();
+            final var rollupCosts = new ArrayList<Duration>();
+            for (final var companyId : companyIds) {
+                final var expected = time(javaCosts, () -> companyCostsInJava(jdbc, models, companyId));
+                final var raw = time(rawCosts, () -> companyCosts(named, RAW_COMPANY_COSTS_QUERY, companyId));
+                time(rollupCosts, () -> companyCosts(named, MetricsRollupRepository.COMPANY_COST_WINDOWS_QUERY,
+                        companyId));
+                if (!sameCosts(expected, raw)) {
+                    System.out.printf("Company %d: costs differ, %s in Java and %s in the database%n",
+                            companyId, expected, raw);
+                }
+            }
+
+            final var oldStatistics = new ArrayList<Duration>();
+            final var newStatistics = new ArrayList<Duration>();
+            for (int i = 0; i < iterations; i++) {
+                time(oldStatistics, () -> jdbc.query(OLD_STATISTICS_QUERY, (rs, row) -> rs.getString(5)).size());
+                time(newStatistics, () -> jdbc.query(STATISTICS_QUERY, (rs, row) -> rs.getString(1)).size());
+            }
+
+            System.out.printf("%,d metrics, %d companies, %d iterations%n", rows, companies, iterations);
+            report("Company costs, rows summed in Java", javaCosts);
+            report("Company costs, rows summed in the database", rawCosts);
+            report("Company costs, hourly rollups", rollupCosts);
+            report("Statistics, metric_cache loaded", oldStatistics);
+            report("Statistics, daily rollups", newStatistics);
+        }
+    }
+
+    private static List<BigDecimal> companyCostsInJava(JdbcTemplate jdbc, Map<Long, LlmModel> models, long companyId) {
+        final var now = LocalDateTime.now();
+        final var costs = new ArrayList<BigDecimal>();
+        for (final var start : List.of(now.minusHours(24), now.minusDays(7), now.minusDays(30))) {
+            costs.add(jdbc.query(OLD_COMPANY_COSTS_QUERY,
+                            (rs, row) -> models.get(rs.getLong(3)).calculate(rs.getInt(1), rs.getInt(2))
+                                    .setScale(5, RoundingMode.HALF_UP),
+                            companyId, start, now)
+                    .stream()
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        return costs;
+    }
+
+    private static List<BigDecimal> companyCosts(NamedParameterJdbcTemplate jdbc, String query, long companyId) {
+        final var now = LocalDateTime.now();
+        final var params = Map.<String, Object>of(
+                "companyId", companyId,
+                "dayStart", now.minusHours(24),
+                "weekStart", now.minusDays(7),
+                "monthStart", now.minusDays(30),
+                "endDate", now);
+        return jdbc.queryForObject(query, params,
+                (rs, row) -> List.of(rs.getBigDecimal("daily"), rs.getBigDecimal("weekly"),
+                        rs.getBigDecimal("monthly")));
+    }
+
+    /**
+     * The two runs take {@code now} a few milliseconds apart, so a message created in between can only move the
+     * totals by a single row.
+     */
+    private static boolean sameCosts(List<BigDecimal> expected, List<BigDecimal> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i).subtract(actual.get(i)).abs().compareTo(new BigDecimal("0.1")) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> T time(List<Duration> durations, Supplier<T> task) {
+        final var start = now();
+        final var result = task.get();
+        durations.add(Duration.between(start, now()));
+        return result;
+    }
+
+    private static void report(String label, List<Duration> durations) {
+        final var sorted = durations.stream().sorted().toList();
+        final var average = sorted.stream().mapToLong(Duration::toMillis).average().orElse(0);
+        System.out.printf("%-40s avg %8.1f ms, p50 %6d ms, max %6d ms%n", label, average,
+                sorted.get(sorted.size() / 2).toMillis(), sorted.getLast().toMillis());
+    }
+}
@@ -0,0 +1,112 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.repository.MetricsRollupRepository;
+import lombok.Getter;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.Instant.now;
+
+/**
+ * A PostgreSQL database with the application schema and a large seeded set of metrics, shared by the metrics
+ * benchmarks. Messages and metrics are spread over the last 60 days, with 1000 conversations per company.
+ * <p>
+ * Starts a PostgreSQL container unless {@code bench.jdbcUrl} (with {@code bench.username} and {@code bench.password})
+ * is set, in which case an already seeded database is reused.
+ */
+@Getter
+class MetricsDataset implements AutoCloseable {
+    private final PostgreSQLContainer<?> container;
+    private final DriverManagerDataSource dataSource;
+    private final JdbcTemplate jdbc;
+
+    MetricsDataset() {
+        if (System.getProperty("bench.jdbcUrl") != null) {
+            container = null;
+            dataSource = new DriverManagerDataSource(System.getProperty("bench.jdbcUrl"),
+                    System.getProperty("bench.username", "postgres"), System.getProperty("bench.password", "postgres"));
+        } else {
+            container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+            container.start();
+            dataSource = new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(),
+                    container.getPassword());
+        }
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Applies the migrations up to a version.
+     *
+     * @param target the last version to apply, or {@code "latest"}
+     */
+    public void migrate(String target) {
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+    }
+
+    /**
+     * Seeds the metrics unless an earlier run already did.
+     *
+     * @param rows      the number of metrics rows
+     * @param companies the number of companies they are spread over
+     */
+    public void seedIfEmpty(long rows, int companies) {
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM companies WHERE name LIKE 'Bench %'", Long.class) > 0) {
+            return;
+        }
+
+        final var start = now();
+        jdbc.update("INSERT INTO companies (name) SELECT 'Bench ' || i FROM generate_series(1, ?) i", companies);
+        jdbc.update("INSERT INTO users (username, password, email, company_id) " +
+                "SELECT 'bench' || company_id, 'x', 'bench' || company_id || '@example.com', company_id " +
+                "FROM companies WHERE name LIKE 'Bench %'");
+        jdbc.update("INSERT INTO projects (name, overview, company_id) " +
+                "SELECT 'Bench', 'Bench', company_id FROM companies WHERE name LIKE 'Bench %'");
+        // 1000 conversations per company
+        jdbc.update("INSERT INTO conversations (purpose, project_id, user_id) " +
+                "SELECT 'Bench', p.project_id, u.user_id FROM projects p " +
+                "JOIN users u ON u.company_id = p.company_id CROSS JOIN generate_series(1, 1000) " +
+                "WHERE p.name = 'Bench'");
+        jdbc.update("INSERT INTO messages (conversation_id, user_id, content, created_at) " +
+                "SELECT c.conversation_id, c.user_id, 'Benchmark message', " +
+                "LOCALTIMESTAMP - random() * INTERVAL '60 days' " +
+                "FROM generate_series(1, ?) g " +
+                "JOIN (SELECT conversation_id, user_id, row_number() OVER () - 1 AS rn FROM conversations " +
+                "WHERE purpose = 'Bench') c ON c.rn = g % (?::bigint * 1000)", rows, companies);
+        jdbc.update("INSERT INTO metrics (duration, input_tokens, output_tokens, llm_model_id, message_id, created_at) " +
+                "SELECT 500 + (random() * 2000)::int, (random() * 4000)::int, (random() * 1000)::int, " +
+                "(ARRAY(SELECT llm_model_id FROM llm_models ORDER BY llm_model_id))" +
+                "[1 + msg.message_id % (SELECT COUNT(*) FROM llm_models)], msg.message_id, msg.created_at " +
+                "FROM messages msg WHERE msg.content = 'Benchmark message'");
+        jdbc.update("INSERT INTO metric_cache (conversation_id, llm_model_id, total_duration, message_count, " +
+                "total_input_tokens, total_output_tokens) " +
+                "SELECT msg.conversation_id, m.llm_model_id, SUM(m.duration), COUNT(*), SUM(m.input_tokens), " +
+                "SUM(m.output_tokens) FROM metrics m JOIN messages msg ON msg.message_id = m.message_id " +
+                "WHERE msg.content = 'Benchmark message' GROUP BY msg.conversation_id, m.llm_model_id");
+
+        // Fold everything into the rollups, as the compactor would have done over time
+        final var named = new NamedParameterJdbcTemplate(jdbc);
+        final var lastId = jdbc.queryForObject("SELECT MAX(metric_id) FROM metrics", Long.class);
+        for (final var granularity : List.of("HOUR", "DAY")) {
+            named.update(MetricsRollupRepository.ADD_METRICS_QUERY,
+                    Map.of("granularity", granularity, "fromId", 0L, "toId", lastId));
+        }
+        jdbc.update("UPDATE metrics_rollup_state SET high_water_mark = ? WHERE name = 'metrics'", lastId);
+        jdbc.execute("ANALYZE");
+        System.out.printf("Seeded %,d metrics in %s%n", rows, Duration.between(start, now()));
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
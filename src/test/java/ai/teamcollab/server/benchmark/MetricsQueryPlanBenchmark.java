@@ -0,0 +1,97 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.repository.MetricsRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.Instant.now;
+
+/**
+ * Prints the plans and timings of the metrics page queries over a seeded dataset of {@code bench.rows} metrics (default
+ * 10,000,000), first on the schema before the metrics indexes and then after migrating to the latest version.
+ * <p>
+ * The original queries selected every metrics row whose ID was in an ordered subquery, so the database read and
+ * returned the whole table for the top 10 and for each page. They are compared with the SQL Hibernate generates for
+ * {@link MetricsRepository#findTop10ByOrderByDurationDescIdDesc()} and {@link MetricsRepository#findOlderThan}, without
+ * the joins of the entity graph, which are lookups by primary key.
+ * <p>
+ * See {@link MetricsDataset} for the database, which must not be migrated past version 6 yet. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.MetricsQueryPlanBenchmark}.
+ */
+public class MetricsQueryPlanBenchmark {
+
+    private static final String OLD_TOP_QUERY = "SELECT m.* FROM metrics m " +
+            "JOIN messages msg ON msg.message_id = m.message_id " +
+            "WHERE m.metric_id IN (SELECT m2.metric_id FROM metrics m2 ORDER BY m2.duration DESC)";
+
+    private static final String OLD_PAGE_QUERY = "SELECT m.* FROM metrics m ORDER BY m.metric_id DESC " +
+            "OFFSET 100000 LIMIT 10";
+
+    private static final String TOP_QUERY = "SELECT m.* FROM metrics m ORDER BY m.duration DESC, m.metric_id DESC " +
+            "LIMIT 10";
+
+    private static final String KEYSET_PAGE_QUERY = "SELECT m.* FROM metrics m " +
+            "WHERE (m.created_at, m.metric_id) < ('%s', %d) ORDER BY m.created_at DESC, m.metric_id DESC LIMIT 11";
+
+    private static final String CURSOR_QUERY = "SELECT created_at, metric_id FROM metrics " +
+            "ORDER BY created_at DESC, metric_id DESC OFFSET 100000 LIMIT 1";
+
+    public static void main(String[] args) {
+        final var rows = Long.getLong("bench.rows", 10_000_000);
+        final var iterations = Integer.getInteger("bench.iterations", 10);
+
+        try (final var dataset = new MetricsDataset()) {
+            dataset.migrate("6");
+            dataset.seedIfEmpty(rows, Integer.getInteger("bench.companies", 100));
+
+            // The keyset page starts from the cursor of the last row of the page before it
+            final var keysetPageQuery = dataset.getJdbc().queryForObject(CURSOR_QUERY, (rs, rowNum) ->
+                    KEYSET_PAGE_QUERY.formatted(rs.getTimestamp("created_at"), rs.getLong("metric_id")));
+            final var queries = new LinkedHashMap<String, String>();
+            queries.put("Top 10, IN subquery", OLD_TOP_QUERY);
+            queries.put("Top 10, ORDER BY LIMIT", TOP_QUERY);
+            queries.put("Page 10,001, OFFSET", OLD_PAGE_QUERY);
+            queries.put("Page 10,001, keyset", keysetPageQuery);
+
+            run(dataset, "Before the metrics indexes", queries, iterations);
+
+            dataset.migrate("latest");
+            dataset.getJdbc().execute("ANALYZE metrics");
+            run(dataset, "After the metrics indexes", queries, iterations);
+        }
+    }
+
+    private static void run(MetricsDataset dataset, String title, Map<String, String> queries, int iterations) {
+        final var jdbc = dataset.getJdbc();
+        System.out.printf("%n== %s ==%n", title);
+        for (final var query : queries.entrySet()) {
+            System.out.printf("%n-- %s%n", query.getKey());
+            jdbc.query("EXPLAIN (ANALYZE, BUFFERS) " + query.getValue(), rs -> {
+                System.out.println(rs.getString(1));
+            });
+        }
+
+        System.out.println();
+        for (final var query : queries.entrySet()) {
+            final var durations = new ArrayList<Duration>();
+            for (int i = 0; i < iterations; i++) {
+                final var start = now();
+                jdbc.query(query.getValue(), rs -> {
+                });
+                durations.add(Duration.between(start, now()));
+            }
+            report(query.getKey(), durations);
+        }
+    }
+
+    private static void report(String label, List<Duration> durations) {
+        final var sorted = durations.stream().sorted().toList();
+        final var average = sorted.stream().mapToLong(Duration::toMillis).average().orElse(0);
+        System.out.printf("%-40s avg %8.1f ms, p50 %6d ms, max %6d ms%n", label, average,
+                sorted.get(sorted.size() / 2).toMillis(), sorted.getLast().toMillis());
+    }
+}
@@ -0,0 +1,221 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.config.AiClientConfig;
+import ai.teamcollab.server.config.AiClientProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.LlmModel;
+import ai.teamcollab.server.domain.LlmProvider;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.SummaryMode;
+import ai.teamcollab.server.domain.SystemSettings;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.service.SystemSettingsService;
+import ai.teamcollab.server.service.domain.ChatContext;
+import ai.teamcollab.server.service.impl.AiModelFactory;
+import ai.teamcollab.server.service.impl.MessageFormatter;
+import ai.teamcollab.server.service.impl.PromptBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two {@link SummaryMode}s on a recorded conversation: three prompts that each carry the conversation
+ * history, sent concurrently, against one prompt that asks for all three summary fields as JSON. Wall time is the
+ * score; the {@code inputTokens} and {@code outputTokens} counters report the tokens billed per summary.
+ * <p>
+ * Each invocation sends real requests, so {@code OPENAI_API_KEY} must hold a valid key and the model can be chosen with
+ * {@code -Dsummary.model}. Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.SummaryModeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SummaryModeBenchmark {
+
+    /**
+     * Shape of the recorded conversation in {@code benchmark/summary-conversation.json}.
+     */
+    record RecordedConversation(String purpose, String projectOverview, List<RecordedAssistant> assistants,
+                                List<RecordedMessage> messages) {
+    }
+
+    record RecordedAssistant(String name, String expertise) {
+    }
+
+    record RecordedMessage(String sender, boolean assistant, String content) {
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Usage {
+        public long inputTokens;
+        public long outputTokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inputTokens = 0;
+            outputTokens = 0;
+        }
+
+        void add(ChatResponse response) {
+            final var usage = response.getMetadata().getUsage();
+            inputTokens += usage.getPromptTokens();
+            outputTokens += usage.getCompletionTokens();
+        }
+    }
+
+    @Param({"SEPARATE_CALLS", "SINGLE_CALL"})
+    public SummaryMode mode;
+
+    private Conversation conversation;
+    private ChatContext chatContext;
+    private PromptBuilder promptBuilder;
+    private ChatModel chatModel;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var recorded = loadConversation();
+
+        conversation = new Conversation(recorded.purpose(), User.builder().id(1L).username("owner").build());
+        final var assistantsByName = new HashMap<String, Assistant>();
+        var assistantId = 1L;
+        for (final var recordedAssistant : recorded.assistants()) {
+            final var assistant = Assistant.builder()
+                    .id(assistantId++)
+                    .name(recordedAssistant.name())
+                    .expertise(recordedAssistant.expertise())
+                    .build();
+            conversation.addAssistant(assistant);
+            assistantsByName.put(assistant.getName(), assistant);
+        }
+
+        final var messages = new ArrayList<Message>();
+        var messageId = 1L;
+        for (final var recordedMessage : recorded.messages()) {
+            final var message = Message.builder()
+                    .id(messageId++)
+                    .conversation(conversation)
+                    .content(recordedMessage.content());
+            if (recordedMessage.assistant()) {
+                message.assistant(assistantsByName.get(recordedMessage.sender()));
+            } else {
+                message.user(User.builder().username(recordedMessage.sender()).build());
+            }
+            messages.add(message.build());
+        }
+
+        chatContext = ChatContext.builder()
+                .purpose(recorded.purpose())
+                .projectOverview(recorded.projectOverview())
+                .lastMessages(messages)
+                .build();
+        promptBuilder = new PromptBuilder(new MessageFormatter());
+        chatModel = createSummaryModel();
+    }
+
+    @Benchmark
+    public List<String> summarize(Usage usage) {
+        if (mode == SummaryMode.SINGLE_CALL) {
+            return List.of(call(promptBuilder.buildStructuredSummaryPrompt(conversation, chatContext), usage));
+        }
+
+        final var prompts = List.of(
+                promptBuilder.buildTopicsPrompt(chatContext),
+                promptBuilder.buildTopicSummariesPrompt(chatContext),
+                promptBuilder.buildAssistantSummariesPrompt(conversation, chatContext));
+        final var futures = prompts.stream()
+                .map(prompt -> CompletableFuture.supplyAsync(() -> chatModel.call(prompt)))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .peek(usage::add)
+                .map(response -> response.getResult().getOutput().getText())
+                .toList();
+    }
+
+    private String call(Prompt prompt, Usage usage) {
+        final var response = chatModel.call(prompt);
+        usage.add(response);
+        return response.getResult().getOutput().getText();
+    }
+
+    private static RecordedConversation loadConversation() throws IOException {
+        try (final var input = SummaryModeBenchmark.class.getResourceAsStream("/benchmark/summary-conversation.json")) {
+            return new ObjectMapper().readValue(input, RecordedConversation.class);
+        }
+    }
+
+    private static ChatModel createSummaryModel() {
+        final var modelId = System.getProperty("summary.model", "gpt-4o-mini");
+        final var llmModel = LlmModel.builder()
+                .id(1L)
+                .name(modelId)
+                .modelId(modelId)
+                .label(modelId)
+                .temperature(0.2)
+                .inputPricePerMillion(BigDecimal.ZERO)
+                .outputPricePerMillion(BigDecimal.ZERO)
+                .provider(LlmProvider.builder()
+                        .id(1L)
+                        .name(LlmProvider.OPEN_AI)
+                        .build())
+                .build();
+        final var settings = SystemSettings.builder()
+                .llmModel(llmModel)
+                .summaryLlmModel(llmModel)
+                .assistantInteractionLlmModel(llmModel)
+                .build();
+        final var settingsService = new SystemSettingsService() {
+            @Override
+            public SystemSettings getCurrentSettings() {
+                return settings;
+            }
+
+            @Override
+            public SystemSettings updateSettings(@NonNull SystemSettings ignored) {
+                return settings;
+            }
+        };
+
+        final var properties = new AiClientProperties();
+        return new AiModelFactory(settingsService, new AiClientConfig().llmHttpClient(properties), properties)
+                .createSummaryModel();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SummaryModeBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,106 @@
+package ai.teamcollab.server.benchmark;
+
+import ai.teamcollab.server.config.TemplateProperties;
+import ai.teamcollab.server.service.domain.MessageRow;
+import ai.teamcollab.server.templates.MessageRowRenderer;
+import ai.teamcollab.server.templates.ThymeleafTemplateRender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.MESSAGE;
+
+/**
+ * Measures the rendering of a conversation's history as {@code /app/chat.join} does it: one
+ * {@link ThymeleafTemplateRender#renderToHtml} call per message row. Compares re-parsing the templates on every render
+ * ({@code spring.thymeleaf.cache=false}) with the template cache, and both with the {@link MessageRowRenderer} cache of
+ * rendered rows that a second user joining the same conversation hits.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ai.teamcollab.server.benchmark.TemplateRenderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    @Param({"false", "true"})
+    public boolean templateCache;
+
+    private ThymeleafTemplateRender render;
+    private MessageRowRenderer rowRenderer;
+    private List<MessageRow> history;
+
+    @Setup
+    public void setUp() {
+        final var resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(templateCache);
+
+        final var engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        render = new ThymeleafTemplateRender(engine);
+        rowRenderer = new MessageRowRenderer(render, new TemplateProperties());
+
+        final var createdAt = LocalDateTime.of(2025, 3, 1, 9, 30);
+        history = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> MessageRow.builder()
+                        .id(id)
+                        .username(id % 2 == 0 ? "alice" : null)
+                        .assistantName(id % 2 == 0 ? null : "Planner")
+                        .content("Message " + id + " about the release plan and who owns which part of it.")
+                        .conversationId(1L)
+                        .createdAt(createdAt.plusMinutes(id))
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public void renderToHtml(Blackhole blackhole) {
+        for (final var row : history) {
+            blackhole.consume(render.renderToHtml(CONVERSATION_MESSAGE_TEMPLATE, Map.of(MESSAGE, row)));
+        }
+    }
+
+    @Benchmark
+    public void renderedRowCache(Blackhole blackhole) {
+        for (final var row : history) {
+            blackhole.consume(rowRenderer.render(row));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateRenderBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,57 @@
+package ai.teamcollab.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    private final BoundedCache cache = new BoundedCache("test",
+            new EntityCacheProperties.Spec(100L, Duration.ofMinutes(5)));
+
+    @Test
+    void evict_withKeyPrefix_shouldOnlyEvictMatchingKeys() {
+        cache.put(List.of(1L, 10L), "company 1, conversation 10");
+        cache.put(List.of(1L, 11L), "company 1, conversation 11");
+        cache.put(List.of(2L, 20L), "company 2, conversation 20");
+        cache.put(1L, "not a list");
+
+        cache.evict(CacheKeyPrefix.of(1L));
+
+        assertThat(cache.get(List.of(1L, 10L))).isNull();
+        assertThat(cache.get(List.of(1L, 11L))).isNull();
+        assertThat(cache.get(List.of(2L, 20L))).isNotNull();
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    void getStatistics_shouldCountHitsAndMisses() {
+        cache.put("key", "value");
+
+        cache.get("key");
+        cache.get("key");
+        cache.get("missing");
+
+        final var statistics = cache.getStatistics();
+        assertThat(statistics.size()).isEqualTo(1);
+        assertThat(statistics.hits()).isEqualTo(2);
+        assertThat(statistics.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void specFor_shouldFallBackToDefaults() {
+        final var properties = new EntityCacheProperties();
+        final var override = new EntityCacheProperties.Spec();
+        override.setTtl(Duration.ofMinutes(1));
+        properties.getCaches().put("usersByCompany", override);
+
+        final var spec = properties.specFor("usersByCompany");
+
+        assertThat(spec.getTtl()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(spec.getMaxSize()).isEqualTo(properties.getDefaults().getMaxSize());
+        assertThat(properties.specFor("users").getTtl()).isEqualTo(properties.getDefaults().getTtl());
+    }
+}
@@ -0,0 +1,104 @@
+package ai.teamcollab.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two nodes, each with its own cache, sharing one PostgreSQL database.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresCacheInvalidationsBroadcastTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        nodeA = new Node();
+        nodeB = new Node();
+        awaitTrue(() -> nodeA.invalidations.isListening() && nodeB.invalidations.isListening());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        nodeA.invalidations.stop();
+        nodeB.invalidations.stop();
+    }
+
+    @Test
+    void evict_shouldEvictTheKeyOnTheOtherNode() throws InterruptedException {
+        nodeA.users.put(42L, "alice");
+        nodeB.users.put(42L, "alice");
+        nodeB.users.put(43L, "bob");
+
+        nodeA.users.evict(42L);
+
+        awaitTrue(() -> nodeB.users.get(42L) == null);
+        assertThat(nodeB.users.get(43L)).isNotNull();
+    }
+
+    @Test
+    void evict_withKeyTooLargeForANotification_shouldClearTheCacheOnTheOtherNode() throws InterruptedException {
+        final var key = "x".repeat(10_000);
+        nodeB.users.put(key, "alice");
+        nodeB.users.put(43L, "bob");
+
+        nodeA.users.evict(key);
+
+        awaitTrue(() -> nodeB.users.get(43L) == null);
+        assertThat(nodeB.users.get(key)).isNull();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static final class Node {
+        private final PostgresCacheInvalidations invalidations;
+        private final BoundedCache users;
+
+        @SuppressWarnings("unchecked")
+        private Node() {
+            final var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                    postgres.getPassword());
+            final ObjectProvider<CacheManager> provider = mock(ObjectProvider.class);
+            invalidations = new PostgresCacheInvalidations(dataSource, new JdbcTemplate(dataSource),
+                    new ObjectMapper(), provider, new EntityCacheProperties.Invalidation());
+            users = new BoundedCache("users", new EntityCacheProperties.Spec(100L, Duration.ofMinutes(5)),
+                    invalidations);
+            final var cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(List.of(users));
+            cacheManager.afterPropertiesSet();
+            when(provider.getObject()).thenReturn(cacheManager);
+            invalidations.start();
+        }
+    }
+}
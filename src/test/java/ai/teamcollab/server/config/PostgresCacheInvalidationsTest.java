@@ -0,0 +1,81 @@
+package ai.teamcollab.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostgresCacheInvalidationsTest {
+
+    private final BoundedCache users = new BoundedCache("users",
+            new EntityCacheProperties.Spec(100L, Duration.ofMinutes(5)));
+    private PostgresCacheInvalidations invalidations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        final var cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(users));
+        cacheManager.afterPropertiesSet();
+        final ObjectProvider<CacheManager> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(cacheManager);
+        invalidations = new PostgresCacheInvalidations(null, null, new ObjectMapper(), provider,
+                new EntityCacheProperties.Invalidation());
+    }
+
+    @Test
+    void encodeKey_shouldDecodeToAnEqualKey() {
+        for (final var key : List.of(42L, 7, "gpt-4o", List.of("gpt-4o", 3L), CacheKeyPrefix.of(5L),
+                Arrays.asList(null, 1L))) {
+            assertThat(PostgresCacheInvalidations.decodeKey(PostgresCacheInvalidations.encodeKey(key)))
+                    .isEqualTo(key);
+        }
+    }
+
+    @Test
+    void encodeKey_withUnsupportedType_shouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> PostgresCacheInvalidations.encodeKey(new Object()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void apply_fromAnotherNode_shouldEvictTheKey() {
+        users.put(42L, "alice");
+        users.put(43L, "bob");
+
+        invalidations.apply("{\"node\":\"other\",\"cache\":\"users\",\"key\":{\"L\":42}}");
+
+        assertThat(users.get(42L)).isNull();
+        assertThat(users.get(43L)).isNotNull();
+    }
+
+    @Test
+    void apply_withoutKey_shouldClearTheCache() {
+        users.put(42L, "alice");
+
+        invalidations.apply("{\"node\":\"other\",\"cache\":\"users\"}");
+
+        assertThat(users.get(42L)).isNull();
+    }
+
+    @Test
+    void apply_withMalformedPayload_shouldBeIgnored() {
+        users.put(42L, "alice");
+
+        invalidations.apply("not json");
+        invalidations.apply("{\"node\":\"other\",\"cache\":\"users\",\"key\":{\"X\":1}}");
+
+        assertThat(users.get(42L)).isNotNull();
+    }
+}
@@ -0,0 +1,143 @@
+package ai.teamcollab.server.service;
+
+import ai.teamcollab.server.config.ChatStreamingProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.Company;
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.Project;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.repository.ConversationRepository;
+import ai.teamcollab.server.repository.MessageRepository;
+import ai.teamcollab.server.repository.UserRepository;
+import ai.teamcollab.server.service.domain.MessageResponse;
+import ai.teamcollab.server.templates.AssistantStatusRenderer;
+import ai.teamcollab.server.templates.ThymeleafTemplateRender;
+import ai.teamcollab.server.ws.domain.WsMessageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import static ai.teamcollab.server.controller.WebSocketController.DIRECT_MESSAGE_TOPIC;
+import static ai.teamcollab.server.controller.WebSocketController.ERROR_EVENT_TOPIC;
+import static ai.teamcollab.server.templates.TemplatePath.REMOVE_TEMPLATE;
+import static ai.teamcollab.server.templates.TemplateVariableName.TARGET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationServiceTest {
+
+    @Mock
+    private ChatService chatService;
+    @Mock
+    private MessageService messageService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MessageRepository messageRepository;
+    @Mock
+    private ConversationRepository conversationRepository;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private ThymeleafTemplateRender thymeleafTemplateRender;
+    @Mock
+    private AssistantStatusRenderer assistantStatusRenderer;
+    @Mock
+    private AuditService auditService;
+
+    private final ChatStreamingProperties streamingProperties = new ChatStreamingProperties();
+    private final Assistant architect = Assistant.builder().id(1L).name("Architect").expertise("System design").build();
+    private final Assistant tester = Assistant.builder().id(2L).name("Tester").expertise("QA").build();
+
+    private ConversationService conversationService;
+    private Conversation conversation;
+    private Message message;
+
+    @BeforeEach
+    void setUp() {
+        conversationService = new ConversationService(chatService, messageService, userRepository, messageRepository,
+                conversationRepository, messagingTemplate, thymeleafTemplateRender, assistantStatusRenderer,
+                auditService, streamingProperties);
+        streamingProperties.setEnabled(true);
+
+        final var user = User.builder()
+                .id(7L)
+                .username("alice")
+                .company(Company.builder().id(1L).name("Acme").build())
+                .roles(new HashSet<>())
+                .build();
+        final var project = new Project();
+        project.setOverview("A chat application");
+        conversation = new Conversation("Plan the release", user);
+        conversation.setId(5L);
+        conversation.setProject(project);
+        conversation.addAssistant(architect);
+        conversation.addAssistant(tester);
+        message = Message.builder()
+                .id(10L)
+                .content("How should we test the schema?")
+                .conversation(conversation)
+                .user(user)
+                .build();
+
+        when(messageRepository.findById(10L)).thenReturn(Optional.of(message));
+        when(conversationRepository.findByIdWithAssistant(5L)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findTop10ByConversationIdAndDeletedFalseOrderByCreatedAtDesc(5L))
+                .thenReturn(new ArrayList<>());
+        lenient().when(assistantStatusRenderer.render(any(), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        lenient().when(thymeleafTemplateRender.renderToHtml(eq(REMOVE_TEMPLATE), any()))
+                .thenReturn("remove");
+    }
+
+    @Test
+    void sendMessage_whenOneReplyFails_shouldRemoveItsStreamAndShowTheOthersReady() {
+        when(chatService.stream(eq(conversation), eq(message), any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<BiConsumer<Assistant, Throwable>>getArgument(5)
+                    .accept(tester, new IllegalStateException("Model unavailable"));
+            return CompletableFuture.completedFuture(List.<MessageResponse>of());
+        });
+
+        conversationService.sendMessage(10L, "alice").join();
+
+        verify(thymeleafTemplateRender).renderToHtml(REMOVE_TEMPLATE, Map.of(TARGET, "stream_10_2"));
+        verify(assistantStatusRenderer).render(List.of(tester), "Failed to reply");
+        verify(messagingTemplate).convertAndSendToUser("alice", ERROR_EVENT_TOPIC,
+                "Tester could not reply, please try again");
+        verify(assistantStatusRenderer).render(List.of(architect), "Ready");
+        verify(assistantStatusRenderer, never()).render(argThat(assistants -> assistants.contains(tester)), eq("Ready"));
+    }
+
+    @Test
+    void sendMessage_whenProcessingFails_shouldStillShowTheAssistantsReady() {
+        when(chatService.stream(eq(conversation), eq(message), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Spending limit reached")));
+
+        final var result = conversationService.sendMessage(10L, "alice");
+
+        assertThat(result).isCompletedExceptionally();
+        verify(assistantStatusRenderer).render(argThat(assistants -> assistants.size() == 2), eq("Ready"));
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq(DIRECT_MESSAGE_TOPIC),
+                any(WsMessageResponse.class));
+    }
+}
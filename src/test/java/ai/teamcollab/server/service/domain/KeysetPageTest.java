@@ -0,0 +1,67 @@
+package ai.teamcollab.server.service.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPageTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void fromNewestFirst_withExtraRow_shouldLinkToOlderRows() {
+        final var page = KeysetPage.fromNewestFirst(List.of(5L, 4L, 3L), 2, false, KeysetPageTest::cursorOf);
+
+        assertThat(page.content()).containsExactly(5L, 4L);
+        assertThat(page.olderCursor()).isEqualTo(cursorOf(4L));
+        assertThat(page.hasNewer()).isFalse();
+    }
+
+    @Test
+    void fromNewestFirst_readFromCursor_shouldLinkToNewerRows() {
+        final var page = KeysetPage.fromNewestFirst(List.of(2L, 1L), 2, true, KeysetPageTest::cursorOf);
+
+        assertThat(page.content()).containsExactly(2L, 1L);
+        assertThat(page.hasOlder()).isFalse();
+        assertThat(page.newerCursor()).isEqualTo(cursorOf(2L));
+    }
+
+    @Test
+    void fromOldestFirst_shouldReturnRowsNewestFirst() {
+        final var page = KeysetPage.fromOldestFirst(List.of(3L, 4L, 5L), 2, KeysetPageTest::cursorOf);
+
+        assertThat(page.content()).containsExactly(4L, 3L);
+        assertThat(page.olderCursor()).isEqualTo(cursorOf(3L));
+        assertThat(page.newerCursor()).isEqualTo(cursorOf(4L));
+    }
+
+    @Test
+    void fromOldestFirst_withoutRows_shouldNotLinkAnywhere() {
+        final var page = KeysetPage.fromOldestFirst(List.<Long>of(), 2, KeysetPageTest::cursorOf);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.hasOlder()).isFalse();
+        assertThat(page.hasNewer()).isFalse();
+    }
+
+    @Test
+    void pageCursor_shouldReadBackWhatItWrites() {
+        final var cursor = new PageCursor(NOW, 42L);
+
+        assertThat(PageCursor.valueOf(cursor.toString())).isEqualTo(cursor);
+    }
+
+    @Test
+    void pageCursor_withInvalidValue_shouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> PageCursor.valueOf("42")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.valueOf("yesterday_42")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PageCursor cursorOf(Long id) {
+        return new PageCursor(NOW.minusMinutes(id), id);
+    }
+}
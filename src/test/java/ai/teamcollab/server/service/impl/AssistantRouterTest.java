@@ -0,0 +1,87 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssistantRouterTest {
+
+    private AssistantRouter router;
+    private Assistant ann;
+    private Assistant anna;
+    private Assistant bob;
+
+    @BeforeEach
+    void setUp() {
+        router = new AssistantRouter();
+        ann = Assistant.builder().id(1L).name("Ann").expertise("Databases").build();
+        anna = Assistant.builder().id(2L).name("Anna").expertise("Frontend").build();
+        bob = Assistant.builder().id(3L).name("Bob").expertise("Security").build();
+    }
+
+    @Test
+    void whenOnlyOneAssistantIsActive_thenItResponds() {
+        var decision = router.route(message("Anything at all"), List.of(bob));
+
+        assertThat(decision).contains(List.of(3L));
+    }
+
+    @Test
+    void whenAssistantsAreMentioned_thenOnlyThoseRespond() {
+        var decision = router.route(message("@anna can you look at the layout?"), List.of(ann, anna, bob));
+
+        assertThat(decision).contains(List.of(2L));
+    }
+
+    @Test
+    void whenMessageIsAStatement_thenNoAssistantResponds() {
+        var decision = router.route(message("I pushed the migration to staging."), List.of(ann, anna, bob));
+
+        assertThat(decision).contains(List.of());
+    }
+
+    @Test
+    void whenMessageIsAQuestion_thenTheLlmDecides() {
+        var decision = router.route(message("How should we index the audit table"), List.of(ann, anna, bob));
+
+        assertThat(decision).isEmpty();
+    }
+
+    @Test
+    void countersTrackHitsMissesAndFallbacks() {
+        router.route(message("Thanks, that works."), List.of(ann, bob));
+        router.route(message("Which cipher suites should we allow?"), List.of(ann, bob));
+        router.recordLlmDecision(400);
+        router.recordFallback();
+
+        var statistics = router.getStatistics();
+
+        assertThat(statistics.hits()).isEqualTo(1);
+        assertThat(statistics.misses()).isEqualTo(1);
+        assertThat(statistics.fallbacks()).isEqualTo(1);
+        assertThat(statistics.hitRate()).isEqualTo(0.5);
+        assertThat(statistics.estimatedSavedDuration()).isEqualTo(400);
+    }
+
+    @Test
+    void averageLlmDurationCountsOnlyTheLlmCalls() {
+        router.route(message("Which cipher suites should we allow?"), List.of(ann, bob));
+        router.route(message("How should we index the audit table"), List.of(ann, bob));
+        router.route(message("What about the retention period?"), List.of(ann, bob));
+        router.recordLlmDecision(300);
+
+        var statistics = router.getStatistics();
+
+        assertThat(statistics.misses()).isEqualTo(3);
+        assertThat(statistics.averageLlmDuration()).isEqualTo(300);
+    }
+
+    private static Message message(String content) {
+        return Message.builder().content(content).build();
+    }
+}
@@ -0,0 +1,90 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AuditProperties;
+import ai.teamcollab.server.repository.AuditRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPartitionMaintainerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2025, 3);
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AuditProperties properties;
+    private AuditPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuditProperties();
+        properties.setPartitionsAhead(2);
+        properties.setRetentionMonths(12);
+        maintainer = new AuditPartitionMaintainer(auditRepository, properties, transactionTemplate);
+    }
+
+    @Test
+    void maintain_shouldCreateMissingMonthsAhead() {
+        when(auditRepository.findPartitionMonths()).thenReturn(List.of(CURRENT, CURRENT.plusMonths(1)));
+
+        maintainer.maintain(CURRENT);
+
+        verify(auditRepository).createPartition(CURRENT.plusMonths(2));
+        verify(auditRepository, never()).createPartition(CURRENT);
+        verify(auditRepository, never()).createPartition(CURRENT.plusMonths(3));
+    }
+
+    @Test
+    void maintain_shouldDetachMonthsPastRetention() {
+        when(auditRepository.findPartitionMonths()).thenReturn(List.of(
+                CURRENT.minusMonths(14), CURRENT.minusMonths(13), CURRENT.minusMonths(12),
+                CURRENT, CURRENT.plusMonths(1), CURRENT.plusMonths(2)));
+
+        maintainer.maintain(CURRENT);
+
+        verify(auditRepository).detachPartition(CURRENT.minusMonths(14));
+        verify(auditRepository).detachPartition(CURRENT.minusMonths(13));
+        verify(auditRepository, never()).detachPartition(CURRENT.minusMonths(12));
+        verify(auditRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    void maintain_withDropRetention_shouldDropMonthsPastRetention() {
+        properties.setRetentionAction(AuditProperties.RetentionAction.DROP);
+        when(auditRepository.findPartitionMonths()).thenReturn(List.of(
+                CURRENT.minusMonths(13), CURRENT, CURRENT.plusMonths(1), CURRENT.plusMonths(2)));
+
+        maintainer.maintain(CURRENT);
+
+        verify(auditRepository).dropPartition(CURRENT.minusMonths(13));
+        verify(auditRepository, never()).detachPartition(any());
+    }
+
+    @Test
+    void maintain_withoutRetention_shouldKeepEveryMonth() {
+        properties.setRetentionMonths(0);
+        when(auditRepository.findPartitionMonths()).thenReturn(List.of(
+                CURRENT.minusMonths(36), CURRENT, CURRENT.plusMonths(1), CURRENT.plusMonths(2)));
+
+        maintainer.maintain(CURRENT);
+
+        verify(auditRepository, never()).detachPartition(any());
+        verify(auditRepository, never()).dropPartition(any());
+    }
+}
@@ -0,0 +1,112 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AuditProperties;
+import ai.teamcollab.server.domain.Audit;
+import ai.teamcollab.server.repository.AuditRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static ai.teamcollab.server.domain.Audit.AuditActionType.LOGIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    private AuditProperties properties;
+    private AuditWriter writer;
+    private final List<Audit> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuditProperties();
+        properties.setCapacity(2);
+        properties.setBatchSize(10);
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+        writer = new AuditWriter(auditRepository, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void submit_waitForFlush_shouldReturnOnceWritten() {
+        properties.setDurability(AuditProperties.Durability.WAIT_FOR_FLUSH);
+        when(auditRepository.insertAll(anyCollection())).thenAnswer(invocation -> {
+            final Collection<Audit> audits = invocation.getArgument(0);
+            inserted.addAll(audits);
+            return audits.size();
+        });
+        writer.start();
+
+        final var audit = audit("alice");
+        writer.submit(audit);
+
+        assertThat(inserted).containsExactly(audit);
+        assertThat(writer.getStatistics().written()).isEqualTo(1);
+        assertThat(writer.getStatistics().batches()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_fireAndForgetWithFullBuffer_shouldDropEvent() throws InterruptedException {
+        final var writing = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        when(auditRepository.insertAll(anyCollection())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.<Collection<Audit>>getArgument(0).size();
+        });
+        writer.start();
+
+        // The first event holds the writer, the next two fill the buffer
+        writer.submit(audit("alice"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(audit("bob"));
+        writer.submit(audit("carol"));
+        writer.submit(audit("dave"));
+
+        final var statistics = writer.getStatistics();
+        release.countDown();
+        assertThat(statistics.enqueued()).isEqualTo(3);
+        assertThat(statistics.dropped()).isEqualTo(1);
+        assertThat(statistics.buffered()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_whenInsertFails_shouldCountFailedEvents() {
+        properties.setDurability(AuditProperties.Durability.WAIT_FOR_FLUSH);
+        when(auditRepository.insertAll(anyCollection())).thenThrow(new IllegalStateException("Database down"));
+        writer.start();
+
+        writer.submit(audit("alice"));
+
+        assertThat(writer.getStatistics().failed()).isEqualTo(1);
+        assertThat(writer.getStatistics().written()).isZero();
+    }
+
+    private static Audit audit(String username) {
+        return Audit.builder()
+                .actionType(LOGIN)
+                .username(username)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
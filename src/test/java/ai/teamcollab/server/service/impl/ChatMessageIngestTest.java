@@ -0,0 +1,188 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AsyncProperties;
+import ai.teamcollab.server.controller.domain.WsMessage;
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.LoginUserDetails;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.service.ConversationService;
+import ai.teamcollab.server.templates.AssistantStatusRenderer;
+import ai.teamcollab.server.templates.ThymeleafTemplateRender;
+import ai.teamcollab.server.ws.domain.WsMessageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ai.teamcollab.server.controller.WebSocketController.DIRECT_MESSAGE_TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageIngestTest {
+
+    @Mock
+    private ConversationService conversationService;
+    @Mock
+    private ThymeleafTemplateRender thymeleafTemplateRender;
+    @Mock
+    private AssistantStatusRenderer assistantStatusRenderer;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final LoginUserDetails user = new LoginUserDetails(User.builder()
+            .id(7L)
+            .username("alice")
+            .roles(new HashSet<>())
+            .build());
+    private ChatMessageIngest ingest;
+
+    @BeforeEach
+    void setUp() {
+        final var properties = new AsyncProperties();
+        properties.setChatIngest(new AsyncProperties.Pool(1, 2, 1));
+        ingest = new ChatMessageIngest(conversationService, thymeleafTemplateRender, assistantStatusRenderer,
+                messagingTemplate, tasks::add, properties);
+
+        final var conversation = new Conversation();
+        conversation.setId(1L);
+        lenient().when(conversationService.findConversationByIdWithAssistant(anyLong())).thenReturn(conversation);
+        lenient().when(conversationService.addToConversation(anyLong(), any(), anyLong())).thenAnswer(invocation -> {
+            final Message message = invocation.getArgument(1);
+            message.setId(100L);
+            message.setCreatedAt(LocalDateTime.now());
+            return message;
+        });
+        lenient().when(thymeleafTemplateRender.renderToHtml(any(), any())).thenReturn("<turbo-stream/>");
+        lenient().when(assistantStatusRenderer.render(any(), any())).thenReturn("<turbo-stream/>");
+    }
+
+    @Test
+    void submit_shouldOnlyQueueTheMessage() {
+        ingest.submit(message(1L, "hello", "c1"), user);
+
+        assertThat(tasks).hasSize(1);
+        assertThat(ingest.getPending()).isEqualTo(1);
+        verifyNoInteractions(conversationService, messagingTemplate);
+    }
+
+    @Test
+    void worker_shouldSaveTheMessageAndSendItBeforeTheReplies() {
+        ingest.submit(message(1L, "hello", "c1"), user);
+
+        tasks.poll().run();
+
+        final var order = inOrder(conversationService, messagingTemplate);
+        order.verify(conversationService).addToConversation(eq(1L), any(), eq(7L));
+        order.verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq(DIRECT_MESSAGE_TOPIC),
+                any(WsMessageResponse.class));
+        order.verify(conversationService).sendMessage(100L, "alice");
+        assertThat(ingest.getPending()).isZero();
+    }
+
+    @Test
+    void messagesOfAConversation_shouldBeHandledOneAtATime() {
+        ingest.submit(message(1L, "first", "c1"), user);
+        ingest.submit(message(1L, "second", "c2"), user);
+
+        assertThat(tasks).hasSize(1);
+        tasks.poll().run();
+        assertThat(tasks).hasSize(1);
+        tasks.poll().run();
+
+        assertThat(tasks).isEmpty();
+        assertThat(ingest.getPending()).isZero();
+    }
+
+    @Test
+    void submit_whenFull_shouldThrowIllegalStateException() {
+        ingest.submit(message(1L, "first", "c1"), user);
+        ingest.submit(message(2L, "second", "c2"), user);
+        ingest.submit(message(3L, "third", "c3"), user);
+
+        assertThatThrownBy(() -> ingest.submit(message(4L, "fourth", "c4"), user))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void submit_withBlankContent_shouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> ingest.submit(message(1L, " ", "c1"), user))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ingest.submit(message(1L, "hello", "<script>"), user))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void worker_whenSavingFails_shouldSendAnError() {
+        doThrow(new IllegalStateException("database down"))
+                .when(conversationService).addToConversation(anyLong(), any(), anyLong());
+        ingest.submit(message(1L, "hello", "c1"), user);
+
+        tasks.poll().run();
+
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq("/queue/errors"), any(String.class));
+        assertThat(ingest.getPending()).isZero();
+    }
+
+    @Test
+    void submit_whenTheExecutorRejectsTheMessage_shouldSendAnErrorAndFreeTheConversation() {
+        final var full = new AtomicBoolean();
+        final var properties = new AsyncProperties();
+        properties.setChatIngest(new AsyncProperties.Pool(1, 2, 1));
+        final var rejecting = new ChatMessageIngest(conversationService, thymeleafTemplateRender,
+                assistantStatusRenderer, messagingTemplate, command -> {
+            if (full.get()) {
+                throw new RejectedExecutionException("Executor is full");
+            }
+            tasks.add(command);
+        }, properties);
+
+        rejecting.submit(message(1L, "first", "c1"), user);
+        full.set(true);
+        rejecting.submit(message(1L, "second", "c2"), user);
+        rejecting.submit(message(2L, "other", "c3"), user);
+
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq("/queue/errors"), any(String.class));
+        assertThat(rejecting.getPending()).isEqualTo(2);
+
+        // Running the first message hands the second to the executor, which rejects it
+        tasks.poll().run();
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice"), eq("/queue/errors"), any(String.class));
+        assertThat(rejecting.getPending()).isZero();
+
+        // Nothing is left behind for the conversation, so its next message is queued
+        full.set(false);
+        rejecting.submit(message(1L, "third", "c4"), user);
+        assertThat(tasks).hasSize(1);
+        assertThat(rejecting.getPending()).isEqualTo(1);
+    }
+
+    private static WsMessage message(long conversationId, String content, String clientId) {
+        return WsMessage.builder()
+                .conversationId(conversationId)
+                .content(content)
+                .clientId(clientId)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Company;
+import ai.teamcollab.server.domain.LlmModel;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.Metrics;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.repository.CompanyMonthlySpendRepository;
+import ai.teamcollab.server.repository.MetricsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompanySpendTrackerTest {
+
+    @Mock
+    private CompanyMonthlySpendRepository spendRepository;
+
+    @Mock
+    private MetricsRepository metricsRepository;
+
+    private CompanySpendTracker tracker;
+    private User user;
+    private LlmModel llmModel;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new CompanySpendTracker(spendRepository, metricsRepository);
+        user = User.builder().id(1L).company(Company.builder().id(1L).build()).build();
+        llmModel = LlmModel.builder()
+                .id(1L)
+                .inputPricePerMillion(new BigDecimal("10.00"))
+                .outputPricePerMillion(new BigDecimal("30.00"))
+                .build();
+    }
+
+    @Test
+    void whenMetricsAreRecorded_thenSpendIsUpdatedWithoutQueryingAgain() {
+        when(spendRepository.findTotalCost(1L, YearMonth.now().atDay(1))).thenReturn(Optional.of(new BigDecimal("5")));
+
+        tracker.record(metrics(1000));
+        tracker.record(metrics(1000));
+
+        assertThat(tracker.getCurrentMonthSpend(1L)).isEqualByComparingTo("5.02");
+        verify(spendRepository, times(1)).findTotalCost(any(), any());
+    }
+
+    @Test
+    void whenSpendIsFlushed_thenDeltaIsWrittenAndTotalIsReadBack() {
+        final var month = YearMonth.now().atDay(1);
+        when(spendRepository.findTotalCost(1L, month))
+                .thenReturn(Optional.of(new BigDecimal("5")))
+                .thenReturn(Optional.of(new BigDecimal("7.5")));
+
+        tracker.record(metrics(1000));
+        tracker.flush();
+
+        verify(spendRepository).addToTotalCost(eq(1L), eq(month), eq(new BigDecimal("0.01000")), any());
+        assertThat(tracker.getCurrentMonthSpend(1L)).isEqualByComparingTo("7.5");
+    }
+
+    @Test
+    void whenSpendIsReconciled_thenTotalMatchesTheMetrics() {
+        final var cost = mock(MetricsRepository.CompanyCost.class);
+        when(cost.getCompanyId()).thenReturn(1L);
+        when(cost.getTotalCost()).thenReturn(new BigDecimal("3"));
+        when(metricsRepository.sumCostByCompany(any(), any())).thenReturn(List.of(cost));
+        when(spendRepository.findTotalCost(1L, YearMonth.now().atDay(1))).thenReturn(Optional.of(new BigDecimal("5")));
+
+        assertThat(tracker.getCurrentMonthSpend(1L)).isEqualByComparingTo("5");
+        tracker.reconcile();
+
+        assertThat(tracker.getCurrentMonthSpend(1L)).isEqualByComparingTo("3");
+        verify(spendRepository).setTotalCost(eq(1L), eq(YearMonth.now().atDay(1)), eq(new BigDecimal("3")), any());
+    }
+
+    private Metrics metrics(int inputTokens) {
+        final var message = Message.builder()
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return Metrics.builder()
+                .inputTokens(inputTokens)
+                .llmModel(llmModel)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.AsyncProperties;
+import ai.teamcollab.server.config.ChatStreamingProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.domain.Company;
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.User;
+import ai.teamcollab.server.service.domain.ChatContext;
+import ai.teamcollab.server.service.domain.MessageResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageProcessorTest {
+
+    @Mock
+    private AssistantInteractionDecider assistantInteractionDecider;
+    @Mock
+    private AiModelFactory aiModelFactory;
+    @Mock
+    private CompanySpendTracker companySpendTracker;
+    @Mock
+    private MetricCacheAccumulator metricCacheAccumulator;
+    @Mock
+    private ChatModel chatModel;
+
+    private final AsyncProperties asyncProperties = new AsyncProperties();
+    private final ChatStreamingProperties streamingProperties = new ChatStreamingProperties();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final PromptBuilder promptBuilder = spy(new PromptBuilder(new MessageFormatter()));
+
+    private final Assistant architect = Assistant.builder().id(1L).name("Architect").expertise("System design").build();
+    private final Assistant tester = Assistant.builder().id(2L).name("Tester").expertise("QA").build();
+    private final Assistant writer = Assistant.builder().id(3L).name("Writer").expertise("Documentation").build();
+    private final Message recent = Message.builder().id(10L).content("How should we test the schema?").build();
+    private final ChatContext chatContext = ChatContext.builder()
+            .purpose("Plan the release")
+            .projectOverview("A chat application")
+            .lastMessages(List.of())
+            .build();
+
+    private MessageProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new MessageProcessor(assistantInteractionDecider, aiModelFactory,
+                promptBuilder, companySpendTracker, metricCacheAccumulator,
+                streamingProperties, new CompanyConcurrencyLimiter(asyncProperties),
+                new ConversationConcurrencyLimiter(asyncProperties), executor);
+
+        lenient().when(aiModelFactory.createModel(any())).thenReturn(chatModel);
+        // Every assistant offered to the router is chosen
+        lenient().when(assistantInteractionDecider.decideAssistantsToRespond(any(), any(), anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Assistant>>getArgument(2).stream()
+                        .map(Assistant::getId)
+                        .toList());
+        lenient().when(chatModel.call(any(Prompt.class))).thenAnswer(invocation ->
+                response("Reply to " + invocation.<Prompt>getArgument(0).getInstructions().getFirst().getText()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void process_shouldLeaveMutedAssistantsOutOfRoutingAndReplies() {
+        final var conversation = conversation(List.of(architect, tester), List.of(writer));
+
+        final var replies = processor.process(conversation, recent, chatContext, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        verify(assistantInteractionDecider).decideAssistantsToRespond(eq(conversation), eq(recent),
+                argThat(assistants -> assistants.size() == 2 && assistants.containsAll(List.of(architect, tester))));
+        assertThat(replies).extracting(MessageResponse::getAssistant).containsExactlyInAnyOrder(architect, tester);
+        verify(chatModel, times(2)).call(any(Prompt.class));
+    }
+
+    @Test
+    void process_shouldSendEachAssistantItsOwnPrompt() {
+        final var conversation = conversation(List.of(architect, tester), List.of(writer));
+
+        final var replies = processor.process(conversation, recent, chatContext, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        assertThat(replies).hasSize(2).allSatisfy(reply -> assertThat(reply.getContent())
+                .startsWith("Reply to You are " + reply.getAssistant().getName() + ","));
+        verify(promptBuilder, never()).buildAssistantMessagePrompt(any(), any(), eq(writer), any());
+    }
+
+    @Test
+    void process_whenEveryAssistantIsMuted_shouldNotReply() {
+        final var conversation = conversation(List.of(), List.of(writer));
+
+        final var replies = processor.process(conversation, recent, chatContext, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        assertThat(replies).isEmpty();
+        verifyNoInteractions(assistantInteractionDecider);
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void process_whenOneReplyFails_shouldDeliverTheOthersAndReportTheFailure() {
+        final var conversation = conversation(List.of(architect, tester), List.of());
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            final var instructions = invocation.<Prompt>getArgument(0).getInstructions().getFirst().getText();
+            if (instructions.startsWith("You are Tester,")) {
+                throw new IllegalStateException("Model unavailable");
+            }
+            return response("Reply to " + instructions);
+        });
+        final var delivered = new CopyOnWriteArrayList<Assistant>();
+        final var failures = new ConcurrentHashMap<Assistant, Throwable>();
+
+        final var replies = processor.process(conversation, recent, chatContext,
+                reply -> delivered.add(reply.getAssistant()), failures::put).join();
+
+        assertThat(replies).extracting(MessageResponse::getAssistant).containsExactly(architect);
+        assertThat(delivered).containsExactly(architect);
+        assertThat(failures).containsOnlyKeys(tester);
+        assertThat(failures.get(tester)).hasMessageContaining("Model unavailable");
+    }
+
+    @Test
+    void process_shouldNotExceedTheRepliesAllowedPerConversation() {
+        asyncProperties.setMaxConcurrentRepliesPerConversation(1);
+        final var conversation = conversation(List.of(architect, tester, writer), List.of());
+        final var running = new AtomicInteger();
+        final var maxRunning = new AtomicInteger();
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return response("Reply");
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        final var replies = processor.process(conversation, recent, chatContext, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        assertThat(replies).hasSize(3);
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    void stream_shouldCoalesceTokensIntoChunks() {
+        streamingProperties.setMaxTokensPerChunk(2);
+        streamingProperties.setFlushInterval(Duration.ofMinutes(1));
+        final var conversation = conversation(List.of(architect), List.of());
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.just("a", "b", "c", "d", "e", "")
+                .map(MessageProcessorTest::response));
+        final var chunks = new CopyOnWriteArrayList<String>();
+
+        final var replies = processor.stream(conversation, recent, chatContext, (assistant, chunk) -> {
+            assertThat(assistant).isEqualTo(architect);
+            chunks.add(chunk);
+        }, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        assertThat(chunks).containsExactly("ab", "cd", "e");
+        assertThat(replies).singleElement().satisfies(reply -> {
+            assertThat(reply.getContent()).isEqualTo("abcde");
+            assertThat(reply.getMetrics().getInputTokens()).isEqualTo(12);
+            assertThat(reply.getMetrics().getOutputTokens()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void stream_shouldOnlyAskForUsageOnStreamedRequests() {
+        final var conversation = conversation(List.of(architect), List.of());
+        when(chatModel.stream(any(Prompt.class))).thenReturn(Flux.just("a").map(MessageProcessorTest::response));
+
+        processor.process(conversation, recent, chatContext, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+        processor.stream(conversation, recent, chatContext, (assistant, chunk) -> {
+        }, reply -> {
+        }, (assistant, failure) -> {
+        }).join();
+
+        verify(chatModel).call(argThat((Prompt prompt) -> prompt.getOptions() == null));
+        verify(chatModel).stream(argThat((Prompt prompt) -> prompt.getOptions() instanceof OpenAiChatOptions options
+                && Boolean.TRUE.equals(options.getStreamUsage())));
+    }
+
+    private Conversation conversation(List<Assistant> active, List<Assistant> muted) {
+        final var company = Company.builder().id(1L).name("Acme").build();
+        final var conversation = new Conversation("Plan the release", User.builder()
+                .id(7L)
+                .username("alice")
+                .company(company)
+                .roles(new HashSet<>())
+                .build());
+        conversation.setId(5L);
+        active.forEach(conversation::addAssistant);
+        muted.forEach(assistant -> {
+            conversation.addAssistant(assistant);
+            conversation.muteAssistant(assistant);
+        });
+        return conversation;
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(12, 4)).build());
+    }
+}
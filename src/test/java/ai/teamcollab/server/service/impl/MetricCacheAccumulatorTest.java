@@ -0,0 +1,79 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Conversation;
+import ai.teamcollab.server.domain.LlmModel;
+import ai.teamcollab.server.domain.Metrics;
+import ai.teamcollab.server.repository.MetricCacheRepository;
+import ai.teamcollab.server.service.domain.MetricCacheDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricCacheAccumulatorTest {
+
+    @Mock
+    private MetricCacheRepository metricCacheRepository;
+
+    private MetricCacheAccumulator accumulator;
+    private Conversation conversation;
+    private LlmModel llmModel;
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new MetricCacheAccumulator(metricCacheRepository);
+        conversation = new Conversation();
+        conversation.setId(1L);
+        llmModel = LlmModel.builder().id(2L).build();
+    }
+
+    @Test
+    void whenSameConversationAndModelAreUpdated_thenDeltasAreMergedIntoOneWrite() {
+        accumulator.add(conversation, metrics(100, 10, 1));
+        accumulator.add(conversation, metrics(200, 20, 2));
+
+        accumulator.flush();
+
+        verify(metricCacheRepository).addDeltas(List.of(new MetricCacheDelta(1L, 2L, 300, 2, 30, 3)));
+    }
+
+    @Test
+    void whenFlushFails_thenDeltasAreKeptForTheNextFlush() {
+        when(metricCacheRepository.addDeltas(anyCollection()))
+                .thenThrow(new IllegalStateException("Connection refused"))
+                .thenReturn(1);
+        accumulator.add(conversation, metrics(100, 10, 1));
+
+        accumulator.flush();
+        accumulator.add(conversation, metrics(200, 20, 2));
+        accumulator.flush();
+
+        verify(metricCacheRepository).addDeltas(List.of(new MetricCacheDelta(1L, 2L, 300, 2, 30, 3)));
+    }
+
+    @Test
+    void whenNothingWasAdded_thenNothingIsWritten() {
+        accumulator.flush();
+
+        verify(metricCacheRepository, never()).addDeltas(anyCollection());
+    }
+
+    private Metrics metrics(long duration, int inputTokens, int outputTokens) {
+        return Metrics.builder()
+                .duration(duration)
+                .inputTokens(inputTokens)
+                .outputTokens(outputTokens)
+                .llmModel(llmModel)
+                .build();
+    }
+}
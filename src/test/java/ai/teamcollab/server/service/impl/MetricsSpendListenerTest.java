@@ -0,0 +1,41 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.domain.Message;
+import ai.teamcollab.server.domain.Metrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsSpendListenerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private CompanySpendTracker companySpendTracker;
+    @InjectMocks
+    private MetricsSpendListener listener;
+
+    @Test
+    void onPostInsert_withMetrics_shouldRecordTheSpend() {
+        final var metrics = Metrics.builder().id(1L).inputTokens(12).outputTokens(4).build();
+
+        listener.onPostInsert(new PostInsertEvent(metrics, 1L, new Object[0], null, null));
+
+        verify(companySpendTracker).record(metrics);
+    }
+
+    @Test
+    void onPostInsert_withAnotherEntity_shouldIgnoreIt() {
+        listener.onPostInsert(new PostInsertEvent(Message.builder().id(2L).build(), 2L, new Object[0], null, null));
+
+        verifyNoInteractions(companySpendTracker);
+    }
+}
@@ -0,0 +1,87 @@
+package ai.teamcollab.server.service.impl;
+
+import ai.teamcollab.server.config.RoutingCacheProperties;
+import ai.teamcollab.server.domain.Assistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingDecisionCacheTest {
+
+    private RoutingCacheProperties properties;
+    private RoutingDecisionCache cache;
+    private Assistant architect;
+    private Assistant tester;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RoutingCacheProperties();
+        cache = new RoutingDecisionCache(properties);
+        architect = Assistant.builder().id(1L).name("Architect").expertise("System design").build();
+        tester = Assistant.builder().id(2L).name("Tester").expertise("QA").build();
+    }
+
+    @Test
+    void whenMessageDiffersOnlyInCaseAndSpacing_thenDecisionIsReused() {
+        cache.put("Any thoughts on   the schema?", List.of(architect, tester), List.of(1L));
+
+        var decision = cache.get("  any thoughts on the SCHEMA? ", List.of(tester, architect));
+
+        assertThat(decision).contains(List.of(1L));
+        assertThat(cache.getStatistics().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void whenExpertiseChanges_thenDecisionIsNotReused() {
+        cache.put("Any thoughts?", List.of(architect, tester), List.of(1L));
+        tester.setExpertise("Performance testing");
+
+        assertThat(cache.get("Any thoughts?", List.of(architect, tester))).isEmpty();
+    }
+
+    @Test
+    void whenAssistantIsInvalidated_thenItsDecisionsAreEvicted() {
+        cache.put("Any thoughts?", List.of(architect, tester), List.of(1L));
+        cache.put("Anyone?", List.of(architect), List.of(1L));
+
+        cache.invalidateAssistant(2L);
+
+        assertThat(cache.get("Any thoughts?", List.of(architect, tester))).isEmpty();
+        assertThat(cache.get("Anyone?", List.of(architect))).contains(List.of(1L));
+        assertThat(cache.getStatistics().size()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCacheIsFull_thenDecisionsAreEvicted() {
+        properties.setMaxSize(1);
+        cache = new RoutingDecisionCache(properties);
+        cache.put("First?", List.of(architect, tester), List.of(1L));
+        cache.put("Second?", List.of(architect, tester), List.of(2L));
+        cache.put("Third?", List.of(architect, tester), List.of(1L, 2L));
+
+        assertThat(cache.getStatistics().size()).isEqualTo(1);
+        assertThat(cache.getStatistics().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsCached() {
+        properties.setEnabled(false);
+        cache.put("Any thoughts?", List.of(architect, tester), List.of(1L));
+
+        assertThat(cache.get("Any thoughts?", List.of(architect, tester))).isEmpty();
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+
+    @Test
+    void whenTtlHasPassed_thenDecisionExpires() {
+        properties.setTtl(Duration.ZERO);
+        cache = new RoutingDecisionCache(properties);
+        cache.put("Any thoughts?", List.of(architect, tester), List.of(1L));
+
+        assertThat(cache.get("Any thoughts?", List.of(architect, tester))).isEmpty();
+    }
+}
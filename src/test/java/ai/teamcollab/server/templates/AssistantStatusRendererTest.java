@@ -0,0 +1,66 @@
+package ai.teamcollab.server.templates;
+
+import ai.teamcollab.server.config.TemplateProperties;
+import ai.teamcollab.server.domain.Assistant;
+import ai.teamcollab.server.service.domain.ConversationAssistantsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static ai.teamcollab.server.templates.TemplatePath.ASSISTANT_STATUSES_TEMPLATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssistantStatusRendererTest {
+
+    @Mock
+    private ThymeleafTemplateRender thymeleafTemplateRender;
+
+    private AssistantStatusRenderer renderer;
+
+    private final Assistant planner = Assistant.builder().id(1L).name("Planner").build();
+    private final Assistant reviewer = Assistant.builder().id(2L).name("Reviewer").build();
+
+    @BeforeEach
+    void setUp() {
+        renderer = new AssistantStatusRenderer(thymeleafTemplateRender, new TemplateProperties());
+        when(thymeleafTemplateRender.renderToHtml(eq(ASSISTANT_STATUSES_TEMPLATE), any())).thenReturn("<statuses/>");
+    }
+
+    @Test
+    void render_sameAssistantsAndStatus_shouldRenderOnce() {
+        assertThat(renderer.render(List.of(planner, reviewer), "Ready")).isEqualTo("<statuses/>");
+        assertThat(renderer.render(List.of(reviewer, planner), "Ready")).isEqualTo("<statuses/>");
+
+        verify(thymeleafTemplateRender, times(1)).renderToHtml(eq(ASSISTANT_STATUSES_TEMPLATE), any());
+    }
+
+    @Test
+    void render_otherStatus_shouldRenderAgain() {
+        renderer.render(List.of(planner), "Ready");
+        renderer.render(List.of(planner), "Thinking...");
+
+        verify(thymeleafTemplateRender, times(2)).renderToHtml(eq(ASSISTANT_STATUSES_TEMPLATE), any());
+    }
+
+    @Test
+    void onConversationAssistantsChanged_shouldDropStatusesOfThatAssistant() {
+        renderer.render(List.of(planner, reviewer), "Ready");
+        renderer.render(List.of(reviewer), "Ready");
+
+        renderer.onConversationAssistantsChanged(new ConversationAssistantsChangedEvent(5L, 1L));
+        renderer.render(List.of(planner, reviewer), "Ready");
+        renderer.render(List.of(reviewer), "Ready");
+
+        verify(thymeleafTemplateRender, times(3)).renderToHtml(eq(ASSISTANT_STATUSES_TEMPLATE), any());
+    }
+}
@@ -0,0 +1,71 @@
+package ai.teamcollab.server.templates;
+
+import ai.teamcollab.server.config.TemplateProperties;
+import ai.teamcollab.server.service.domain.MessageRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static ai.teamcollab.server.templates.TemplatePath.CONVERSATION_MESSAGE_TEMPLATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageRowRendererTest {
+
+    @Mock
+    private ThymeleafTemplateRender thymeleafTemplateRender;
+
+    private MessageRowRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new MessageRowRenderer(thymeleafTemplateRender, new TemplateProperties());
+        when(thymeleafTemplateRender.renderToHtml(eq(CONVERSATION_MESSAGE_TEMPLATE), any())).thenReturn("<row/>");
+    }
+
+    @Test
+    void render_savedMessage_shouldRenderOnce() {
+        final var row = row(1L, false);
+
+        assertThat(renderer.render(row)).isEqualTo("<row/>");
+        assertThat(renderer.render(row.toBuilder().build())).isEqualTo("<row/>");
+
+        verify(thymeleafTemplateRender, times(1)).renderToHtml(eq(CONVERSATION_MESSAGE_TEMPLATE), any());
+    }
+
+    @Test
+    void render_whenBookmarkChanges_shouldRenderAgain() {
+        renderer.render(row(1L, false));
+        renderer.render(row(1L, true));
+
+        verify(thymeleafTemplateRender, times(2)).renderToHtml(eq(CONVERSATION_MESSAGE_TEMPLATE), any());
+    }
+
+    @Test
+    void render_unsavedMessage_shouldNotBeCached() {
+        renderer.render(row(null, false));
+        renderer.render(row(null, false));
+
+        verify(thymeleafTemplateRender, times(2)).renderToHtml(eq(CONVERSATION_MESSAGE_TEMPLATE), any());
+    }
+
+    private static MessageRow row(Long id, boolean bookmarked) {
+        return MessageRow.builder()
+                .id(id)
+                .username("alice")
+                .content("hello")
+                .conversationId(3L)
+                .bookmarked(bookmarked)
+                .createdAt(LocalDateTime.of(2025, 3, 1, 9, 30))
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package ai.teamcollab.server.ws;
+
+import ai.teamcollab.server.config.WebSocketProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundQueueMonitorTest {
+
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<AbstractBrokerMessageHandler> brokerProvider = mock(ObjectProvider.class);
+    private OutboundQueueMonitor monitor;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final var properties = new WebSocketProperties();
+        properties.getTransport().setMaxQueuedMessagesPerSession(2);
+        monitor = new OutboundQueueMonitor(properties, brokerProvider);
+        handler = monitor.decorate(mock(WebSocketHandler.class));
+
+        when(session.getId()).thenReturn("s1");
+        handler.afterConnectionEstablished(session);
+    }
+
+    @Test
+    void preSend_shouldCountQueuedMessagesUntilHandled() {
+        final var message = message("s1");
+
+        monitor.preSend(message, null);
+        monitor.preSend(message, null);
+        monitor.afterMessageHandled(message, null, null, null);
+
+        final var statistics = monitor.getStatistics();
+        assertThat(statistics.sessions()).isEqualTo(1);
+        assertThat(statistics.queued()).isEqualTo(1);
+        assertThat(statistics.deepestSessions()).singleElement()
+                .satisfies(depth -> {
+                    assertThat(depth.queued()).isEqualTo(1);
+                    assertThat(depth.maxQueued()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void preSend_pastTheLimit_shouldDropTheMessageAndCloseTheSession() throws Exception {
+        final var message = message("s1");
+        monitor.preSend(message, null);
+        monitor.preSend(message, null);
+
+        assertThat(monitor.preSend(message, null)).isNull();
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        final var statistics = monitor.getStatistics();
+        assertThat(statistics.sessions()).isZero();
+        assertThat(statistics.slowConsumersDisconnected()).isEqualTo(1);
+    }
+
+    @Test
+    void afterSendCompletion_whenRejected_shouldDequeueTheMessage() throws Exception {
+        final var message = message("s1");
+        monitor.preSend(message, null);
+        monitor.preSend(message, null);
+
+        monitor.afterSendCompletion(message, null, false, new IllegalStateException("rejected"));
+
+        assertThat(monitor.preSend(message, null)).isNotNull();
+        verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void closedBySendLimit_shouldCountAsSlowConsumer() throws Exception {
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(monitor.getStatistics().slowConsumersDisconnected()).isEqualTo(1);
+    }
+
+    @Test
+    void preSend_forUnknownSession_shouldPassTheMessage() {
+        final var message = message("unknown");
+
+        assertThat(monitor.preSend(message, null)).isSameAs(message);
+        assertThat(monitor.getStatistics().queued()).isZero();
+    }
+
+    @Test
+    void slowSession_behindTheOrderedBrokerQueue_shouldBeDisconnected() throws Exception {
+        final var executor = Executors.newCachedThreadPool();
+        final var connected = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var inbound = new ExecutorSubscribableChannel();
+        final var outbound = new ExecutorSubscribableChannel(executor);
+        final var brokerChannel = new ExecutorSubscribableChannel();
+        // A client that never reads: the first message blocks its session, the broker queues the rest
+        outbound.subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.CONNECT_ACK) {
+                connected.countDown();
+                return;
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        outbound.addInterceptor(monitor);
+        brokerChannel.addInterceptor(monitor.brokerChannelInterceptor());
+        final var broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic/"));
+        broker.setPreservePublishOrder(true);
+        when(brokerProvider.getIfAvailable()).thenReturn(broker);
+        broker.start();
+        try {
+            broker.handleMessage(frame(SimpMessageType.CONNECT, null));
+            broker.handleMessage(frame(SimpMessageType.SUBSCRIBE, "/topic/conversation.7"));
+            assertThat(connected.await(5, TimeUnit.SECONDS)).isTrue();
+            await(() -> monitor.getStatistics().queued() == 0);
+
+            brokerChannel.send(published("/topic/conversation.7"));
+            brokerChannel.send(published("/topic/conversation.7"));
+            verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(monitor.getStatistics().queued()).isEqualTo(2);
+
+            brokerChannel.send(published("/topic/conversation.7"));
+            verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(monitor.getStatistics().slowConsumersDisconnected()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            broker.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String destination) {
+        final var accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId("s1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> published(String destination) {
+        final var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> message(String sessionId) {
+        final var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,185 @@
+package ai.teamcollab.server.ws;
+
+import ai.teamcollab.server.config.WebSocketProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two nodes, each with its own connections and broker channel, sharing one PostgreSQL database.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresBrokerFanoutTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    private final BlockingQueue<Message<?>> receivedByA = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Message<?>> receivedByB = new LinkedBlockingQueue<>();
+    private PostgresBrokerFanout nodeA;
+    private PostgresBrokerFanout nodeB;
+
+    @BeforeAll
+    static void createSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V10__create_broker_relay_messages.sql"))
+                .execute(dataSource());
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        nodeA = node((message, timeout) -> receivedByA.add(message));
+        nodeB = node((message, timeout) -> receivedByB.add(message));
+        awaitListening(nodeA);
+        awaitListening(nodeB);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void topicMessage_shouldReachTheOtherNodeOnly() throws InterruptedException {
+        nodeA.preSend(message("/topic/conversation.7", "hello"), null);
+
+        final var received = receivedByB.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(SimpMessageHeaderAccessor.getDestination(received.getHeaders())).isEqualTo("/topic/conversation.7");
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(received.getHeaders().get(MessageHeaders.CONTENT_TYPE))
+                .hasToString(MimeTypeUtils.APPLICATION_JSON_VALUE);
+        assertThat(receivedByA.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void relayedMessage_shouldNotBePassedOnAgain() throws InterruptedException {
+        nodeA.preSend(message("/user/alice/queue/messages", "hi"), null);
+
+        final var received = receivedByB.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        nodeB.preSend(received, null);
+
+        assertThat(receivedByA.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void largeMessage_shouldBeRelayedThroughTheTable() throws InterruptedException {
+        final var payload = "x".repeat(20_000);
+
+        nodeA.preSend(message("/user/alice/queue/messages", payload), null);
+
+        final var received = receivedByB.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo(payload);
+    }
+
+    @Test
+    void queueMessage_shouldStayOnTheNode() throws InterruptedException {
+        nodeA.preSend(message("/queue/messages-user1234", "resolved"), null);
+
+        assertThat(receivedByB.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void userMessage_shouldBeResolvedAgainstTheSessionsOfTheReceivingNode() throws InterruptedException {
+        final var session = mock(SimpSession.class);
+        when(session.getId()).thenReturn("c3");
+        final var bob = mock(SimpUser.class);
+        when(bob.getSessions()).thenReturn(Set.of(session));
+        final var userRegistry = mock(SimpUserRegistry.class);
+        when(userRegistry.getUser("bob")).thenReturn(bob);
+
+        final var delivered = new LinkedBlockingQueue<Message<?>>();
+        final var brokerChannel = new ExecutorSubscribableChannel();
+        brokerChannel.subscribe(delivered::add);
+        final var userDestinations = new UserDestinationMessageHandler(new ExecutorSubscribableChannel(),
+                brokerChannel, new DefaultUserDestinationResolver(userRegistry));
+        userDestinations.start();
+        final var nodeC = node(brokerChannel);
+        brokerChannel.addInterceptor(nodeC);
+        awaitListening(nodeC);
+        try {
+            nodeA.preSend(message("/user/bob/queue/messages", "hi"), null);
+
+            Message<?> received;
+            do {
+                received = delivered.poll(5, TimeUnit.SECONDS);
+                assertThat(received).isNotNull();
+            } while (SimpMessageHeaderAccessor.getDestination(received.getHeaders()).startsWith("/user/"));
+            assertThat(SimpMessageHeaderAccessor.getDestination(received.getHeaders()))
+                    .isEqualTo("/queue/messages-userc3");
+            assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("hi");
+            assertThat(receivedByA.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            nodeC.stop();
+            userDestinations.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PostgresBrokerFanout node(MessageChannel brokerChannel) {
+        final ObjectProvider<MessageChannel> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(brokerChannel);
+
+        final var dataSource = dataSource();
+        final var fanout = new PostgresBrokerFanout(dataSource, new JdbcTemplate(dataSource), new ObjectMapper(),
+                provider, new WebSocketProperties());
+        fanout.start();
+        return fanout;
+    }
+
+    private static void awaitListening(PostgresBrokerFanout node) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!node.isListening() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(node.isListening()).isTrue();
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static Message<byte[]> message(String destination, String payload) {
+        final var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}